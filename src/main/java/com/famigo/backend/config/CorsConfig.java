@@ -52,6 +52,9 @@ public class CorsConfig {
     // （実際のブラウザは Accept なども付与するため、ここはワイルドカードで許可しておく）
     config.setAllowedHeaders(List.of("*"));
 
+    // ページ取得の次カーソル（X-Next-Cursor）と、再取得時の If-None-Match に使う ETag をフロントのJSから参照できるように公開する
+    config.setExposedHeaders(List.of("X-Next-Cursor", "ETag"));
+
     // Cookieを使わない（Bearerトークン方式）想定のため false
     config.setAllowCredentials(false);
 
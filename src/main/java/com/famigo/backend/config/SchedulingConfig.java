@@ -0,0 +1,16 @@
+package com.famigo.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定期実行（@Scheduled）を有効化する設定。
+ * 例：スポットカタログ索引（SpotCatalogIndex）の差分取り込み・全件再構築、
+ *     レビュー集計（SpotReviewStatsReconciler）の突き合わせ、
+ *     期限切れリフレッシュトークン（RefreshTokenService）の削除
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
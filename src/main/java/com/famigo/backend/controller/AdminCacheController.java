@@ -0,0 +1,58 @@
+package com.famigo.backend.controller;
+
+import com.famigo.backend.dto.CacheStatsDto;
+import com.famigo.backend.exception.ErrorResponse;
+import com.famigo.backend.service.CacheStatsRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 管理者向けの運用 API（インメモリキャッシュの統計情報）を提供する Controller クラスです。
+ */
+@RestController
+@Tag(name = "管理", description = "管理者向けの運用情報")
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminCacheController {
+
+  private final CacheStatsRegistry cacheStatsRegistry;
+
+
+  @Operation(
+      summary = "キャッシュ統計の取得",
+      description = "インメモリキャッシュごとのエントリ数・ヒット率などを名前順で取得します（ADMIN のみ）。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "取得成功",
+              content = @Content(
+                  mediaType = "application/json",
+                  array = @ArraySchema(
+                      schema = @Schema(implementation = CacheStatsDto.class)
+                  )
+              )
+          ),
+          @ApiResponse(
+              responseCode = "403",
+              description = "権限なし（ADMIN 以外）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          )
+      }
+  )
+  @GetMapping("/caches")
+  public List<CacheStatsDto> getCacheStats() {
+    return cacheStatsRegistry.snapshot();
+  }
+}
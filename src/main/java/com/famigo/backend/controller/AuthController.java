@@ -2,6 +2,7 @@ package com.famigo.backend.controller;
 
 import com.famigo.backend.dto.auth.LoginRequest;
 import com.famigo.backend.dto.auth.LoginResponse;
+import com.famigo.backend.dto.auth.RefreshTokenRequest;
 import com.famigo.backend.dto.auth.RegisterRequest;
 import com.famigo.backend.exception.ErrorResponse;
 import com.famigo.backend.service.AuthService;
@@ -22,11 +23,11 @@ import org.springframework.web.bind.annotation.RestController;
 /**
  * 外部認証（ユーザー登録・ログイン）を提供する REST API の Controller クラスです。
  * ポイント：
- *   登録（POST /api/users）とログイン（POST /api/auth/token）をこのControllerでまとめて扱う。
+ *   登録（POST /api/users）とログイン（POST /api/auth/token）、アクセストークン再発行（POST /api/auth/refresh）をこのControllerでまとめて扱う。
  *   登録成功時も JWT を発行して返却（= 登録後に自動ログイン）する。
  * ※ /api/users は「ユーザー作成」だが、実装上は登録後にJWT発行まで行うため「外部認証フロー」の一部として扱う。
  */
-@Tag(name = "外部認証", description = "ユーザー登録 / ログイン（JWT発行）")
+@Tag(name = "外部認証", description = "ユーザー登録 / ログイン（JWT発行） / アクセストークン再発行")
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
@@ -135,4 +136,56 @@ public class AuthController {
   public LoginResponse token(@RequestBody @Valid LoginRequest request) {
     return authService.login(request);
   }
+
+
+  /**
+   * アクセストークンの再発行を行うエンドポイント。
+   * ログイン・登録・前回の再発行で受け取ったリフレッシュトークンで、パスワードなしに JWT を発行し直します。
+   * 使用したリフレッシュトークンは無効になり、新しいリフレッシュトークンを返却します。
+   *
+   * @param request 再発行要求（refreshToken）
+   * @return 再発行結果（JWTなど：LoginResponse）
+   */
+  @Operation(
+      summary = "アクセストークン再発行",
+      description = "リフレッシュトークンが有効な場合に JWT と新しいリフレッシュトークンを発行します（使用したリフレッシュトークンは無効になります）。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "再発行成功",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = LoginResponse.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "入力不正（バリデーションエラー）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "401",
+              description = "再発行失敗（使用済み・期限切れ・失効済みのリフレッシュトークン）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "想定外エラー",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          )
+      }
+  )
+  @PostMapping("/auth/refresh")
+  public LoginResponse refresh(@RequestBody @Valid RefreshTokenRequest request) {
+    return authService.refresh(request);
+  }
 }
@@ -4,6 +4,7 @@ import com.famigo.backend.dto.CategoryDto;
 import com.famigo.backend.exception.ErrorResponse;
 import com.famigo.backend.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * 「カテゴリ一覧」を提供する REST API の Controller クラスです。
@@ -29,7 +31,8 @@ public class CategoryController {
 
   @Operation(
       summary = "カテゴリ一覧の取得",
-      description = "categories テーブルのカテゴリ一覧を ID 昇順で取得します。",
+      description = "categories テーブルのカテゴリ一覧を ID 昇順で取得します。"
+          + "応答には ETag を付けます。再取得時に If-None-Match で送ると、変更がなければ 304（本文なし）を返します。",
       responses = {
           @ApiResponse(
               responseCode = "200",
@@ -41,6 +44,10 @@ public class CategoryController {
                   )
               )
           ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
           @ApiResponse(
               responseCode = "500",
               description = "想定外エラー",
@@ -52,7 +59,10 @@ public class CategoryController {
       }
   )
   @GetMapping
-  public List<CategoryDto> getCategories() {
+  public List<CategoryDto> getCategories(@Parameter(hidden = true) ServletWebRequest request) {
+    if (ConditionalGet.notModified(request, categoryService.getETag(), false)) {
+      return null;
+    }
     return categoryService.getAll();
   }
 }
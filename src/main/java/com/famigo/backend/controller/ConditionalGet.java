@@ -0,0 +1,36 @@
+package com.famigo.backend.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * ETag による条件付き GET（If-None-Match → 304）の共通処理。
+ * Spring Security は既定で「Cache-Control: no-store」を付けるため、ETag を付ける応答は
+ * 「no-cache（保存してよいが毎回再検証する）」に置き換えて、クライアントが If-None-Match を送れるようにする。
+ */
+final class ConditionalGet {
+
+  private ConditionalGet() {
+  }
+
+  /**
+   * ETag を応答に付け、リクエストの If-None-Match と一致するか判定する。
+   * true の場合はステータス 304 が設定済みのため、Controller は本文を作らずに null を返すこと。
+   *
+   * @param request   リクエスト
+   * @param eTag      ETag（null の場合は何もせず false を返す）
+   * @param userAware ログイン状態で内容が変わる応答の場合は true（Vary: Authorization を付ける）
+   * @return true:変更なし（304） / false:本文を返す
+   */
+  static boolean notModified(ServletWebRequest request, String eTag, boolean userAware) {
+    if (eTag == null || request.getResponse() == null) {
+      return false;
+    }
+    request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+    if (userAware) {
+      request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+    }
+    return request.checkNotModified(eTag);
+  }
+}
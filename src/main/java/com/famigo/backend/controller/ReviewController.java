@@ -1,11 +1,14 @@
 package com.famigo.backend.controller;
 
+import com.famigo.backend.dto.CursorPage;
 import com.famigo.backend.dto.ReviewUpsertRequest;
 import com.famigo.backend.dto.ReviewListItemDto;
 import com.famigo.backend.exception.ErrorResponse;
 import com.famigo.backend.security.AppUserPrincipal;
 import com.famigo.backend.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,6 +18,7 @@ import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,6 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -40,16 +45,30 @@ public class ReviewController {
 
   @Operation(
       summary = "レビュー一覧取得【スポットID指定】",
-      description = "パスで指定されたスポットIDに紐づくレビュー一覧を取得します。",
+      description = "パスで指定されたスポットIDに紐づくレビュー一覧を、投稿日時の新しい順に取得します。"
+          + "limit / before を指定するとキーセット方式のページ取得になり、"
+          + "続きがある場合は次ページ用カーソルを X-Next-Cursor ヘッダで返します（before に渡して次ページを取得）。",
       responses = {
           @ApiResponse(
               responseCode = "200",
               description = "レビュー一覧取得成功",
+              headers = @Header(
+                  name = SpotController.NEXT_CURSOR_HEADER,
+                  description = "次ページ取得用カーソル（ページ取得時、続きがある場合のみ）"
+              ),
               content = @Content(
                   mediaType = "application/json",
                   array = @ArraySchema(schema = @Schema(implementation = ReviewListItemDto.class))
               )
           ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "入力不正（limit が1未満、カーソルが不正など）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          ),
           @ApiResponse(
               responseCode = "500",
               description = "想定外エラー",
@@ -61,8 +80,25 @@ public class ReviewController {
       }
   )
   @GetMapping("/{spotId}/reviews")
-  public List<ReviewListItemDto> getReviewsBySpotId(@PathVariable Long spotId) {
-    return reviewService.getReviewsBySpotId(spotId);
+  public ResponseEntity<List<ReviewListItemDto>> getReviewsBySpotId(
+      @PathVariable Long spotId,
+      @Parameter(description = "1ページの件数（1〜100）。未指定かつ before も未指定の場合は全件を返す")
+      @RequestParam(required = false) Integer limit,
+      @Parameter(description = "前ページの X-Next-Cursor ヘッダの値")
+      @RequestParam(required = false) String before
+  ) {
+    // ページ指定なし：従来どおり全件（既存クライアント互換）
+    if (limit == null && before == null) {
+      return ResponseEntity.ok(reviewService.getReviewsBySpotId(spotId));
+    }
+
+    CursorPage<ReviewListItemDto> page = reviewService.getReviewPage(spotId, before, limit);
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      builder.header(SpotController.NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return builder.body(page.getItems());
   }
 
 
@@ -1,27 +1,44 @@
 package com.famigo.backend.controller;
 
+import com.famigo.backend.dto.CursorPage;
+import com.famigo.backend.dto.NearbySpotDto;
+import com.famigo.backend.dto.SpotBatchDto;
+import com.famigo.backend.dto.SpotClusterDto;
 import com.famigo.backend.dto.SpotDetailDto;
+import com.famigo.backend.dto.SpotFacetsDto;
 import com.famigo.backend.dto.SpotListItemDto;
 import com.famigo.backend.dto.SpotSearchCondition;
 import com.famigo.backend.exception.ErrorResponse;
 import com.famigo.backend.enums.AgeGroup;
 import com.famigo.backend.enums.PriceType;
+import com.famigo.backend.enums.SpotSortType;
+import com.famigo.backend.enums.SpotStreamFormat;
 import com.famigo.backend.security.AppUserPrincipal;
 import com.famigo.backend.service.SpotService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * 「スポット一覧・詳細情報」を提供する REST API の Controller クラスです。 トップページ一覧・スポット詳細画面から呼び出されます。
@@ -32,23 +49,41 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class SpotController {
 
+  // 次ページ取得用カーソルを返すレスポンスヘッダ名
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   private final SpotService spotService;
+  private final ObjectMapper objectMapper;
 
   @Operation(
       summary = "スポット一覧の取得【検索条件指定可】",
       description = "カテゴリ情報・設備情報を JOIN 済みのスポット一覧を取得します。"
           + "クエリパラメータでカテゴリID、キーワード、予算（Enum名）、対象年齢（Enum名）、設備などを指定可能です。"
           + "いずれの条件も指定されない場合は、論理削除されていないスポットを ID 昇順で全件返します。"
-          + "ログイン時は、お気に入り状態（isFavorite）も合わせて返します。",
+          + "sort=RELEVANCE とキーワードを指定すると、キーワードの関連度が高い順に返します。"
+          + "sort=RATING / REVIEWS / FAVORITES / NEWEST を指定すると、評価が高い順（同じ評価はレビュー件数が多い順）"
+          + " / レビュー件数が多い順 / お気に入り数が多い順 / 新着順に返します（同点は ID 昇順）。"
+          + "ログイン時は、お気に入り状態（isFavorite）も合わせて返します。"
+          + "limit / after を指定するとキーセット方式のページ取得になり、"
+          + "続きがある場合は次ページ用カーソルを X-Next-Cursor ヘッダで返します（after に渡して次ページを取得）。"
+          + "応答には ETag を付けます。再取得時に If-None-Match で送ると、変更がなければ 304（本文なし）を返します。",
       responses = {
           @ApiResponse(
               responseCode = "200",
               description = "一覧取得成功",
+              headers = @Header(
+                  name = NEXT_CURSOR_HEADER,
+                  description = "次ページ取得用カーソル（ページ取得時、続きがある場合のみ）"
+              ),
               content = @Content(
                   mediaType = "application/json",
                   array = @ArraySchema(schema = @Schema(implementation = SpotListItemDto.class))
               )
           ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
           @ApiResponse(
               responseCode = "400",
               description = "入力不正（クエリパラメータのバリデーションエラー等）",
@@ -68,30 +103,334 @@ public class SpotController {
       }
   )
   @GetMapping
-  public List<SpotListItemDto> getSpots(
+  public ResponseEntity<List<SpotListItemDto>> getSpots(
       @RequestParam(required = false) List<Long> categoryIds,
       @RequestParam(required = false) String keyword,
       @RequestParam(required = false) List<PriceType> price,
       @RequestParam(required = false) List<AgeGroup> age,
       @RequestParam(required = false, name = "facilities") List<String> facilities,
-      @AuthenticationPrincipal Object principal
+      @Parameter(description = "並び順（ID / RELEVANCE / RATING / REVIEWS / FAVORITES / NEWEST）。"
+          + "未指定は ID。RELEVANCE はキーワード指定時のみ有効")
+      @RequestParam(required = false) SpotSortType sort,
+      @Parameter(description = "1ページの件数（1〜100）。未指定かつ after も未指定の場合は全件を返す")
+      @RequestParam(required = false) Integer limit,
+      @Parameter(description = "前ページの X-Next-Cursor ヘッダの値")
+      @RequestParam(required = false) String after,
+      @AuthenticationPrincipal Object principal,
+      @Parameter(hidden = true) ServletWebRequest request
   ) {
-    SpotSearchCondition condition = new SpotSearchCondition();
-    condition.setCategoryIds(categoryIds);
-    condition.setKeyword(keyword);
-    condition.setPrice(price);
-    condition.setAge(age);
-    condition.setFacilities(facilities);
+    Long userId = resolveUserId(principal);
+
+    // カタログ・お気に入りに変更がなければ、検索せずに 304 を返す
+    if (ConditionalGet.notModified(request, spotService.getCatalogETag(userId), true)) {
+      return null;
+    }
+
+    SpotSearchCondition condition = toCondition(categoryIds, keyword, price, age, facilities);
+    condition.setSort(sort);
+
+    // ページ指定なし：従来どおり全件（既存クライアント互換）
+    if (limit == null && after == null) {
+      return ResponseEntity.ok(spotService.getSpotList(condition, userId));
+    }
+
+    CursorPage<SpotListItemDto> page = spotService.getSpotPage(condition, userId, after, limit);
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return builder.body(page.getItems());
+  }
+
+
+  @Operation(
+      summary = "近くのスポットの取得【検索条件指定可】",
+      description = "指定した地点（lat / lng）から半径 radiusKm 以内のスポットを、近い順に最大 limit 件取得します。"
+          + "検索条件（カテゴリ、キーワード、予算、対象年齢、設備）は一覧取得（GET /api/spots）と同じです。"
+          + "緯度・経度が未設定のスポットは含まれません。各スポットには中心からの距離（distanceKm）が付きます。"
+          + "ログイン時は、お気に入り状態（isFavorite）も合わせて返します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "取得成功",
+              content = @Content(
+                  mediaType = "application/json",
+                  array = @ArraySchema(schema = @Schema(implementation = NearbySpotDto.class))
+              )
+          ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "入力不正（緯度・経度の未指定や範囲外、半径・件数が不正など）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          )
+      }
+  )
+  @GetMapping("/nearby")
+  public List<NearbySpotDto> getNearbySpots(
+      @Parameter(description = "中心の緯度（-90〜90）", required = true)
+      @RequestParam(required = false) Double lat,
+      @Parameter(description = "中心の経度（-180〜180）", required = true)
+      @RequestParam(required = false) Double lng,
+      @Parameter(description = "半径（km）。未指定は 5、上限は 50")
+      @RequestParam(required = false) Double radiusKm,
+      @Parameter(description = "最大件数（1〜100）。未指定は 20")
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) List<Long> categoryIds,
+      @RequestParam(required = false) String keyword,
+      @RequestParam(required = false) List<PriceType> price,
+      @RequestParam(required = false) List<AgeGroup> age,
+      @RequestParam(required = false, name = "facilities") List<String> facilities,
+      @AuthenticationPrincipal Object principal,
+      @Parameter(hidden = true) ServletWebRequest request
+  ) {
+    Long userId = resolveUserId(principal);
+    if (ConditionalGet.notModified(request, spotService.getCatalogETag(userId), true)) {
+      return null;
+    }
+    return spotService.getNearbySpots(toCondition(categoryIds, keyword, price, age, facilities),
+        userId, lat, lng, radiusKm, limit);
+  }
+
+
+  @Operation(
+      summary = "絞り込み候補ごとの件数の取得【検索条件指定可】",
+      description = "検索条件は一覧取得（GET /api/spots）と同じです。"
+          + "現在の条件での件数と、カテゴリ・予算・対象年齢・設備の候補ごとに「その候補を選んだ場合の件数」を返します。"
+          + "カテゴリ・予算・対象年齢は同じ項目内が OR 条件のため、その項目自身の条件を除いて数えます。"
+          + "設備はすべてを満たす条件のため、現在の条件にその設備を加えた件数を数えます。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "取得成功",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = SpotFacetsDto.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "入力不正（クエリパラメータのバリデーションエラー等）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          )
+      }
+  )
+  @GetMapping("/facets")
+  public SpotFacetsDto getSpotFacets(
+      @RequestParam(required = false) List<Long> categoryIds,
+      @RequestParam(required = false) String keyword,
+      @RequestParam(required = false) List<PriceType> price,
+      @RequestParam(required = false) List<AgeGroup> age,
+      @RequestParam(required = false, name = "facilities") List<String> facilities,
+      @Parameter(hidden = true) ServletWebRequest request
+  ) {
+    // 件数はユーザーに依存しない
+    if (ConditionalGet.notModified(request, spotService.getCatalogETag(null), false)) {
+      return null;
+    }
+    return spotService.getFacets(toCondition(categoryIds, keyword, price, age, facilities));
+  }
+
+
+  @Operation(
+      summary = "地図表示用のマーカー集約（クラスタ）の取得",
+      description = "地図の表示範囲（bbox）とズームレベルに対し、グリッドセルごとに集約したクラスタ"
+          + "（件数・重心・代表スポットID）を返します。"
+          + "セルはズームごとに集計済みのため、応答の件数はスポット数ではなく表示範囲の大きさで決まります。"
+          + "bbox は「西端の経度,南端の緯度,東端の経度,北端の緯度」です（日付変更線をまたぐ範囲は指定できません）。"
+          + "緯度・経度が未設定のスポットは含みません。検索条件による絞り込みはできません。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "取得成功",
+              content = @Content(
+                  mediaType = "application/json",
+                  array = @ArraySchema(schema = @Schema(implementation = SpotClusterDto.class))
+              )
+          ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "入力不正（bbox の形式が不正、zoom が未指定・負の値等）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          )
+      }
+  )
+  @GetMapping("/clusters")
+  public List<SpotClusterDto> getSpotClusters(
+      @Parameter(description = "表示範囲（西端の経度,南端の緯度,東端の経度,北端の緯度）", required = true)
+      @RequestParam(required = false) String bbox,
+      @Parameter(description = "地図のズームレベル（0 以上。18 を超える場合は 18 として扱う）", required = true)
+      @RequestParam(required = false) Integer zoom,
+      @Parameter(hidden = true) ServletWebRequest request
+  ) {
+    // クラスタはユーザーに依存しない
+    if (ConditionalGet.notModified(request, spotService.getCatalogETag(null), false)) {
+      return null;
+    }
+    return spotService.getClusters(bbox, zoom);
+  }
+
+
+  @Operation(
+      summary = "スポット一覧のストリーミング取得【検索条件指定可】",
+      description = "検索条件は一覧取得（GET /api/spots）と同じです。"
+          + "DB から1件ずつ読み出しながら書き出すため、全件取得でもサーバーのメモリ使用量が一定で、最初の1件が早く届きます。"
+          + "format=JSON（既定）は JSON 配列、format=NDJSON は1行1件の JSON（application/x-ndjson）で返します。"
+          + "並び順は常に ID 昇順です（sort は指定できません）。"
+          + "ログイン時は、お気に入り状態（isFavorite）も合わせて返します。"
+          + "出力開始後に DB エラーが起きた場合はエラー応答を返せないため、接続を切断します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "一覧取得成功",
+              content = {
+                  @Content(
+                      mediaType = "application/json",
+                      array = @ArraySchema(schema = @Schema(implementation = SpotListItemDto.class))
+                  ),
+                  @Content(
+                      mediaType = "application/x-ndjson",
+                      schema = @Schema(implementation = SpotListItemDto.class)
+                  )
+              }
+          ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "入力不正（クエリパラメータのバリデーションエラー等）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          )
+      }
+  )
+  @GetMapping("/stream")
+  public ResponseEntity<StreamingResponseBody> streamSpots(
+      @RequestParam(required = false) List<Long> categoryIds,
+      @RequestParam(required = false) String keyword,
+      @RequestParam(required = false) List<PriceType> price,
+      @RequestParam(required = false) List<AgeGroup> age,
+      @RequestParam(required = false, name = "facilities") List<String> facilities,
+      @Parameter(description = "出力形式（JSON / NDJSON）。未指定は JSON")
+      @RequestParam(defaultValue = "JSON") SpotStreamFormat format,
+      @AuthenticationPrincipal Object principal,
+      @Parameter(hidden = true) ServletWebRequest request
+  ) {
+    Long userId = resolveUserId(principal);
+    if (ConditionalGet.notModified(request, spotService.getCatalogETag(userId), true)) {
+      return null;
+    }
+
+    SpotSearchCondition condition = toCondition(categoryIds, keyword, price, age, facilities);
+    boolean ndjson = format == SpotStreamFormat.NDJSON;
 
+    // 書き出しは別スレッドで行われる（DB の読み出し〜書き出しの間だけトランザクションを保持する）
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator json = objectMapper.createGenerator(out)) {
+        // 出力ストリームの close はコンテナに任せる
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+        if (!ndjson) {
+          json.writeStartArray();
+        }
+        spotService.streamSpotList(condition, userId, item -> {
+          try {
+            json.writeObject(item);
+            if (ndjson) {
+              json.writeRaw('\n');
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+        if (!ndjson) {
+          json.writeEndArray();
+        }
+      }
+    };
+
+    return ResponseEntity.ok()
+        .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+        .body(body);
+  }
+
+
+  @Operation(
+      summary = "スポット詳細情報のまとめて取得【スポットID複数指定】",
+      description = "クエリパラメータ ids（カンマ区切り、または ids を複数指定）で指定したスポットの詳細情報を、"
+          + "指定した順にまとめて取得します（1回の DB 問い合わせで取得します）。"
+          + "存在しない・論理削除済みのIDはエラーにせず、missingIds で返します。重複したIDは最初の1件のみ返します。"
+          + "1回で指定できるIDの数には上限があります（既定 50）。"
+          + "ログイン時は、お気に入り状態（isFavorite）も合わせて返します。"
+          + "応答には ETag を付けます。再取得時に If-None-Match で送ると、変更がなければ 304（本文なし）を返します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "取得成功（一部のIDが見つからない場合も 200）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = SpotBatchDto.class)
+              )
+          ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "入力不正（ids が未指定、上限を超える件数など）",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ErrorResponse.class)
+              )
+          )
+      }
+  )
+  @GetMapping("/batch")
+  public SpotBatchDto getSpotDetails(
+      @Parameter(description = "スポットID（カンマ区切り）", required = true)
+      @RequestParam(required = false) List<Long> ids,
+      @AuthenticationPrincipal Object principal,
+      @Parameter(hidden = true) ServletWebRequest request
+  ) {
     Long userId = resolveUserId(principal);
-    return spotService.getSpotList(condition, userId);
+    if (ConditionalGet.notModified(request, spotService.getCatalogETag(userId), true)) {
+      return null;
+    }
+    return spotService.getSpotDetails(ids, userId);
   }
 
 
   @Operation(
       summary = "スポット詳細情報の取得【スポットID指定】",
       description = "パスで指定されたスポットIDに該当するスポット詳細情報を1件取得します。"
-          + "ログイン時は、お気に入り状態（isFavorite）も合わせて返します。",
+          + "ログイン時は、お気に入り状態（isFavorite）も合わせて返します。"
+          + "応答には ETag を付けます。再取得時に If-None-Match で送ると、変更がなければ 304（本文なし）を返します。",
       responses = {
           @ApiResponse(
               responseCode = "200",
@@ -101,6 +440,10 @@ public class SpotController {
                   schema = @Schema(implementation = SpotDetailDto.class)
               )
           ),
+          @ApiResponse(
+              responseCode = "304",
+              description = "変更なし（If-None-Match が現在の ETag と一致）"
+          ),
           @ApiResponse(
               responseCode = "404",
               description = "スポットが存在しない",
@@ -122,12 +465,27 @@ public class SpotController {
   @GetMapping("/{id}")
   public SpotDetailDto getSpotDetail(
       @PathVariable Long id,
-      @AuthenticationPrincipal Object principal
+      @AuthenticationPrincipal Object principal,
+      @Parameter(hidden = true) ServletWebRequest request
   ) {
     Long userId = resolveUserId(principal);
+    if (ConditionalGet.notModified(request, spotService.getCatalogETag(userId), true)) {
+      return null;
+    }
     return spotService.getSpotDetail(id, userId);
   }
 
+  private SpotSearchCondition toCondition(List<Long> categoryIds, String keyword,
+      List<PriceType> price, List<AgeGroup> age, List<String> facilities) {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setCategoryIds(categoryIds);
+    condition.setKeyword(keyword);
+    condition.setPrice(price);
+    condition.setAge(age);
+    condition.setFacilities(facilities);
+    return condition;
+  }
+
   private Long resolveUserId(Object principal) {
     if (principal instanceof AppUserPrincipal appUserPrincipal) {
       return appUserPrincipal.getUserId();
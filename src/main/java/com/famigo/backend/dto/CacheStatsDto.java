@@ -0,0 +1,35 @@
+package com.famigo.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "インメモリキャッシュ1つ分の統計情報（起動時からの累計）")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class CacheStatsDto {
+
+  @Schema(description = "キャッシュ名", example = "spotSearch")
+  private String name;
+
+  @Schema(description = "現在のエントリ数（概算）", example = "42")
+  private Long size;
+
+  @Schema(description = "ヒット数", example = "12000")
+  private Long hitCount;
+
+  @Schema(description = "ミス数（DB・索引から取得した回数）", example = "300")
+  private Long missCount;
+
+  @Schema(description = "ヒット率（0.0〜1.0）", example = "0.975")
+  private Double hitRate;
+
+  @Schema(description = "上限・期限切れによる破棄数", example = "15")
+  private Long evictionCount;
+
+}
@@ -0,0 +1,23 @@
+package com.famigo.backend.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * キーセット（カーソル）方式のページ取得結果。
+ * Controller は items をレスポンスボディに、nextCursor を X-Next-Cursor ヘッダに載せて返す。
+ *
+ * @param <T> 要素の型
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+  // このページの要素
+  private final List<T> items;
+
+  // 次ページ取得用のカーソル（最終ページの場合は null）
+  private final String nextCursor;
+
+}
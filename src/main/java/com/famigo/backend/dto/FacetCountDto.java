@@ -0,0 +1,26 @@
+package com.famigo.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "絞り込み候補1つ分の件数（その候補を選んだ場合の検索結果件数）")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class FacetCountDto {
+
+  @Schema(description = "検索条件に指定する値（カテゴリID / 予算・対象年齢の Enum名 / 設備の値）", example = "FREE")
+  private String value;
+
+  @Schema(description = "画面表示に使う値（カテゴリ名 / 日本語ラベル）", example = "無料")
+  private String label;
+
+  @Schema(description = "件数", example = "12")
+  private Integer count;
+
+}
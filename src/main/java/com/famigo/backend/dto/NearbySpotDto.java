@@ -0,0 +1,18 @@
+package com.famigo.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "近くのスポット検索の結果1件分（スポット一覧カード＋中心からの距離）")
+@Getter
+@Setter
+@NoArgsConstructor
+
+public class NearbySpotDto extends SpotListItemDto {
+
+  @Schema(description = "検索の中心からの距離（km）", example = "1.234")
+  private Double distanceKm;
+
+}
@@ -0,0 +1,24 @@
+package com.famigo.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "スポット詳細のまとめて取得の結果")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class SpotBatchDto {
+
+  @Schema(description = "スポット詳細（指定したIDの順。重複したIDは最初の1件のみ）")
+  private List<SpotDetailDto> spots;
+
+  @Schema(description = "見つからなかったスポットID（存在しない・論理削除済み。指定したIDの順）", example = "[999]")
+  private List<Long> missingIds;
+
+}
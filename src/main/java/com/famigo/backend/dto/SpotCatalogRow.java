@@ -0,0 +1,77 @@
+package com.famigo.backend.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * スポットカタログ索引（SpotCatalogIndex）の構築用に、スポット1件分の検索項目をまとめた行データ。
+ * 一覧表示項目に加えて、絞り込みに使うカテゴリID・論理削除フラグ・最終更新日時、並び替えに使う登録日時を持つ。
+ * equals はカタログ版数を変えるべき内容（検索・表示に使う項目）だけを比べ、
+ * 頻繁に変わる集計値（レビュー件数・評価の平均・お気に入り数）と最終更新日時は比べない。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+
+public class SpotCatalogRow {
+
+  private Long id;                     // スポットID
+
+  private Long categoryId;             // カテゴリID
+
+  private String name;                 // スポット名
+
+  private String address;              // 住所
+
+  private String area;                 // エリア名
+
+  private String priceType;            // 予算区分（DB保存値）
+
+  private String categoryName;         // カテゴリ名
+
+  private String targetAge;            // 対象年齢（DB保存値）
+
+  private String googleMapUrl;         // GoogleマップURL
+
+  private Double latitude;             // 緯度（未設定の場合は null）
+
+  private Double longitude;            // 経度（未設定の場合は null）
+
+  private String notes;                // 備考・メモ（キーワード検索の関連度計算に利用）
+
+  // ▼ spot_facilities テーブル由来の設備フラグ（設備行なし・論理削除済みの場合は null）
+  private Boolean diaperChanging;
+
+  private Boolean strollerOk;
+
+  private Boolean playground;
+
+  private Boolean athletics;
+
+  private Boolean waterPlay;
+
+  private Boolean indoor;
+
+  // ▼ レビュー・お気に入りの集計値（spots の集計列。並び替えに利用）
+  @EqualsAndHashCode.Exclude
+  private Integer reviewCount;         // 有効なレビューの件数
+
+  @EqualsAndHashCode.Exclude
+  private Double ratingAverage;        // 総合評価の平均（レビューなしは 0）
+
+  @EqualsAndHashCode.Exclude
+  private Integer favoriteCount;       // 有効なお気に入りの件数
+
+  private LocalDateTime createdAt;     // スポットの登録日時（新着順の並び替えに利用）
+
+  private Boolean isDeleted;           // スポットの論理削除フラグ
+
+  @EqualsAndHashCode.Exclude
+  private LocalDateTime updatedAt;     // spots / spot_facilities / 集計値のうち新しい方の更新日時
+}
@@ -0,0 +1,29 @@
+package com.famigo.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "地図のグリッドセル1つ分のマーカー集約（クラスタ）")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class SpotClusterDto {
+
+  @Schema(description = "セル内のスポット件数", example = "8")
+  private Integer count;
+
+  @Schema(description = "セル内スポットの重心の緯度", example = "34.961234")
+  private Double latitude;
+
+  @Schema(description = "セル内スポットの重心の経度", example = "136.160123")
+  private Double longitude;
+
+  @Schema(description = "代表スポットID（重心に最も近いスポット。件数1の場合はそのスポット）", example = "1")
+  private Long spotId;
+
+}
@@ -56,6 +56,12 @@ public class SpotDetailDto {
   @Schema(description = "GoogleマップURL（spots.google_map_url）")
   private String googleMapUrl;                         // GoogleマップURL
 
+  @Schema(description = "緯度（spots.latitude。未設定の場合は null）", example = "34.959897")
+  private Double latitude;                             // 緯度
+
+  @Schema(description = "経度（spots.longitude。未設定の場合は null）", example = "136.162457")
+  private Double longitude;                            // 経度
+
   @Schema(description = "定休日（spots.closed_days）")
   private String closedDays;                           // 定休日
 
@@ -83,4 +89,8 @@ public class SpotDetailDto {
 
   @Schema(description = "屋内施設か（indoor）", example = "false")
   private Boolean indoor;                              // 屋内フラグ
+
+  // ▼ spot_review_stats テーブル由来のレビュー集計
+  @Schema(description = "レビュー集計（件数・項目ごとの平均・総合評価の分布）")
+  private SpotReviewStatsDto reviewStats;              // レビュー集計
 }
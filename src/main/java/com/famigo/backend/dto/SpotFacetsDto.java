@@ -0,0 +1,33 @@
+package com.famigo.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "スポット検索の絞り込み候補ごとの件数（ファセット）")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class SpotFacetsDto {
+
+  @Schema(description = "現在の検索条件に一致するスポットの件数", example = "42")
+  private Integer total;
+
+  @Schema(description = "カテゴリごとの件数（カテゴリ以外の条件で絞り込んだ件数。ID昇順）")
+  private List<FacetCountDto> categories;
+
+  @Schema(description = "予算ごとの件数（予算以外の条件で絞り込んだ件数）")
+  private List<FacetCountDto> price;
+
+  @Schema(description = "対象年齢ごとの件数（対象年齢以外の条件で絞り込んだ件数）")
+  private List<FacetCountDto> age;
+
+  @Schema(description = "設備ごとの件数（設備はすべてを満たす条件のため、現在の条件にその設備を加えた件数）")
+  private List<FacetCountDto> facilities;
+
+}
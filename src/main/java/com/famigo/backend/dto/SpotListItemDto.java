@@ -38,9 +38,25 @@ public class SpotListItemDto {
   @Schema(description = "GoogleマップURL（spots.google_map_url）")
   private String googleMapUrl;
 
+  @Schema(description = "緯度（spots.latitude。未設定の場合は null）", example = "34.959897")
+  private Double latitude;
+
+  @Schema(description = "経度（spots.longitude。未設定の場合は null）", example = "136.162457")
+  private Double longitude;
+
   @Schema(description = "お気に入り済みかどうか（favorites）", example = "true")
   private Boolean isFavorite;
 
+  // ▼ レビュー・お気に入りの集計値（並び替えの根拠として表示できるように返す）
+  @Schema(description = "有効なレビューの件数（spots.review_count）", example = "12")
+  private Integer reviewCount;
+
+  @Schema(description = "総合評価の平均（spots.rating_average。レビューなしは 0）", example = "4.25")
+  private Double ratingAverage;
+
+  @Schema(description = "お気に入り登録数（spots.favorite_count）", example = "30")
+  private Integer favoriteCount;
+
   // ▼ spot_facilities テーブル由来の設備フラグ
   @Schema(description = "オムツ替えスペースの有無（diaper_changing）", example = "true")
   private Boolean diaperChanging;
@@ -0,0 +1,50 @@
+package com.famigo.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "スポットのレビュー集計（spot_review_stats）。レビューがない場合は件数 0・平均 null")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class SpotReviewStatsDto {
+
+  @Schema(description = "レビュー件数", example = "12")
+  private Integer reviewCount;                         // レビュー件数
+
+  @Schema(description = "総合評価の平均（小数第2位まで）", example = "4.25")
+  private Double ratingAverage;                        // 総合評価の平均
+
+  @Schema(description = "コスパ評価の平均（入力されたレビューのみ）", example = "3.50")
+  private Double ratingCostAverage;                    // コスパ評価の平均
+
+  @Schema(description = "混雑度の平均（入力されたレビューのみ）", example = "2.00")
+  private Double crowdLevelAverage;                    // 混雑度の平均
+
+  @Schema(description = "トイレ清潔度の平均（入力されたレビューのみ）", example = "4.00")
+  private Double toiletCleanlinessAverage;             // トイレ清潔度の平均
+
+  @Schema(description = "ベビーカーの使いやすさの平均（入力されたレビューのみ）", example = "3.75")
+  private Double strollerEaseAverage;                  // ベビーカーの使いやすさの平均
+
+  // ▼ 総合評価の分布
+  @Schema(description = "総合評価 1 の件数", example = "0")
+  private Integer rating1Count;                        // 総合評価 1
+
+  @Schema(description = "総合評価 2 の件数", example = "1")
+  private Integer rating2Count;                        // 総合評価 2
+
+  @Schema(description = "総合評価 3 の件数", example = "1")
+  private Integer rating3Count;                        // 総合評価 3
+
+  @Schema(description = "総合評価 4 の件数", example = "4")
+  private Integer rating4Count;                        // 総合評価 4
+
+  @Schema(description = "総合評価 5 の件数", example = "6")
+  private Integer rating5Count;                        // 総合評価 5
+}
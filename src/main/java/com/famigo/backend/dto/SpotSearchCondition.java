@@ -2,6 +2,7 @@ package com.famigo.backend.dto;
 
 import com.famigo.backend.enums.AgeGroup;
 import com.famigo.backend.enums.PriceType;
+import com.famigo.backend.enums.SpotSortType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -32,4 +33,8 @@ public class SpotSearchCondition {
   @Schema(description = "設備フィルタ（複数選択可：diaper, stroller, playground, athletics, water, indoor）", example = "[\"diaper\", \"indoor\"]")
   private List<String> facilities;
 
+  @Schema(description = "並び順（Enum名を指定。未指定は ID。RELEVANCE はキーワード指定時のみ有効。"
+      + "RATING / REVIEWS / FAVORITES / NEWEST は集計値・登録日時の降順）", example = "RATING")
+  private SpotSortType sort;
+
 }
\ No newline at end of file
@@ -24,4 +24,11 @@ public class LoginResponse {
 
   @Schema(description = "ログインユーザー情報（項目はMeResponseのDTOで別途定義）")
   private MeResponse user;
+
+  @Schema(description = "リフレッシュトークン（POST /api/auth/refresh でアクセストークンを再発行する。1回使うと無効）",
+      example = "q3Jx0m2Yd0Kc1m8R2t9H5v3sF7b4Z1wLpQe6NuXyA0c")
+  private String refreshToken;
+
+  @Schema(description = "リフレッシュトークンの有効期限（秒）。発行時点からの秒数", example = "2592000")
+  private Long refreshExpiresIn;
 }
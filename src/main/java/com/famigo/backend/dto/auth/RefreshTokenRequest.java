@@ -0,0 +1,21 @@
+package com.famigo.backend.dto.auth;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "アクセストークン再発行リクエストDTO")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+  @Schema(description = "ログイン・登録・前回の再発行で受け取ったリフレッシュトークン",
+      example = "q3Jx0m2Yd0Kc1m8R2t9H5v3sF7b4Z1wLpQe6NuXyA0c")
+  @NotBlank
+  private String refreshToken;
+}
@@ -0,0 +1,67 @@
+package com.famigo.backend.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Collection;
+import java.util.Optional;
+import lombok.Getter;
+
+@Schema(description = "設備区分（スポット検索の設備フィルタに利用する）")
+@Getter
+
+public enum FacilityType {
+
+  // ビットは spot_facilities.facility_mask（V11 の生成列の式）と一致させること
+  DIAPER("diaper", "オムツ替え", 1),
+  STROLLER("stroller", "ベビーカーOK", 1 << 1),
+  PLAYGROUND("playground", "遊具あり", 1 << 2),
+  ATHLETICS("athletics", "アスレチックコース", 1 << 3),
+  WATER("water", "水遊び", 1 << 4),
+  INDOOR("indoor", "屋内", 1 << 5);
+
+  @Schema(description = "検索条件（facilities パラメータ）で指定する値", example = "diaper")
+  private final String code;
+
+  @Schema(description = "画面表示に使う値（日本語ラベル）", example = "オムツ替え")
+  private final String label;
+
+  @Schema(description = "設備ビットマスク（spot_facilities.facility_mask）上のビット", example = "1")
+  private final int bit;
+
+  FacilityType(String code, String label, int bit) {
+    this.code = code;
+    this.label = label;
+    this.bit = bit;
+  }
+
+  /**
+   * 検索条件の値（diaper / stroller ...）から設備区分を取得する。
+   *
+   * @param code facilities パラメータの値
+   * @return 設備区分（未知の値の場合は empty。検索では無視する）
+   */
+  public static Optional<FacilityType> fromCode(String code) {
+    for (FacilityType type : values()) {
+      if (type.code.equals(code)) {
+        return Optional.of(type);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * 検索条件の値（diaper / stroller ...）の一覧を設備ビットマスクに変換する。
+   *
+   * @param codes facilities パラメータの値（null 可）
+   * @return 必要な設備のビットをすべて立てた値（未知の値は無視。指定なしの場合は 0）
+   */
+  public static int maskOf(Collection<String> codes) {
+    int mask = 0;
+    if (codes == null) {
+      return mask;
+    }
+    for (String code : codes) {
+      mask |= fromCode(code).map(FacilityType::getBit).orElse(0);
+    }
+    return mask;
+  }
+}
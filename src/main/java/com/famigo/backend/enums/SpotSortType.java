@@ -0,0 +1,24 @@
+package com.famigo.backend.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+@Schema(description = "スポット一覧の並び順（スポット検索条件に利用する）")
+@Getter
+
+public enum SpotSortType {
+
+  ID("ID昇順"),
+  RELEVANCE("キーワードの関連度順"),
+  RATING("評価が高い順"),
+  REVIEWS("レビュー件数が多い順"),
+  FAVORITES("お気に入り数が多い順"),
+  NEWEST("新着順");
+
+  @Schema(description = "画面表示に使う値（日本語ラベル）", example = "キーワードの関連度順")
+  private final String value;
+
+  SpotSortType(String value) {
+    this.value = value;
+  }
+}
@@ -0,0 +1,20 @@
+package com.famigo.backend.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+@Schema(description = "スポット一覧ストリーミング取得の出力形式")
+@Getter
+
+public enum SpotStreamFormat {
+
+  JSON("JSON配列"),
+  NDJSON("1行1件のJSON（改行区切り）");
+
+  @Schema(description = "画面表示に使う値（日本語ラベル）", example = "JSON配列")
+  private final String value;
+
+  SpotStreamFormat(String value) {
+    this.value = value;
+  }
+}
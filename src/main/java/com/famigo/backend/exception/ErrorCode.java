@@ -11,6 +11,7 @@ public enum ErrorCode {
   ACCESS_DENIED,      // 403
   NOT_FOUND,          // 404
   CONFLICT,           // 409
-  INTERNAL_ERROR      // 500
+  INTERNAL_ERROR,     // 500
+  SERVICE_UNAVAILABLE // 503
 
 }
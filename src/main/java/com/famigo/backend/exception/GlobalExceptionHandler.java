@@ -142,6 +142,10 @@ public class GlobalExceptionHandler {
       return ErrorCode.CONFLICT;    // 409
     }
 
+    if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+      return ErrorCode.SERVICE_UNAVAILABLE;    // 503
+    }
+
     return ErrorCode.INTERNAL_ERROR;    // 500
   }
 }
@@ -32,6 +32,16 @@ public interface FavoriteMapper {
       @Param("spotId") Long spotId
   );
 
+  /**
+   * スポットのお気に入り数を再計算（お気に入りの登録・解除と同じトランザクションで呼ぶ）
+   *
+   * @param spotId スポットID
+   * @return 更新件数（0の場合はスポットなし）
+   */
+  int refreshSpotFavoriteCount(
+      @Param("spotId") Long spotId
+  );
+
   /**
    * お気に入り済みかどうかを判定
    *
@@ -54,4 +64,14 @@ public interface FavoriteMapper {
       @Param("userId") Long userId
   );
 
+  /**
+   * お気に入り中のスポットIDを取得（スポット一覧のお気に入り状態の設定用）
+   *
+   * @param userId ユーザーID
+   * @return お気に入り中のスポットID一覧
+   */
+  List<Long> findActiveFavoriteSpotIds(
+      @Param("userId") Long userId
+  );
+
 }
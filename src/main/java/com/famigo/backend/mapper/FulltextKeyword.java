@@ -0,0 +1,40 @@
+package com.famigo.backend.mapper;
+
+/**
+ * キーワード検索の FULLTEXT（ngram パーサ）用の検索語を組み立てるユーティリティ。
+ * Mapper XML（OGNL）から呼び出す。
+ * 【方針】
+ * - キーワード全体をフレーズ（"..."）として BOOLEAN MODE に渡し、連続した2文字ずつの並びで絞り込む
+ * - 1文字のキーワード・空白や " を含むキーワードは ngram のフレーズで表せないため null を返す（LIKE だけで検索）
+ * - LIKE の特殊文字（% _ \）を含むキーワードも null を返す（LIKE ではワイルドカード・エスケープとして扱われ、
+ *   文字どおりのフレーズで絞り込むと一致するはずのスポットを落としてしまうため）
+ * - 絞り込み後の最終判定は従来どおり LIKE で行うため、部分一致の結果は変わらない
+ */
+public final class FulltextKeyword {
+
+  // ngram_token_size（MySQL のデフォルト値）
+  private static final int NGRAM_TOKEN_SIZE = 2;
+
+  private FulltextKeyword() {
+  }
+
+  /**
+   * キーワードを MATCH ... AGAINST（BOOLEAN MODE）用のフレーズに変換する。
+   *
+   * @param keyword 検索キーワード
+   * @return フレーズ（例："京都市"）。FULLTEXT で絞り込めない場合は null
+   */
+  public static String phrase(String keyword) {
+    if (keyword == null || keyword.codePointCount(0, keyword.length()) < NGRAM_TOKEN_SIZE) {
+      return null;
+    }
+    for (int i = 0; i < keyword.length(); i++) {
+      char c = keyword.charAt(i);
+      if (c == '"' || c == '%' || c == '_' || c == '\\'
+          || Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+        return null;
+      }
+    }
+    return '"' + keyword + '"';
+  }
+}
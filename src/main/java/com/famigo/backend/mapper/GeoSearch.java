@@ -0,0 +1,44 @@
+package com.famigo.backend.mapper;
+
+import java.util.Locale;
+
+/**
+ * 近くのスポット検索（spots.location の SPATIAL INDEX）用の検索範囲を組み立てるユーティリティ。
+ * Mapper XML（OGNL）から呼び出す。
+ * 【方針】
+ * - 半径 r km の円を囲む矩形（緯度・経度の範囲）を WKT の POLYGON にし、MBRContains で SPATIAL INDEX を使って絞り込む
+ * - 円の内側かどうか（距離）の最終判定と並べ替えは ST_Distance_Sphere で行う
+ * - SRID 4326 の WKT は「緯度 経度」の順で書く（MySQL の地理座標系の軸順）
+ * - 日付変更線をまたぐ範囲は扱わない（経度は -180〜180 に切り詰める。国内のスポットのみのため）
+ */
+public final class GeoSearch {
+
+  // 緯度1度あたりの距離（km）
+  private static final double KM_PER_DEGREE = 111.32;
+
+  private GeoSearch() {
+  }
+
+  /**
+   * 中心と半径から、円を囲む矩形の WKT（POLYGON）を返す。
+   *
+   * @param lat      中心の緯度
+   * @param lng      中心の経度
+   * @param radiusKm 半径（km）
+   * @return WKT（例：POLYGON((34.9 136.1, 34.9 136.2, 35.0 136.2, 35.0 136.1, 34.9 136.1))）
+   */
+  public static String boundingBox(double lat, double lng, double radiusKm) {
+    double dLat = radiusKm / KM_PER_DEGREE;
+    // 極付近では経度1度の距離が 0 に近づくため、cos の下限を設ける
+    double dLng = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+
+    double minLat = Math.max(lat - dLat, -90);
+    double maxLat = Math.min(lat + dLat, 90);
+    double minLng = Math.max(lng - dLng, -180);
+    double maxLng = Math.min(lng + dLng, 180);
+
+    return String.format(Locale.ROOT,
+        "POLYGON((%1$.6f %3$.6f, %1$.6f %4$.6f, %2$.6f %4$.6f, %2$.6f %3$.6f, %1$.6f %3$.6f))",
+        minLat, maxLat, minLng, maxLng);
+  }
+}
@@ -0,0 +1,60 @@
+package com.famigo.backend.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface RefreshTokenMapper {
+
+  /**
+   * リフレッシュトークン（ハッシュ値）を登録する（有効期限は DB の現在日時から計算する）。
+   *
+   * @param userId         ユーザーID
+   * @param tokenHash      トークンの SHA-256 ハッシュ値
+   * @param expirationDays 有効期限（日）
+   * @return 影響行数（成功:1）
+   */
+  int insert(
+      @Param("userId") Long userId,
+      @Param("tokenHash") String tokenHash,
+      @Param("expirationDays") long expirationDays
+  );
+
+
+  /**
+   * 有効な（失効していない・期限内の）リフレッシュトークンを失効させる（使用時のローテーション）。
+   * 同じトークンで同時に再発行しても、1件だけが成功する。
+   *
+   * @param tokenHash トークンの SHA-256 ハッシュ値
+   * @return 影響行数（成功:1、無効なトークン:0）
+   */
+  int revoke(@Param("tokenHash") String tokenHash);
+
+
+  /**
+   * リフレッシュトークンのユーザーIDを取得する。
+   *
+   * @param tokenHash トークンの SHA-256 ハッシュ値
+   * @return ユーザーID（見つからない場合は null）
+   */
+  Long findUserIdByTokenHash(@Param("tokenHash") String tokenHash);
+
+
+  /**
+   * ユーザーの有効なリフレッシュトークンをすべて失効させる（パスワード変更・退会時）。
+   *
+   * @param userId ユーザーID
+   * @return 失効させた件数
+   */
+  int revokeAllByUserId(@Param("userId") Long userId);
+
+
+  /**
+   * 有効期限を過ぎたリフレッシュトークンを削除する（定期実行。1回あたり limit 件まで）。
+   *
+   * @param limit 1回で削除する件数の上限
+   * @return 削除した件数
+   */
+  int deleteExpired(@Param("limit") int limit);
+
+}
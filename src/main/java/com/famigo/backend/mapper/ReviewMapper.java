@@ -3,6 +3,7 @@ package com.famigo.backend.mapper;
 import com.famigo.backend.dto.ReviewAuthInfoDto;
 import com.famigo.backend.dto.ReviewUpsertRequest;
 import com.famigo.backend.dto.ReviewListItemDto;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -19,6 +20,32 @@ public interface ReviewMapper {
   List<ReviewListItemDto> selectReviewsBySpotId(@Param("spotId") Long spotId);
 
 
+  /**
+   * スポットIDに紐づくレビュー一覧をキーセット方式で1ページ分取得するメソッド
+   *
+   * @param spotId          スポットID
+   * @param beforeCreatedAt 前ページ最後のレビューの投稿日時（先頭ページは null）
+   * @param beforeId        前ページ最後のレビューID（先頭ページは null）
+   * @param limit           取得件数
+   * @return レビュー一覧（投稿日時の新しい順。同じ日時は ID の大きい順）
+   */
+  List<ReviewListItemDto> selectReviewPageBySpotId(
+      @Param("spotId") Long spotId,
+      @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+      @Param("beforeId") Long beforeId,
+      @Param("limit") int limit
+  );
+
+
+  /**
+   * ユーザーが（論理削除されていない）レビューを投稿しているスポットIDを取得するメソッド
+   *
+   * @param userId ユーザーID
+   * @return スポットIDのリスト（重複なし）
+   */
+  List<Long> selectReviewedSpotIds(@Param("userId") Long userId);
+
+
   /**
    * スポットに紐づくレビューを新規登録するメソッド
    *
@@ -34,7 +61,7 @@ public interface ReviewMapper {
 
 
   /**
-   * レビュー編集・削除の認可判定に必要な情報（spotId/userId/isDeleted）を取得するメソッド
+   * レビュー編集・削除が0件だった場合に、404 / 403 の判定に必要な情報（spotId/userId/isDeleted）を取得するメソッド
    *
    * @param reviewId レビューID
    * @return 認可判定用DTO（存在しない場合は null）
@@ -43,30 +70,112 @@ public interface ReviewMapper {
 
 
   /**
-   * 指定レビューを更新するメソッド（論理削除済みは更新しない）
+   * 指定レビューを更新するメソッド（論理削除済み・他人のレビュー（ADMIN 以外）は更新しない）
    *
    * @param spotId スポットID（URLパス）
    * @param reviewId レビューID（URLパス）
+   * @param userId ログインユーザーID（投稿者本人かの判定に使う）
+   * @param isAdmin ADMIN かどうか（true の場合は他人のレビューも更新する）
    * @param request レビュー編集リクエストDTO
-   * @return 更新件数（0の場合は対象なし）
+   * @return 更新件数（0の場合は対象なし、または権限なし）
    */
   int updateReview(
       @Param("spotId") Long spotId,
       @Param("reviewId") Long reviewId,
+      @Param("userId") Long userId,
+      @Param("isAdmin") boolean isAdmin,
       @Param("request") ReviewUpsertRequest request
   );
 
 
   /**
-   * 指定レビューを論理削除するメソッド（既に削除済みは更新しない）
+   * 編集対象のレビュー行を排他ロックするメソッド（認可条件は updateReview と同じ。編集の最初に呼ぶ）
    *
    * @param spotId スポットID（URLパス）
    * @param reviewId レビューID（URLパス）
-   * @return 更新件数（0の場合は対象なし）
+   * @param userId ログインユーザーID（投稿者本人かの判定に使う）
+   * @param isAdmin ADMIN かどうか（true の場合は他人のレビューもロックする）
+   * @return レビューID（対象なし、または権限なしの場合は null）
+   */
+  Long lockReviewForEdit(
+      @Param("spotId") Long spotId,
+      @Param("reviewId") Long reviewId,
+      @Param("userId") Long userId,
+      @Param("isAdmin") boolean isAdmin
+  );
+
+
+  /**
+   * 指定レビューを論理削除するメソッド（既に削除済み・他人のレビュー（ADMIN 以外）は更新しない）
+   *
+   * @param spotId スポットID（URLパス）
+   * @param reviewId レビューID（URLパス）
+   * @param userId ログインユーザーID（投稿者本人かの判定に使う）
+   * @param isAdmin ADMIN かどうか（true の場合は他人のレビューも削除する）
+   * @return 更新件数（0の場合は対象なし、または権限なし）
    */
   int softDeleteReview(
       @Param("spotId") Long spotId,
-      @Param("reviewId") Long reviewId
+      @Param("reviewId") Long reviewId,
+      @Param("userId") Long userId,
+      @Param("isAdmin") boolean isAdmin
+  );
+
+
+  /**
+   * レビュー1件分をスポットのレビュー集計（spot_review_stats）へ加算 / 減算するメソッド
+   *
+   * @param reviewId レビューID（null の場合は同じ接続で直前に登録したレビュー）
+   * @param sign     1 で加算、-1 で減算
+   */
+  void applyReviewToSpotStats(
+      @Param("reviewId") Long reviewId,
+      @Param("sign") int sign
+  );
+
+
+  /**
+   * レビュー編集による変化（編集後 − 編集前）をスポットのレビュー集計（spot_review_stats）へ反映するメソッド
+   * 認可条件は updateReview と同じで、満たさない場合は集計に触れない。
+   * 編集前の値を読むため、lockReviewForEdit の後、updateReview より前に呼ぶ。
+   *
+   * @param spotId   スポットID（URLパス）
+   * @param reviewId レビューID
+   * @param userId   ログインユーザーID
+   * @param isAdmin  ADMIN かどうか（true の場合は投稿者の条件を外す）
+   * @param request  レビュー編集リクエストDTO（編集後の値）
+   */
+  void applyReviewEditToSpotStats(
+      @Param("spotId") Long spotId,
+      @Param("reviewId") Long reviewId,
+      @Param("userId") Long userId,
+      @Param("isAdmin") boolean isAdmin,
+      @Param("request") ReviewUpsertRequest request
   );
 
+
+  /**
+   * スポットのレビュー集計値（件数・総合評価の平均）を spot_review_stats から spots へ反映するメソッド
+   *
+   * @param spotId スポットID
+   * @return 更新件数（0の場合はスポットなし）
+   */
+  int refreshSpotReviewStats(@Param("spotId") Long spotId);
+
+
+  /**
+   * レビュー集計が reviews の実際の値とずれているスポットIDを取得するメソッド（全件集計のため定期実行専用）
+   *
+   * @return スポットIDのリスト（ID昇順）
+   */
+  List<Long> selectSpotIdsWithReviewStatsDrift();
+
+
+  /**
+   * スポット1件のレビュー集計（spot_review_stats）を reviews から作り直すメソッド
+   *
+   * @param spotId スポットID
+   */
+  void rebuildSpotReviewStats(@Param("spotId") Long spotId);
+
 }
@@ -1,37 +1,102 @@
 package com.famigo.backend.mapper;
 
+import com.famigo.backend.dto.NearbySpotDto;
+import com.famigo.backend.dto.SpotCatalogRow;
 import com.famigo.backend.dto.SpotDetailDto;
 import com.famigo.backend.dto.SpotListItemDto;
 import com.famigo.backend.dto.SpotSearchCondition;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 @Mapper
 public interface SpotMapper {
 
   /**
-   * カテゴリ情報＋設備情報＋お気に入り情報を含めたスポット一覧を取得するメソッド （トップページの一覧表示用）
+   * カテゴリ情報＋設備情報を含めたスポット一覧を取得するメソッド （トップページの一覧表示用）
+   * ユーザーに依存しない結果を返す（isFavorite は常に false）。
    *
    * @param condition 検索条件
-   * @param userId    お気に入り判定対象のユーザーID（ログイン時のみ指定。未ログインの場合は null ）
    * @return スポットの一覧（SpotListItemDto のリスト）
    */
   List<SpotListItemDto> findAllWithCategoryAndFacilities(
+      @Param("condition") SpotSearchCondition condition
+  );
+
+  /**
+   * スポット一覧を1行ずつ読み出すカーソルを取得するメソッド（s.id 昇順。isFavorite は常に false）
+   * トランザクション内で呼び出し、読み終えたら close すること。
+   *
+   * @param condition 検索条件
+   * @return スポット一覧のカーソル
+   */
+  Cursor<SpotListItemDto> streamWithCategoryAndFacilities(
+      @Param("condition") SpotSearchCondition condition
+  );
+
+  /**
+   * スポット一覧をキーセット方式で1ページ分取得するメソッド（s.id 昇順。isFavorite は常に false）
+   *
+   * @param condition 検索条件
+   * @param afterId   前ページ最後のスポットID（先頭ページの場合は null）
+   * @param limit     最大取得件数
+   * @return スポットの一覧（SpotListItemDto のリスト）
+   */
+  List<SpotListItemDto> findPageWithCategoryAndFacilities(
       @Param("condition") SpotSearchCondition condition,
-      @Param("userId") Long userId
+      @Param("afterId") Long afterId,
+      @Param("limit") int limit
   );
 
   /**
-   * 指定したスポットIDの「スポット詳細情報」を取得するメソッド
+   * 指定した地点から半径内のスポットを近い順に取得するメソッド（isFavorite は常に false）
+   * 緯度・経度が未設定のスポットは対象外。
    *
-   * @param id     スポットID
-   * @param userId お気に入り判定対象のユーザーID（ログイン時のみ指定。未ログインの場合は null ）
+   * @param condition 検索条件
+   * @param lat       中心の緯度
+   * @param lng       中心の経度
+   * @param radiusKm  半径（km）
+   * @param limit     最大取得件数
+   * @return 近い順（同じ距離は ID 昇順）のスポット一覧（距離付き）
+   */
+  List<NearbySpotDto> findNearby(
+      @Param("condition") SpotSearchCondition condition,
+      @Param("lat") double lat,
+      @Param("lng") double lng,
+      @Param("radiusKm") double radiusKm,
+      @Param("limit") int limit
+  );
+
+  /**
+   * 指定したスポットIDの「スポット詳細情報」を取得するメソッド（isFavorite は常に false）
+   *
+   * @param id スポットID
    * @return スポット詳細データ（SpotDetailDto）
    */
   SpotDetailDto findDetailById(
-      @Param("id") Long id,
-      @Param("userId") Long userId
+      @Param("id") Long id
+  );
+
+  /**
+   * 指定した複数のスポットIDの「スポット詳細情報」を1回の問い合わせで取得するメソッド（isFavorite は常に false）
+   * 存在しない・論理削除済みのIDは結果に含まれない。並び順はスポットID昇順（指定順への並べ替えは Service で行う）。
+   *
+   * @param ids スポットID（1件以上）
+   * @return スポット詳細データのリスト
+   */
+  List<SpotDetailDto> findDetailsByIds(
+      @Param("ids") List<Long> ids
   );
 
+  /**
+   * スポットカタログ索引（SpotCatalogIndex）の構築用に、スポットの検索項目を取得するメソッド
+   *
+   * @param since 差分取得の基準日時（null の場合は論理削除されていない全スポットを返す。
+   *              指定した場合は since 以降に更新されたスポットを論理削除済みも含めて返す）
+   * @return 索引構築用の行データ（スポットID昇順）
+   */
+  List<SpotCatalogRow> findCatalogRowsUpdatedSince(@Param("since") LocalDateTime since);
+
 }
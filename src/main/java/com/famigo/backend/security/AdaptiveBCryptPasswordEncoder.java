@@ -0,0 +1,97 @@
+package com.famigo.backend.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * 起動したマシンでの計算時間から強度（cost）を決める BCryptPasswordEncoder。
+ * 固定の強度だと、インスタンスの性能が変わるたびにログイン1回あたりの CPU 時間が意図せず変わるため、
+ * 「1回のハッシュ計算が目標時間に収まる最大の強度」を起動時に測って使う。
+ * 【方針】
+ * - 強度は下限〜上限の範囲で決める（下限で目標時間を超える場合も、安全のため下限を使う）
+ * - 保存済みハッシュの強度が現在の強度より低い場合だけ upgradeEncoding が true を返す
+ *   （ログイン成功時に、入力されたパスワードで現在の強度のハッシュに作り直す。強度は下げない）
+ * - 複数インスタンスで動かす場合は、インスタンスごとに測った強度が異なると保存されるハッシュの強度がそろわないため、
+ *   famigo.auth.bcrypt.strength で強度を固定する
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+  // BCrypt ハッシュ（$2a$10$...）から強度を取り出す
+  private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$.{53}");
+
+  // 使用中の強度
+  @Getter
+  private final int strength;
+
+  /**
+   * 強度を指定して作成する。
+   *
+   * @param strength 強度（4〜31）
+   */
+  public AdaptiveBCryptPasswordEncoder(int strength) {
+    super(strength);
+    this.strength = strength;
+  }
+
+  /**
+   * このマシンでの計算時間を測り、目標時間に収まる最大の強度で作成する。
+   *
+   * @param targetMillis 1回のハッシュ計算の目標時間（ミリ秒）
+   * @param minStrength  強度の下限
+   * @param maxStrength  強度の上限
+   * @return 決めた強度の PasswordEncoder
+   */
+  public static AdaptiveBCryptPasswordEncoder calibrate(long targetMillis, int minStrength,
+      int maxStrength) {
+    // JIT のウォームアップ（最初の1回は遅いため、測定に含めない）
+    new BCryptPasswordEncoder(4).encode("calibration");
+
+    int chosen = minStrength;
+    long chosenMillis = -1;
+    for (int strength = minStrength; strength <= maxStrength; strength++) {
+      long millis = measureMillis(strength);
+      if (millis > targetMillis) {
+        if (chosenMillis < 0) {
+          chosenMillis = millis;
+        }
+        break;
+      }
+      chosen = strength;
+      chosenMillis = millis;
+    }
+
+    log.info("BCrypt strength calibrated: strength={}, hashMillis={}, targetMillis={}",
+        chosen, chosenMillis, targetMillis);
+    return new AdaptiveBCryptPasswordEncoder(chosen);
+  }
+
+  /**
+   * 保存済みハッシュの強度が、使用中の強度より低いかどうか。
+   * 高い強度のハッシュは作り直さない（性能の低いインスタンスが、他のインスタンスで上げた強度を下げないように）。
+   *
+   * @param encodedPassword 保存済みのハッシュ
+   * @return 作り直す必要がある場合 true（BCrypt 形式でないハッシュは false）
+   */
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+    if (!matcher.matches()) {
+      return false;
+    }
+    return Integer.parseInt(matcher.group(1)) < strength;
+  }
+
+  private static long measureMillis(int strength) {
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+    long start = System.nanoTime();
+    encoder.encode("calibration");
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+}
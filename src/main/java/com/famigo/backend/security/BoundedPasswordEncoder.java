@@ -0,0 +1,111 @@
+package com.famigo.backend.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * パスワードのハッシュ化・照合（BCrypt）を、専用のスレッド数・待ち行列に制限して行う PasswordEncoder。
+ * BCrypt は1回ごとに CPU を大きく使うため、ログインや登録が集中すると全 CPU を使い切り、
+ * スポット一覧などの軽い API まで遅くなる。同時に行うハッシュ計算を専用スレッド分に抑えて、他の API の CPU を残す。
+ * 【方針】
+ * - 呼び出し元（リクエストのスレッド）は計算が終わるまで待つ（Service 側は通常の PasswordEncoder として使える）
+ * - 専用スレッドがすべて使用中で待ち行列も満杯の場合は、待たずに 503 を返す（混雑時は再試行してもらう）
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private final PasswordEncoder delegate;
+
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * BoundedPasswordEncoderのコンストラクタ。
+   *
+   * @param delegate      実際にハッシュ化・照合を行う PasswordEncoder（BCrypt）
+   * @param threads       同時にハッシュ計算を行うスレッド数
+   * @param queueCapacity 計算待ちにできる件数の上限（超えた分は 503）
+   */
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+    this.delegate = delegate;
+    this.executor = new ThreadPoolExecutor(
+        threads, threads,
+        0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new NamedDaemonThreadFactory(),
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return call(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return call(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    // ハッシュ文字列の確認のみ（計算はしない）のため、呼び出し元のスレッドで行う
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  /**
+   * 計算待ちの件数を返す（テスト・監視用）。
+   *
+   * @return 待ち行列に入っている件数
+   */
+  int getQueuedCount() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  private <T> T call(Callable<T> task) {
+    try {
+      return executor.submit(task).get();
+    } catch (RejectedExecutionException e) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Too many authentication requests. Please retry later.");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Authentication was interrupted. Please retry later.");
+    } catch (ExecutionException e) {
+      // delegate の例外（例：不正なハッシュ形式）はそのまま呼び出し元に返す
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * スレッド名を「password-hash-番号」にする（スレッドダンプで見分けられるように）。
+   */
+  private static final class NamedDaemonThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -1,9 +1,16 @@
 package com.famigo.backend.security;
 
+import com.famigo.backend.service.CacheStatsRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,16 +27,29 @@ import org.springframework.stereotype.Component;
  *   uid     : ユーザーID
  *   role    : ロール（USER / ADMIN など）
  * 署名アルゴリズムは HS256（HMAC + SHA-256）を使用。
+ * 検証用の JwtParser は1つだけ作って使い回す（スレッドセーフ）。
+ * 検証に成功したトークンは、トークンのハッシュ値をキーに uid / role / exp を有効期限まで保持し、
+ * 同じトークンでの2回目以降のリクエストでは署名検証と Claims の解析を省く。
  */
 @Component
 public class JwtTokenProvider {
 
+  // 検証済みトークンのキャッシュの統計情報の表示名
+  static final String VERIFIED_TOKENS = "verifiedTokens";
+
   // JWTの署名・検証に使う秘密鍵（改ざん検知のための鍵）
   private final SecretKey secretKey;
 
   // JWTの有効期限（ミリ秒）
   private final Long expirationMillis;
 
+  // 署名検証用のパーサ（スレッドセーフのため使い回す）
+  private final JwtParser jwtParser;
+
+  // トークンのハッシュ値（SHA-256） → 検証済みの値（トークンの有効期限で破棄）
+  // トークン本体ではなくハッシュ値をキーにする（メモリ上に Bearer トークンそのものを残さない）
+  private final Cache<String, VerifiedToken> verifiedTokens;
+
 
   /**
    * JwtTokenProviderのコンストラクタ。
@@ -37,14 +57,26 @@ public class JwtTokenProvider {
    *
    * @param secret JWT署名用の秘密文字列
    * @param expirationMinutes JWTの有効期限（分）
+   * @param cacheStatsRegistry キャッシュ統計の登録先
+   * @param verifiedCacheMaxEntries 検証済みトークンを保持する数の上限
    */
   public JwtTokenProvider(
       @Value("${famigo.jwt.secret}") String secret,
-      @Value("${famigo.jwt.expiration-minutes}") Long expirationMinutes
+      @Value("${famigo.jwt.expiration-minutes}") Long expirationMinutes,
+      CacheStatsRegistry cacheStatsRegistry,
+      @Value("${famigo.jwt.verified-cache.max-entries:10000}") long verifiedCacheMaxEntries
   ) {
     // secret文字列をHMAC鍵に変換（HS256用）
     this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     this.expirationMillis = expirationMinutes * 60 * 1000;
+    // jjwt 0.13系：verifyWith(secretKey) で検証鍵をセット
+    this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheMaxEntries)
+        .expireAfter(new UntilTokenExpiry())
+        .recordStats()
+        .build();
+    cacheStatsRegistry.register(VERIFIED_TOKENS, verifiedTokens);
   }
 
 
@@ -91,13 +123,20 @@ public class JwtTokenProvider {
    * @return JWTに含まれるClaims
    */
   public Claims parseClaims(String token) {
-    return Jwts.parser()
-        // jjwt 0.13系：verifyWith(secretKey) で検証鍵をセット
-        .verifyWith(secretKey)
-        .build()
-        // 署名検証 + expなども見て、OKならpayload(Claims)を返す
-        .parseSignedClaims(token)
-        .getPayload();
+    // 署名検証 + expなども見て、OKならpayload(Claims)を返す
+    return jwtParser.parseSignedClaims(token).getPayload();
+  }
+
+  /**
+   * JWT を検証し、uid / role / exp を取得する（リクエストごとの認証で使う）。
+   * 検証済みのトークンは有効期限まで保持しているため、同じトークンの2回目以降は署名検証・解析を行わない。
+   * 不正なトークンや期限切れの場合は例外が送出される（失敗した結果は保持しない）。
+   *
+   * @param token フロントエンドから送信されたJWT
+   * @return 検証済みの値
+   */
+  public VerifiedToken verify(String token) {
+    return verifiedTokens.get(TokenDigest.sha256Hex(token), key -> toVerifiedToken(parseClaims(token)));
   }
 
   /**
@@ -109,4 +148,37 @@ public class JwtTokenProvider {
   public Long getExpiresInSeconds() {
     return expirationMillis / 1000;
   }
+
+  private VerifiedToken toVerifiedToken(Claims claims) {
+    Long userId = ((Number) claims.get("uid")).longValue();
+    String role = claims.get("role", String.class);
+    // exp のないトークンは発行しないが、念のため設定の有効期限だけ保持する
+    Instant expiresAt = claims.getExpiration() != null
+        ? claims.getExpiration().toInstant()
+        : Instant.now().plusMillis(expirationMillis);
+    return new VerifiedToken(userId, role, expiresAt);
+  }
+
+  /**
+   * 検証済みトークンを、そのトークンの有効期限（exp）まで保持する。
+   */
+  private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+    @Override
+    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+      return Math.max(0L, Duration.between(Instant.now(), value.getExpiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+  }
 }
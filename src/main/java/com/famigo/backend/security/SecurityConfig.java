@@ -1,6 +1,7 @@
 package com.famigo.backend.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,7 +9,6 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -58,6 +58,7 @@ public class SecurityConfig {
             // 認証系
             .requestMatchers(HttpMethod.POST, "/api/users").permitAll()
             .requestMatchers(HttpMethod.POST, "/api/auth/token").permitAll()
+            .requestMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
 
             // GUEST（未ログイン）で許可するAPI
             .requestMatchers(HttpMethod.GET, "/api/spots").permitAll()
@@ -79,6 +80,9 @@ public class SecurityConfig {
             .requestMatchers(HttpMethod.PUT, "/api/users/me/password").hasAnyRole("USER", "ADMIN")
             .requestMatchers(HttpMethod.DELETE, "/api/users/me").hasAnyRole("USER", "ADMIN")
 
+            // ADMIN のみ許可するAPI（運用向け）
+            .requestMatchers(HttpMethod.GET, "/api/admin/**").hasRole("ADMIN")
+
             // その他はログイン必須
             .anyRequest().hasAnyRole("USER", "ADMIN")
         )
@@ -88,8 +92,34 @@ public class SecurityConfig {
     return http.build();
   }
 
+  /**
+   * パスワードのハッシュ化・照合に使う PasswordEncoder。
+   * BCrypt の強度は起動時にこのマシンでの計算時間から決める（強度を指定した場合はその値を使う）。
+   * BCrypt の計算は専用スレッドで行い、同時実行数と待ち件数を制限する（満杯の場合は 503）。
+   *
+   * @param strength      BCrypt の強度（0 以下は起動時に測って決める）
+   * @param targetMillis  強度を決めるときの、1回のハッシュ計算の目標時間（ミリ秒）
+   * @param minStrength   強度を決めるときの下限
+   * @param maxStrength   強度を決めるときの上限
+   * @param threads       同時にハッシュ計算を行うスレッド数（0 以下は CPU コア数の半分。最低 1）
+   * @param queueCapacity 計算待ちにできる件数の上限
+   * @return PasswordEncoder
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${famigo.auth.bcrypt.strength:0}") int strength,
+      @Value("${famigo.auth.bcrypt.target-millis:80}") long targetMillis,
+      @Value("${famigo.auth.bcrypt.min-strength:10}") int minStrength,
+      @Value("${famigo.auth.bcrypt.max-strength:14}") int maxStrength,
+      @Value("${famigo.auth.password-hash.threads:0}") int threads,
+      @Value("${famigo.auth.password-hash.queue-capacity:64}") int queueCapacity
+  ) {
+    AdaptiveBCryptPasswordEncoder bcrypt = strength > 0
+        ? new AdaptiveBCryptPasswordEncoder(strength)
+        : AdaptiveBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
+    int size = threads > 0
+        ? threads
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new BoundedPasswordEncoder(bcrypt, size, queueCapacity);
   }
 }
@@ -0,0 +1,32 @@
+package com.famigo.backend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * トークンのハッシュ値（SHA-256・16進64文字）を作るユーティリティ。
+ * トークンそのものではなくハッシュ値を保持・保存するために使う（検証済み JWT のキャッシュキー、refresh_tokens.token_hash）。
+ */
+public final class TokenDigest {
+
+  private TokenDigest() {
+  }
+
+  /**
+   * トークンの SHA-256 ハッシュ値を16進文字列で返す。
+   *
+   * @param token トークン
+   * @return ハッシュ値（16進64文字）
+   */
+  public static String sha256Hex(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
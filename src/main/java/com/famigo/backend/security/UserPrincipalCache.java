@@ -0,0 +1,89 @@
+package com.famigo.backend.security;
+
+import com.famigo.backend.entity.User;
+import com.famigo.backend.mapper.UserMapper;
+import com.famigo.backend.service.AfterCommit;
+import com.famigo.backend.service.CacheStatsRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * JWT 認証で使うログインユーザー情報（AppUserPrincipal：id / email / role）をユーザーIDごとに保持するキャッシュ。
+ * Bearer トークン付きのリクエストのたびに users を引かないようにする（公開のスポット一覧などでも毎回発生していたため）。
+ * 【方針】
+ * - 保持するユーザー数に上限を設け、期限（TTL）は短くする（DBを直接修正した場合なども期限内に反映される）
+ * - プロフィール更新・パスワード変更・退会では、そのユーザーの分を即座に破棄し、コミット後にもう一度破棄する
+ *   （コミットまでの間の読み込みが古い情報を保持し直しても、コミット後に消える）
+ * - 退会済み（見つからない）ユーザーは保持しない（毎回 DB で確認し、未ログイン扱いにする）
+ * - AppUserPrincipal は変更不可のため、リクエスト間で共有する
+ */
+@Component
+public class UserPrincipalCache {
+
+  // 統計情報の表示名
+  static final String NAME = "userPrincipals";
+
+  private final UserMapper userMapper;
+
+  // ユーザーID → ログインユーザー情報
+  private final Cache<Long, AppUserPrincipal> cache;
+
+  /**
+   * UserPrincipalCacheのコンストラクタ。
+   *
+   * @param userMapper         ユーザーMapper
+   * @param cacheStatsRegistry キャッシュ統計の登録先
+   * @param maxUsers           保持するユーザー数の上限
+   * @param ttlSeconds         保持期間（秒）
+   */
+  public UserPrincipalCache(
+      UserMapper userMapper,
+      CacheStatsRegistry cacheStatsRegistry,
+      @Value("${famigo.auth.principal-cache.max-users:10000}") long maxUsers,
+      @Value("${famigo.auth.principal-cache.ttl-seconds:60}") long ttlSeconds
+  ) {
+    this.userMapper = userMapper;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxUsers)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    cacheStatsRegistry.register(NAME, cache);
+  }
+
+  /**
+   * 有効なユーザーのログインユーザー情報を取得する（未キャッシュの場合は DB から読み込む）。
+   *
+   * @param userId ユーザーID（JWT の uid）
+   * @return ログインユーザー情報（存在しない・退会済みの場合は null）
+   */
+  public AppUserPrincipal get(Long userId) {
+    return cache.get(userId, this::load);
+  }
+
+  /**
+   * ユーザーのログインユーザー情報を破棄する（email / role の変更・退会時）。
+   * 即座に破棄し、トランザクション内で呼ばれた場合はコミット後にも破棄する。
+   *
+   * @param userId ユーザーID
+   */
+  public void evict(Long userId) {
+    cache.invalidate(userId);
+    AfterCommit.run(() -> cache.invalidate(userId));
+  }
+
+  private AppUserPrincipal load(Long userId) {
+    User user = userMapper.findActiveById(userId);
+    if (user == null) {
+      return null;
+    }
+    // email/role はDBから復元（メール変更後も principal の中身が最新になる）
+    return new AppUserPrincipal(user.getId(), user.getEmail(), user.getRole(),
+        List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+  }
+}
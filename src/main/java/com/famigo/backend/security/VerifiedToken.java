@@ -0,0 +1,24 @@
+package com.famigo.backend.security;
+
+import java.time.Instant;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 署名・有効期限の検証に成功した JWT から取り出した値（uid / role / exp）。
+ * JwtTokenProvider が検証済みトークンのキャッシュに保持し、同じトークンの再検証を省くために使う。
+ * 変更不可のため、リクエスト間で共有する。
+ */
+@Getter
+@RequiredArgsConstructor
+public class VerifiedToken {
+
+  // ユーザーID（uid）
+  private final Long userId;
+
+  // 発行時のロール（role。認可には DB から取得した最新のロールを使う）
+  private final String role;
+
+  // 有効期限（exp）
+  private final Instant expiresAt;
+}
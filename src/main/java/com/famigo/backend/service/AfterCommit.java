@@ -0,0 +1,33 @@
+package com.famigo.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * トランザクションのコミット後に処理を行うためのユーティリティ（キャッシュの破棄などに使う）。
+ * コミット前に破棄すると、コミットまでの間の読み込みが古い値をキャッシュし直してしまうため。
+ */
+public final class AfterCommit {
+
+  private AfterCommit() {
+  }
+
+  /**
+   * トランザクション内であればコミット後に、トランザクション外であればすぐに処理を行う。
+   * ロールバックされた場合は何もしない。
+   *
+   * @param action 処理
+   */
+  public static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -3,6 +3,7 @@ package com.famigo.backend.service;
 import com.famigo.backend.dto.auth.LoginRequest;
 import com.famigo.backend.dto.auth.LoginResponse;
 import com.famigo.backend.dto.auth.MeResponse;
+import com.famigo.backend.dto.auth.RefreshTokenRequest;
 import com.famigo.backend.dto.auth.RegisterRequest;
 import com.famigo.backend.entity.User;
 import com.famigo.backend.mapper.UserMapper;
@@ -12,6 +13,7 @@ import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -21,6 +23,7 @@ public class AuthService {
   private final UserMapper userMapper;              // ユーザー情報取得（DBアクセス）
   private final PasswordEncoder passwordEncoder;    // パスワード照合（ハッシュ比較）
   private final JwtTokenProvider jwtTokenProvider;  // JWT生成・有効期限取得など
+  private final RefreshTokenService refreshTokenService;  // リフレッシュトークンの発行・使用
 
   /**
    * ユーザー登録（サインアップ）
@@ -28,10 +31,10 @@ public class AuthService {
    *   email の重複チェック（論理削除除外）
    *   password を BCrypt でハッシュ化
    *   users に insert（role=USER, is_deleted=0）
-   *   JWTを発行して返す（登録後に自動ログイン）
+   *   JWT・リフレッシュトークンを発行して返す（登録後に自動ログイン）
    *
    * @param request 登録入力（displayName / email / password / passwordConfirm）
-   * @return 登録結果（JWT + token種別 + 有効期限 + me情報）
+   * @return 登録結果（JWT + token種別 + 有効期限 + me情報 + リフレッシュトークン）
    * @throws ResponseStatusException 重複時は 409
    */
   public LoginResponse register(RegisterRequest request) {
@@ -68,18 +71,7 @@ public class AuthService {
     }
 
     // JWT（アクセストークン）を発行。これにより登録直後に自動でログイン状態（オートログイン）にできる。
-    String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail(), user.getRole());
-
-    // フロントに返す「ログイン中ユーザー情報」の作成
-    MeResponse me = new MeResponse(user.getId(), user.getName(), user.getEmail(), user.getRole());
-
-    // ログインレスポンスをクライアントに返す
-    return new LoginResponse(
-        token,
-        "Bearer",
-        jwtTokenProvider.getExpiresInSeconds(),
-        me
-    );
+    return issueTokens(user);
   }
 
 
@@ -88,10 +80,11 @@ public class AuthService {
    * 【流れ】
    *   メールアドレスで「有効なユーザー（論理削除されていない等）」を取得
    *   平文パスワードとDBのハッシュを照合（matches）
-   *   OKならJWTを生成し、token + me情報を返す
+   *   ハッシュの強度が現在の設定と異なれば作り直す（rehash）
+   *   OKならJWT・リフレッシュトークンを生成し、token + me情報を返す
    *
    * @param request ログイン入力（email / password）
-   * @return ログイン結果（JWT + token種別 + 有効期限 + me情報）
+   * @return ログイン結果（JWT + token種別 + 有効期限 + me情報 + リフレッシュトークン）
    * @throws ResponseStatusException 認証失敗時は 401
    */
   public LoginResponse login(LoginRequest request) {
@@ -110,19 +103,46 @@ public class AuthService {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password.");
     }
 
-    // JWTを生成（userId / email / role をpayloadに含める）
-    String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail(), user.getRole());
+    // 保存済みハッシュの強度が現在の設定より低い場合は、入力されたパスワードで作り直して保存する
+    // （平文のパスワードが手元にあるのはログイン時だけのため）
+    if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+      try {
+        userMapper.updatePasswordHash(user.getId(), passwordEncoder.encode(request.getPassword()));
+      } catch (ResponseStatusException e) {
+        // ハッシュ計算が混雑（503）の場合は作り直しを見送り、ログインは続ける（次回のログインで再度行う）
+      }
+    }
 
-    // フロントに返す「ログイン中ユーザー情報」の作成
-    MeResponse me = new MeResponse(user.getId(), user.getName(), user.getEmail(), user.getRole());
+    // JWT（アクセストークン）とリフレッシュトークンを発行
+    return issueTokens(user);
+  }
 
-    // ログインレスポンスをクライアントに返す
-    return new LoginResponse(
-        token,                              // access token 本体
-        "Bearer",                           // Authorization: Bearer <token> の "Bearer" 部分
-        jwtTokenProvider.getExpiresInSeconds(), // トークン有効期限（秒）
-        me                                  // ログインユーザー情報
-    );
+
+  /**
+   * アクセストークンの再発行（リフレッシュトークンで、パスワードなしに JWT を発行し直す）
+   * 【流れ】
+   *   リフレッシュトークンを失効させる（失効済み・期限切れ・存在しない場合は 401）
+   *   持ち主が有効なユーザーか確認（退会済みなら 401）
+   *   新しい JWT とリフレッシュトークンを発行して返す（ローテーション）
+   * パスワードの照合（BCrypt）は行わないため、ログインし直すより CPU 負荷が小さい。
+   *
+   * @param request 再発行入力（refreshToken）
+   * @return 再発行結果（JWT + token種別 + 有効期限 + me情報 + 新しいリフレッシュトークン）
+   * @throws ResponseStatusException 無効なトークン・退会済みユーザーの場合は 401
+   */
+  @Transactional
+  public LoginResponse refresh(RefreshTokenRequest request) {
+
+    // リフレッシュトークンを使用済みにして、持ち主のユーザーIDを取得（無効なトークンは 401）
+    Long userId = refreshTokenService.consume(request.getRefreshToken());
+
+    // 退会済みユーザーのトークンは使えない（退会時に失効させているが、念のため確認）
+    User user = userMapper.findActiveById(userId);
+    if (user == null) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token.");
+    }
+
+    return issueTokens(user);
   }
 
 
@@ -149,4 +169,33 @@ public class AuthService {
     // レスポンス用DTOへの変換
     return new MeResponse(user.getId(), user.getName(), user.getEmail(), user.getRole());
   }
+
+
+  /**
+   * JWT（アクセストークン）とリフレッシュトークンを発行し、ログインレスポンスを作る（登録・ログイン・再発行で共通）。
+   *
+   * @param user 有効なユーザー
+   * @return ログインレスポンス
+   */
+  private LoginResponse issueTokens(User user) {
+
+    // JWTを生成（userId / email / role をpayloadに含める）
+    String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail(), user.getRole());
+
+    // リフレッシュトークンを発行（DBにはハッシュ値だけを保存）
+    String refreshToken = refreshTokenService.issue(user.getId());
+
+    // フロントに返す「ログイン中ユーザー情報」の作成
+    MeResponse me = new MeResponse(user.getId(), user.getName(), user.getEmail(), user.getRole());
+
+    // ログインレスポンスをクライアントに返す
+    return new LoginResponse(
+        token,                                     // access token 本体
+        "Bearer",                                  // Authorization: Bearer <token> の "Bearer" 部分
+        jwtTokenProvider.getExpiresInSeconds(),    // トークン有効期限（秒）
+        me,                                        // ログインユーザー情報
+        refreshToken,                              // 再発行用のリフレッシュトークン
+        refreshTokenService.getExpiresInSeconds()  // リフレッシュトークン有効期限（秒）
+    );
+  }
 }
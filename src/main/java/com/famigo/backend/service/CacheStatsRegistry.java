@@ -0,0 +1,52 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.dto.CacheStatsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * アプリ内のインメモリキャッシュ（Caffeine）を名前付きで登録し、統計情報をまとめて返すためのクラス。
+ * 各キャッシュはコンストラクタで自身を登録する（recordStats() を有効にしておくこと）。
+ */
+@Component
+public class CacheStatsRegistry {
+
+  // キャッシュ名 → キャッシュ（名前順）
+  private final Map<String, Cache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+  /**
+   * キャッシュを登録する。
+   *
+   * @param name  キャッシュ名（統計情報の表示用）
+   * @param cache キャッシュ
+   */
+  public void register(String name, Cache<?, ?> cache) {
+    caches.put(name, cache);
+  }
+
+  /**
+   * 登録済みキャッシュの統計情報を名前順で返す。
+   *
+   * @return 統計情報の一覧
+   */
+  public List<CacheStatsDto> snapshot() {
+    List<CacheStatsDto> result = new ArrayList<>();
+    caches.forEach((name, cache) -> {
+      CacheStats stats = cache.stats();
+      result.add(new CacheStatsDto(
+          name,
+          cache.estimatedSize(),
+          stats.hitCount(),
+          stats.missCount(),
+          stats.hitRate(),
+          stats.evictionCount()
+      ));
+    });
+    return result;
+  }
+}
@@ -0,0 +1,55 @@
+package com.famigo.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * スポット・カテゴリの GET 応答に付ける ETag（強い ETag）を作るクラス。
+ * If-None-Match と一致した場合は Controller で 304 を返し、Mapper・シリアライズを省く。
+ * 【方針】
+ * - カタログ版数（SpotCatalogIndex#getVersion）から作る（スポット・設備・カテゴリの変更を取り込むと変わる。
+ *   内容の変わらない定期の全件再構築や、集計値（レビュー件数・評価の平均・お気に入り数）だけの変更では変わらない。
+ *   ただしレビューの書き込み後は、詳細のレビュー集計を反映するためコミット直後に変わる）
+ * - 版数はプロセス内のカウンタのため、起動ごとに異なる起動IDを前に付けて再起動後の取り違えを防ぐ
+ * - ログイン時はユーザーIDとお気に入りセットの指紋も含める（お気に入り状態が変われば ETag も変わる）
+ * - 索引が未構築の間（版数 0）は応答がDBから直接作られるため、ETag を付けない（null）
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogETags {
+
+  private final SpotCatalogIndex spotCatalogIndex;
+  private final FavoriteSetCache favoriteSetCache;
+
+  // 起動ID（起動時刻の36進数）
+  private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+  /**
+   * ユーザーに依存しない応答（カテゴリ一覧など）の ETag を返す。
+   *
+   * @return ETag（引用符付き）。索引が未構築の場合は null
+   */
+  public String forCatalog() {
+    long version = spotCatalogIndex.getVersion();
+    if (version == 0) {
+      return null;
+    }
+    return "\"c" + bootId + "-" + Long.toString(version, 36) + "\"";
+  }
+
+  /**
+   * お気に入り状態を含む応答（スポット一覧・詳細）の ETag を返す。
+   *
+   * @param userId ユーザーID（未ログインは null）
+   * @return ETag（引用符付き）。索引が未構築の場合は null
+   */
+  public String forUser(Long userId) {
+    String catalog = forCatalog();
+    if (catalog == null || userId == null) {
+      return catalog;
+    }
+    long favorites = favoriteSetCache.get(userId).fingerprint();
+    return catalog.substring(0, catalog.length() - 1)
+        + "-u" + Long.toString(userId, 36) + "-" + Long.toUnsignedString(favorites, 36) + "\"";
+  }
+}
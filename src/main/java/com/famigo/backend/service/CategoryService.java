@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 public class CategoryService {
 
   private final CategoryMapper categoryMapper;
+  private final CatalogETags catalogETags;
 
   /**
    * カテゴリ一覧をID昇順で取得するメソッド
@@ -21,4 +22,13 @@ public class CategoryService {
     return categoryMapper.selectAll();
   }
 
+  /**
+   * カテゴリ一覧の ETag を取得するメソッド（カテゴリ名の変更はカタログ版数に含まれる）
+   *
+   * @return ETag（引用符付き）。索引が未構築の場合は null（ETag を付けない）
+   */
+  public String getETag() {
+    return catalogETags.forCatalog();
+  }
+
 }
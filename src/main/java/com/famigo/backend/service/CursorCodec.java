@@ -0,0 +1,77 @@
+package com.famigo.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ページングカーソル（after / before トークン）のエンコード・デコードを行うユーティリティ。
+ * クライアントには中身を意識させない「不透明なトークン」として渡すため、
+ * シークキー（例：最後のスポットID）を "|" 区切りで連結し、Base64URL でエンコードする。
+ */
+public final class CursorCodec {
+
+  private static final String SEPARATOR = "|";
+
+  private CursorCodec() {
+  }
+
+  /**
+   * シークキーをカーソル文字列に変換する。
+   *
+   * @param parts シークキー（並び順のキーを先頭から順に指定）
+   * @return カーソル文字列（Base64URL・パディングなし）
+   */
+  public static String encode(Object... parts) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < parts.length; i++) {
+      if (i > 0) {
+        sb.append(SEPARATOR);
+      }
+      sb.append(parts[i]);
+    }
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * カーソル文字列をシークキーに戻す。
+   *
+   * @param cursor        カーソル文字列
+   * @param expectedParts 期待するキーの個数
+   * @return シークキー（文字列）
+   * @throws ResponseStatusException 形式不正の場合は 400
+   */
+  public static String[] decode(String cursor, int expectedParts) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", -1);
+      if (parts.length != expectedParts) {
+        throw invalid(cursor);
+      }
+      return parts;
+    } catch (IllegalArgumentException e) {
+      throw invalid(cursor);
+    }
+  }
+
+  /**
+   * 1要素（Long）のカーソルをデコードする。
+   *
+   * @param cursor カーソル文字列
+   * @return シークキー（Long）
+   * @throws ResponseStatusException 形式不正の場合は 400
+   */
+  public static Long decodeLong(String cursor) {
+    try {
+      return Long.valueOf(decode(cursor, 1)[0]);
+    } catch (NumberFormatException e) {
+      throw invalid(cursor);
+    }
+  }
+
+  private static ResponseStatusException invalid(String cursor) {
+    return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+  }
+}
@@ -5,46 +5,58 @@ import com.famigo.backend.mapper.FavoriteMapper;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class FavoriteService {
 
   private final FavoriteMapper favoriteMapper;
+  private final FavoriteSetCache favoriteSetCache;
 
   /**
    * お気に入り登録（すでに存在する場合は復活）
+   * スポットのお気に入り数（一覧のお気に入り数順に使う）も同じトランザクションで再計算する。
+   * お気に入りセットキャッシュへの反映はコミット後に行う。
    *
    * @param userId ユーザーID（ログインユーザー）
    * @param spotId スポットID
    */
+  @Transactional
   public void addFavorite(Long userId, Long spotId) {
     favoriteMapper.upsertFavorite(userId, spotId);
+    favoriteMapper.refreshSpotFavoriteCount(spotId);
+    favoriteSetCache.added(userId, spotId);
   }
 
   /**
    * お気に入り解除（論理削除）
+   * スポットのお気に入り数も同じトランザクションで再計算する。
+   * お気に入りセットキャッシュへの反映はコミット後に行う。
    *
    * @param userId ユーザーID（ログインユーザー）
    * @param spotId スポットID
    */
+  @Transactional
   public void removeFavorite(Long userId, Long spotId) {
     favoriteMapper.logicalDeleteFavorite(userId, spotId);
+    favoriteMapper.refreshSpotFavoriteCount(spotId);
+    favoriteSetCache.removed(userId, spotId);
   }
 
   /**
-   * お気に入り済みか判定
+   * お気に入り済みか判定（お気に入りセットキャッシュで判定する）
    *
    * @param userId ユーザーID（ログインユーザー）
    * @param spotId スポットID
    * @return true:お気に入り済み / false:未お気に入り
    */
   public boolean isFavorite(Long userId, Long spotId) {
-    return favoriteMapper.existsActiveFavorite(userId, spotId);
+    return favoriteSetCache.contains(userId, spotId);
   }
 
   /**
-   * お気に入り一覧を取得
+   * お気に入り一覧を取得（登録が新しい順の並びが必要なため、DB から取得する）
    *
    * @param userId ユーザーID（ログインユーザー）
    * @return お気に入りスポット一覧（SpotListItemDto のリスト）
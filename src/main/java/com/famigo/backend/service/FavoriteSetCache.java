@@ -0,0 +1,160 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.mapper.FavoriteMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * ユーザーごとの「お気に入り中のスポットID」をメモリに保持するキャッシュ。
+ * スポット一覧・詳細のお気に入り状態の設定や、お気に入り判定で favorites テーブルを毎回参照しないようにする。
+ * 【方針】
+ * - 1ユーザー分は昇順の long 配列（FavoriteSet）で持ち、判定は二分探索で行う
+ * - 保持するユーザー数に上限を設け、使われていないユーザーから破棄する（期限切れも同様）
+ * - お気に入り登録・解除は DB 更新のコミット後にキャッシュへ反映する（ライトスルー。ロールバック時は反映しない）
+ *   コミット前に反映すると、コミットまでの間の読み込みが古い状態をキャッシュし直してしまうため
+ * - 読み込み中に同じユーザーの登録・解除が来た場合は、読み込み完了を待ってから反映する（古い状態で上書きしない）
+ */
+@Component
+public class FavoriteSetCache {
+
+  // 統計情報の表示名
+  static final String NAME = "favoriteSets";
+
+  private final FavoriteMapper favoriteMapper;
+
+  // ユーザーID → お気に入りセット
+  private final Cache<Long, FavoriteSet> cache;
+
+  /**
+   * FavoriteSetCacheのコンストラクタ。
+   *
+   * @param favoriteMapper           お気に入りMapper
+   * @param cacheStatsRegistry       キャッシュ統計の登録先
+   * @param maxUsers                 保持するユーザー数の上限
+   * @param expireAfterAccessMinutes 最後に参照されてから破棄するまでの時間（分）
+   */
+  public FavoriteSetCache(
+      FavoriteMapper favoriteMapper,
+      CacheStatsRegistry cacheStatsRegistry,
+      @Value("${famigo.favorites.cache.max-users:10000}") long maxUsers,
+      @Value("${famigo.favorites.cache.expire-after-access-minutes:30}") long expireAfterAccessMinutes
+  ) {
+    this.favoriteMapper = favoriteMapper;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxUsers)
+        .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+        .recordStats()
+        .build();
+    cacheStatsRegistry.register(NAME, cache);
+  }
+
+  /**
+   * ユーザーのお気に入りセットを取得する（未キャッシュの場合は DB から読み込む）。
+   *
+   * @param userId ユーザーID
+   * @return お気に入りセット
+   */
+  public FavoriteSet get(Long userId) {
+    return cache.get(userId, id -> FavoriteSet.of(favoriteMapper.findActiveFavoriteSpotIds(id)));
+  }
+
+  /**
+   * お気に入り済みか判定する。
+   *
+   * @param userId ユーザーID
+   * @param spotId スポットID
+   * @return true:お気に入り済み / false:未お気に入り
+   */
+  public boolean contains(Long userId, Long spotId) {
+    return get(userId).contains(spotId);
+  }
+
+  /**
+   * お気に入り登録を反映する（DB 更新後に呼ぶこと。未キャッシュのユーザーは何もしない）。
+   * トランザクション内で呼ばれた場合はコミット後に反映する（ロールバック時は反映しない）。
+   *
+   * @param userId ユーザーID
+   * @param spotId スポットID
+   */
+  public void added(Long userId, Long spotId) {
+    AfterCommit.run(() -> cache.asMap().computeIfPresent(userId, (id, set) -> set.with(spotId)));
+  }
+
+  /**
+   * お気に入り解除を反映する（DB 更新後に呼ぶこと。未キャッシュのユーザーは何もしない）。
+   * トランザクション内で呼ばれた場合はコミット後に反映する（ロールバック時は反映しない）。
+   *
+   * @param userId ユーザーID
+   * @param spotId スポットID
+   */
+  public void removed(Long userId, Long spotId) {
+    AfterCommit.run(() -> cache.asMap().computeIfPresent(userId, (id, set) -> set.without(spotId)));
+  }
+
+  /**
+   * 1ユーザー分のお気に入りスポットID（変更しない。更新時は新しいセットを作る）。
+   */
+  public static final class FavoriteSet {
+
+    static final FavoriteSet EMPTY = new FavoriteSet(new long[0]);
+
+    private final long[] spotIds;   // スポットID（昇順・重複なし）
+
+    private FavoriteSet(long[] spotIds) {
+      this.spotIds = spotIds;
+    }
+
+    static FavoriteSet of(List<Long> spotIds) {
+      long[] ids = spotIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+      return (ids.length == 0) ? EMPTY : new FavoriteSet(ids);
+    }
+
+    public boolean contains(Long spotId) {
+      return spotId != null && Arrays.binarySearch(spotIds, spotId) >= 0;
+    }
+
+    public boolean isEmpty() {
+      return spotIds.length == 0;
+    }
+
+    /**
+     * @return 内容から求めた 64bit の指紋（同じスポットIDの集合なら同じ値。ETag に使う）
+     */
+    public long fingerprint() {
+      long hash = 0xcbf29ce484222325L;
+      for (long spotId : spotIds) {
+        hash = (hash ^ spotId) * 0x100000001b3L;
+      }
+      return hash;
+    }
+
+    FavoriteSet with(long spotId) {
+      int at = Arrays.binarySearch(spotIds, spotId);
+      if (at >= 0) {
+        return this;
+      }
+      int insert = -(at + 1);
+      long[] next = new long[spotIds.length + 1];
+      System.arraycopy(spotIds, 0, next, 0, insert);
+      next[insert] = spotId;
+      System.arraycopy(spotIds, insert, next, insert + 1, spotIds.length - insert);
+      return new FavoriteSet(next);
+    }
+
+    FavoriteSet without(long spotId) {
+      int at = Arrays.binarySearch(spotIds, spotId);
+      if (at < 0) {
+        return this;
+      }
+      long[] next = new long[spotIds.length - 1];
+      System.arraycopy(spotIds, 0, next, 0, at);
+      System.arraycopy(spotIds, at + 1, next, at, spotIds.length - at - 1);
+      return new FavoriteSet(next);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.mapper.RefreshTokenMapper;
+import com.famigo.backend.security.TokenDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * リフレッシュトークン（アクセストークン再発行用）の発行・使用・失効を行うクラス。
+ * 【方針】
+ * - トークンは推測できない乱数（256bit）で、中身を持たない。DBにはハッシュ値（SHA-256）だけを保存する
+ * - 使用時は失効させ、新しいトークンを発行する（ローテーション。同じトークンは1回しか使えない）
+ * - 再発行はハッシュ値での1件の検索だけで行い、パスワードの照合（BCrypt）は行わない
+ * - パスワード変更・退会ではそのユーザーのトークンをすべて失効させる
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+  // トークンのバイト数（256bit）
+  private static final int TOKEN_BYTES = 32;
+
+  // 期限切れトークンの削除で、1回に削除する件数の上限
+  private static final int PURGE_BATCH = 1000;
+
+  private final SecureRandom random = new SecureRandom();
+
+  private final RefreshTokenMapper refreshTokenMapper;
+
+  // リフレッシュトークンの有効期限（日）
+  private final long expirationDays;
+
+  /**
+   * RefreshTokenServiceのコンストラクタ。
+   *
+   * @param refreshTokenMapper リフレッシュトークンMapper
+   * @param expirationDays     リフレッシュトークンの有効期限（日）
+   */
+  public RefreshTokenService(
+      RefreshTokenMapper refreshTokenMapper,
+      @Value("${famigo.jwt.refresh-expiration-days:30}") long expirationDays
+  ) {
+    this.refreshTokenMapper = refreshTokenMapper;
+    this.expirationDays = expirationDays;
+  }
+
+  /**
+   * リフレッシュトークンを発行する（ログイン・登録・再発行時）。
+   *
+   * @param userId ユーザーID
+   * @return リフレッシュトークン（クライアントに返す値。DBにはハッシュ値だけを保存する）
+   */
+  public String issue(Long userId) {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    random.nextBytes(bytes);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    int rows = refreshTokenMapper.insert(userId, TokenDigest.sha256Hex(token), expirationDays);
+    if (rows != 1) {
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to issue refresh token.");
+    }
+    return token;
+  }
+
+  /**
+   * リフレッシュトークンを使用する（失効させ、持ち主のユーザーIDを返す）。
+   * 失効済み・期限切れ・存在しないトークンは 401。
+   *
+   * @param refreshToken リフレッシュトークン
+   * @return ユーザーID
+   * @throws ResponseStatusException 無効なトークンの場合は 401
+   */
+  public Long consume(String refreshToken) {
+    String tokenHash = TokenDigest.sha256Hex(refreshToken);
+
+    // 失効させることができた（= 有効だった）場合だけ再発行する（同時に使われても1件だけが成功する）
+    if (refreshTokenMapper.revoke(tokenHash) != 1) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token.");
+    }
+    return refreshTokenMapper.findUserIdByTokenHash(tokenHash);
+  }
+
+  /**
+   * リフレッシュトークンの有効期限を「秒単位」で返す（ログインレスポンスの refreshExpiresIn）。
+   *
+   * @return 有効期限（秒）
+   */
+  public Long getExpiresInSeconds() {
+    return expirationDays * 24 * 60 * 60;
+  }
+
+  /**
+   * ユーザーのリフレッシュトークンをすべて失効させる（パスワード変更・退会時）。
+   *
+   * @param userId ユーザーID
+   */
+  public void revokeAll(Long userId) {
+    refreshTokenMapper.revokeAllByUserId(userId);
+  }
+
+  /**
+   * 有効期限を過ぎたリフレッシュトークンを削除する（定期実行）。
+   * ログインのたびに1行増えるため、使われなくなった行を消してテーブルの肥大化を防ぐ。
+   *
+   * @return 削除した件数
+   */
+  @Scheduled(
+      initialDelayString = "${famigo.jwt.refresh-purge-interval-ms:3600000}",
+      fixedDelayString = "${famigo.jwt.refresh-purge-interval-ms:3600000}"
+  )
+  public int purgeExpired() {
+    int total = 0;
+    try {
+      int deleted;
+      do {
+        deleted = refreshTokenMapper.deleteExpired(PURGE_BATCH);
+        total += deleted;
+      } while (deleted == PURGE_BATCH);
+    } catch (RuntimeException e) {
+      log.warn("Expired refresh token purge failed: {}", e.getMessage());
+    }
+
+    if (total > 0) {
+      log.info("Expired refresh tokens purged: deleted={}", total);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,141 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.dto.CursorPage;
+import com.famigo.backend.dto.ReviewListItemDto;
+import com.famigo.backend.mapper.ReviewMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * スポットごとのレビュー一覧（全件・ページ）をメモリに保持するキャッシュ。
+ * レビュー一覧の取得で reviews と users の JOIN を毎回行わないようにする。
+ * 【方針】
+ * - キーはスポットID＋世代＋カーソル＋件数（全件取得はカーソル・件数なし）
+ * - レビューの登録・編集・削除、投稿者の表示名の変更（プロフィール更新・退会）で、対象スポットの分だけ破棄する
+ * - 破棄はコミット後に行う（コミット前に破棄すると、その間の読み込みが古い一覧を保持し直してしまうため）
+ * - 破棄のたびにスポットの世代を進め、破棄前に読み込みを始めた一覧が後から保持されても使われないようにする
+ * - 保持する一覧は共有されるため、変更不可のリストにして返す
+ */
+@Component
+public class ReviewListCache {
+
+  // 統計情報の表示名
+  static final String NAME = "reviewLists";
+
+  // 全件取得のキーに使う件数
+  private static final int ALL = -1;
+
+  private final ReviewMapper reviewMapper;
+
+  // キー → レビュー一覧（全件取得は nextCursor なしのページとして持つ）
+  private final Cache<Key, CursorPage<ReviewListItemDto>> cache;
+
+  // スポットID → 世代（破棄のたびに進める。レビューを書き込んだことのあるスポットの分だけ持つ）
+  private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+  /**
+   * ReviewListCacheのコンストラクタ。
+   *
+   * @param reviewMapper       レビューMapper（退会・表示名変更時に、投稿者がレビューしたスポットを調べる）
+   * @param cacheStatsRegistry キャッシュ統計の登録先
+   * @param maxEntries         保持する一覧（スポット × ページ）の数の上限
+   * @param ttlSeconds         保持期間（秒）
+   */
+  public ReviewListCache(
+      ReviewMapper reviewMapper,
+      CacheStatsRegistry cacheStatsRegistry,
+      @Value("${famigo.reviews.list-cache.max-entries:5000}") long maxEntries,
+      @Value("${famigo.reviews.list-cache.ttl-seconds:600}") long ttlSeconds
+  ) {
+    this.reviewMapper = reviewMapper;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxEntries)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    cacheStatsRegistry.register(NAME, cache);
+  }
+
+  /**
+   * スポットのレビュー一覧（全件）を取得する（キャッシュにない場合は loader で取得して保持する）。
+   *
+   * @param spotId スポットID
+   * @param loader 一覧の取得処理
+   * @return レビュー一覧（変更不可）
+   */
+  public List<ReviewListItemDto> getAll(Long spotId, Supplier<List<ReviewListItemDto>> loader) {
+    return cache.get(new Key(spotId, generation(spotId), null, ALL),
+        key -> new CursorPage<>(List.copyOf(loader.get()), null)).getItems();
+  }
+
+  /**
+   * スポットのレビュー一覧を1ページ分取得する（キャッシュにない場合は loader で取得して保持する）。
+   *
+   * @param spotId   スポットID
+   * @param before   前ページの nextCursor（先頭ページは null）
+   * @param pageSize 取得件数（上限で切り詰め済みの値）
+   * @param loader   ページの取得処理
+   * @return 1ページ分のレビュー一覧（items は変更不可）
+   */
+  public CursorPage<ReviewListItemDto> getPage(Long spotId, String before, int pageSize,
+      Supplier<CursorPage<ReviewListItemDto>> loader) {
+    return cache.get(new Key(spotId, generation(spotId), before, pageSize), key -> {
+      CursorPage<ReviewListItemDto> page = loader.get();
+      return new CursorPage<>(List.copyOf(page.getItems()), page.getNextCursor());
+    });
+  }
+
+  /**
+   * スポットのレビュー一覧をすべて（全件・全ページ）破棄する。
+   * トランザクション内で呼ばれた場合はコミット後に破棄する（ロールバック時は破棄しない）。
+   *
+   * @param spotId スポットID
+   */
+  public void evict(Long spotId) {
+    AfterCommit.run(() -> invalidate(spotId));
+  }
+
+  /**
+   * ユーザーがレビューを投稿しているスポットのレビュー一覧を破棄する（表示名の変更・退会時）。
+   * 投稿者がレビューしたスポットは、破棄を予約する時点（トランザクション内）で調べる。
+   *
+   * @param userId ユーザーID
+   */
+  public void evictReviewsBy(Long userId) {
+    List<Long> spotIds = reviewMapper.selectReviewedSpotIds(userId);
+    if (!spotIds.isEmpty()) {
+      AfterCommit.run(() -> spotIds.forEach(this::invalidate));
+    }
+  }
+
+  private long generation(Long spotId) {
+    return generations.getOrDefault(spotId, 0L);
+  }
+
+  private void invalidate(Long spotId) {
+    generations.merge(spotId, 1L, Long::sum);
+    cache.asMap().keySet().removeIf(key -> key.spotId.equals(spotId));
+  }
+
+  /**
+   * キャッシュキー（スポットID＋世代＋カーソル＋件数）。
+   */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class Key {
+
+    private final Long spotId;
+    private final long generation;
+    private final String before;
+    private final int pageSize;
+  }
+}
@@ -1,9 +1,12 @@
 package com.famigo.backend.service;
 
+import com.famigo.backend.dto.CursorPage;
 import com.famigo.backend.dto.ReviewAuthInfoDto;
 import com.famigo.backend.dto.ReviewUpsertRequest;
 import com.famigo.backend.dto.ReviewListItemDto;
 import com.famigo.backend.mapper.ReviewMapper;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,21 +18,92 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor   // finalフィールドを引数に持つコンストラクタを自動生成
 public class ReviewService {
 
+  // ページ取得時の既定件数（limit 未指定で before のみ指定された場合）
+  static final int DEFAULT_PAGE_SIZE = 20;
+
+  // ページ取得時の最大件数（これを超える limit は切り詰める）
+  static final int MAX_PAGE_SIZE = 100;
+
   private final ReviewMapper reviewMapper;
+  private final ReviewListCache reviewListCache;
+  private final SpotCatalogIndex spotCatalogIndex;
 
   /**
    * スポットIDに紐づくスポット1件のレビュー一覧を投稿日時の新しい順で取得するメソッド
+   * レビュー一覧キャッシュにあればそれを返す。
    *
    * @param spotId スポットID
-   * @return スポット1件のレビュー一覧
+   * @return スポット1件のレビュー一覧（変更不可）
    */
   public List<ReviewListItemDto> getReviewsBySpotId(Long spotId) {
-    return reviewMapper.selectReviewsBySpotId(spotId);
+    return reviewListCache.getAll(spotId, () -> reviewMapper.selectReviewsBySpotId(spotId));
+  }
+
+
+  /**
+   * スポットIDに紐づくレビュー一覧をキーセット方式（投稿日時, ID の降順）で1ページ分取得するメソッド
+   * 次ページの有無は limit + 1 件取得して判定し、続きがある場合のみ次ページ用カーソルを返す。
+   * レビュー一覧キャッシュにあればそれを返す（不正なカーソル・limit はキャッシュを見る前に 400 にする）。
+   *
+   * @param spotId スポットID
+   * @param before 前ページの nextCursor（先頭ページの場合は null）
+   * @param limit  取得件数（null の場合は既定件数。上限を超える場合は上限に切り詰める）
+   * @return 1ページ分のレビュー一覧と次ページ用カーソル
+   * @throws ResponseStatusException limit が1未満、またはカーソルが不正な場合は 400
+   */
+  public CursorPage<ReviewListItemDto> getReviewPage(Long spotId, String before, Integer limit) {
+    int pageSize = resolvePageSize(limit);
+
+    if (before == null || before.isBlank()) {
+      return reviewListCache.getPage(spotId, null, pageSize,
+          () -> loadReviewPage(spotId, null, null, pageSize));
+    }
+
+    String[] key = CursorCodec.decode(before, 2);
+    LocalDateTime beforeCreatedAt;
+    Long beforeId;
+    try {
+      beforeCreatedAt = LocalDateTime.parse(key[0]);
+      beforeId = Long.valueOf(key[1]);
+    } catch (DateTimeParseException | NumberFormatException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + before);
+    }
+
+    return reviewListCache.getPage(spotId, before, pageSize,
+        () -> loadReviewPage(spotId, beforeCreatedAt, beforeId, pageSize));
+  }
+
+  private CursorPage<ReviewListItemDto> loadReviewPage(
+      Long spotId, LocalDateTime beforeCreatedAt, Long beforeId, int pageSize) {
+
+    List<ReviewListItemDto> rows =
+        reviewMapper.selectReviewPageBySpotId(spotId, beforeCreatedAt, beforeId, pageSize + 1);
+
+    if (rows.size() <= pageSize) {
+      return new CursorPage<>(rows, null);
+    }
+
+    List<ReviewListItemDto> items = rows.subList(0, pageSize);
+    ReviewListItemDto last = items.get(pageSize - 1);
+    return new CursorPage<>(items, CursorCodec.encode(last.getCreatedAt(), last.getId()));
+  }
+
+  private int resolvePageSize(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    if (limit < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be 1 or more: " + limit);
+    }
+    return Math.min(limit, MAX_PAGE_SIZE);
   }
 
 
   /**
    * スポットIDとユーザーIDを紐づけてレビューを新規登録するメソッド
+   * スポットのレビュー集計（spot_review_stats）へ登録したレビュー1件分を加算し、
+   * 一覧の評価順・レビュー件数順に使う spots の集計値へも同じトランザクションで反映する。
+   * コミット後にカタログ索引へ取り込み、版数（ETag）を変える（スポット詳細の再取得が 304 にならないように）。
    *
    * @param spotId  スポットID
    * @param userId  ユーザーID（ログインユーザー）
@@ -38,6 +112,10 @@ public class ReviewService {
   @Transactional
   public void createReview(Long spotId, Long userId, ReviewUpsertRequest request) {
     reviewMapper.insertReview(spotId, userId, request);
+    reviewMapper.applyReviewToSpotStats(null, 1);   // null = 直前に登録したレビュー
+    reviewMapper.refreshSpotReviewStats(spotId);
+    reviewListCache.evict(spotId);
+    AfterCommit.run(spotCatalogIndex::refreshWithNewVersion);   // 詳細のレビュー集計を ETag に反映する
   }
 
 
@@ -46,6 +124,9 @@ public class ReviewService {
    * 認可ルール：
    *  - USER：自分のレビューのみ編集可能
    *  - ADMIN：将来の運用を見据えて、全レビューを編集可能（※不要ならここで弾く）
+   * 認可条件（スポット・投稿者 / ADMIN）を付けてレビュー行を排他ロックし、0件の場合だけ、
+   * 404 / 403 のどちらかを判定するためにレビューを引き直す（認可条件を満たさない編集では集計に触れない）。
+   * レビュー集計へは編集前後の差分だけを反映する。
    *
    * @param spotId   スポットID（URLパス）
    * @param reviewId レビューID（URLパス）
@@ -56,36 +137,24 @@ public class ReviewService {
   @Transactional
   public void updateReview(Long spotId, Long reviewId, Long userId, String role, ReviewUpsertRequest request) {
 
-    ReviewAuthInfoDto authInfo = reviewMapper.selectReviewAuthInfo(reviewId);
-
-    // 存在しない / 論理削除済みは 404
-    if (authInfo == null || authInfo.getIsDeleted() == 1) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found: id=" + reviewId);
-    }
-
-    // URL の spotId と DB の spotId が一致しない場合も 404（スポット跨ぎを防止）
-    if (!authInfo.getSpotId().equals(spotId)) {
-      throw new ResponseStatusException(
-          HttpStatus.NOT_FOUND,
-          "Review not found for spotId=" + spotId + ", reviewId=" + reviewId
-      );
-    }
-
-    // 自分のレビュー以外を編集しようとしたら 403（ただし ADMIN は許可）
     boolean isAdmin = "ADMIN".equals(role);
-    if (!isAdmin && !authInfo.getUserId().equals(userId)) {
-      throw new ResponseStatusException(
-          HttpStatus.FORBIDDEN,
-          "Access denied: cannot edit others' review. reviewId=" + reviewId
-      );
+
+    // 最初にレビュー行を排他ロックする（同じレビューの同時編集は、ここで先の編集のコミットを待つ）
+    if (reviewMapper.lockReviewForEdit(spotId, reviewId, userId, isAdmin) == null) {
+      throw rejectReviewWrite(spotId, reviewId, userId, isAdmin, "edit");
     }
 
-    int updated = reviewMapper.updateReview(spotId, reviewId, request);
+    // 編集前後の差分をレビュー集計へ1文で反映する
+    reviewMapper.applyReviewEditToSpotStats(spotId, reviewId, userId, isAdmin, request);
 
-    // 念のため、更新対象が消えていた場合（並行更新など）は 404
+    int updated = reviewMapper.updateReview(spotId, reviewId, userId, isAdmin, request);
     if (updated == 0) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found: id=" + reviewId);
+      throw rejectReviewWrite(spotId, reviewId, userId, isAdmin, "edit");
     }
+
+    reviewMapper.refreshSpotReviewStats(spotId);
+    reviewListCache.evict(spotId);
+    AfterCommit.run(spotCatalogIndex::refreshWithNewVersion);
   }
 
 
@@ -94,6 +163,8 @@ public class ReviewService {
    * 認可ルール：
    *  - USER：自分のレビューのみ削除可能
    *  - ADMIN：将来の運用を見据えて、全レビューを削除可能（※不要ならここで弾く）
+   * 認可条件（スポット・投稿者 / ADMIN）は UPDATE 文に含めて1回で判定・削除する。
+   * 削除件数が 0 の場合だけ、404 / 403 のどちらかを判定するためにレビューを引き直す。
    *
    * @param spotId   スポットID（URLパス）
    * @param reviewId レビューID（URLパス）
@@ -103,36 +174,57 @@ public class ReviewService {
   @Transactional
   public void deleteReview(Long spotId, Long reviewId, Long userId, String role) {
 
+    boolean isAdmin = "ADMIN".equals(role);
+
+    int deleted = reviewMapper.softDeleteReview(spotId, reviewId, userId, isAdmin);
+    if (deleted == 0) {
+      throw rejectReviewWrite(spotId, reviewId, userId, isAdmin, "delete");
+    }
+
+    // 削除したレビュー1件分をレビュー集計から差し引く（論理削除のため値は残っている）
+    reviewMapper.applyReviewToSpotStats(reviewId, -1);
+    reviewMapper.refreshSpotReviewStats(spotId);
+    reviewListCache.evict(spotId);
+    AfterCommit.run(spotCatalogIndex::refreshWithNewVersion);
+  }
+
+
+  /**
+   * 編集・削除の対象が0件だった理由を調べ、返すべき例外を作る（認可条件付きの更新が0件の場合だけ呼ぶ）。
+   *  - 存在しない / 論理削除済み / URL の spotId と一致しない（スポット跨ぎ）：404
+   *  - 他人のレビュー（ADMIN 以外）：403
+   *  - それ以外（念のため。引き直すまでの間に状態が変わった場合など）：404
+   *
+   * @param spotId   スポットID（URLパス）
+   * @param reviewId レビューID（URLパス）
+   * @param userId   ログインユーザーID
+   * @param isAdmin  ADMIN かどうか
+   * @param action   操作名（edit / delete。メッセージ用）
+   * @return 404 または 403 の例外
+   */
+  private ResponseStatusException rejectReviewWrite(
+      Long spotId, Long reviewId, Long userId, boolean isAdmin, String action) {
     ReviewAuthInfoDto authInfo = reviewMapper.selectReviewAuthInfo(reviewId);
 
-    // 存在しない / 論理削除済みは 404
     if (authInfo == null || authInfo.getIsDeleted() == 1) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found: id=" + reviewId);
+      return new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found: id=" + reviewId);
     }
 
-    // URL の spotId と DB の spotId が一致しない場合も 404（スポット跨ぎを防止）
     if (!authInfo.getSpotId().equals(spotId)) {
-      throw new ResponseStatusException(
+      return new ResponseStatusException(
           HttpStatus.NOT_FOUND,
           "Review not found for spotId=" + spotId + ", reviewId=" + reviewId
       );
     }
 
-    // 自分のレビュー以外を削除しようとしたら 403（ただし ADMIN は許可）
-    boolean isAdmin = "ADMIN".equals(role);
     if (!isAdmin && !authInfo.getUserId().equals(userId)) {
-      throw new ResponseStatusException(
+      return new ResponseStatusException(
           HttpStatus.FORBIDDEN,
-          "Access denied: cannot delete others' review. reviewId=" + reviewId
+          "Access denied: cannot " + action + " others' review. reviewId=" + reviewId
       );
     }
 
-    int deleted = reviewMapper.softDeleteReview(spotId, reviewId);
-
-    // 念のため、削除対象が消えていた場合（並行更新など）は 404
-    if (deleted == 0) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found: id=" + reviewId);
-    }
+    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found: id=" + reviewId);
   }
 
 }
@@ -0,0 +1,903 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.dto.CategoryDto;
+import com.famigo.backend.dto.FacetCountDto;
+import com.famigo.backend.dto.SpotCatalogRow;
+import com.famigo.backend.dto.SpotClusterDto;
+import com.famigo.backend.dto.SpotFacetsDto;
+import com.famigo.backend.dto.SpotListItemDto;
+import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.enums.AgeGroup;
+import com.famigo.backend.enums.FacilityType;
+import com.famigo.backend.enums.PriceType;
+import com.famigo.backend.enums.SpotSortType;
+import com.famigo.backend.mapper.CategoryMapper;
+import com.famigo.backend.mapper.SpotMapper;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * スポットカタログの常駐索引（インメモリ）。
+ * カテゴリ・予算・対象年齢・設備ごとに「該当スポットの位置」を BitSet で保持し、
+ * 検索条件（SpotSearchCondition）を BitSet の AND / OR だけで評価する。
+ * キーワード条件は n-gram の転置索引（SpotKeywordIndex）で評価し、関連度順の並べ替えにも使う。
+ * 【方針】
+ * - 位置（BitSet のインデックス）はスポットID昇順に採番するため、検索結果は常に ID 昇順になる
+ * - 評価順などの並び順は、並び替えのキーの順に並べた位置の配列を索引の更新時に作っておき、
+ *   検索時は一致集合を配列の順にたどるだけにする（リクエストごとに並べ替えない）
+ * - spots / spot_facilities の updated_at を基準に、変更のあったスポットだけを定期的に取り込む
+ *   （updated_at はコミット時刻ではなく文の実行時刻のため、取り込み済みの日時より一定の幅だけ遡って読み直す）
+ * - categories は updated_at を持たないため、差分取り込みのたびに全件（数件）読んで比べ、変わっていれば全件再構築する
+ * - カタログ版数は内容（スポット・カテゴリ）が変わった場合だけ増やす（内容が同じ再構築では増やさない）
+ * - 集計値（レビュー件数・評価の平均・お気に入り数）は頻繁に変わるため版数の対象にしない。
+ *   並び順だけ並べ直して索引を差し替え、一覧の DTO には withCurrentStats で現在の値を重ねる
+ * - 索引の差し替えはスナップショット単位（読み取り側はロック不要）
+ * - 索引が未構築の場合（起動直後のDB障害など）は empty を返し、Service 側で Mapper（SQL）にフォールバックする。
+ *   SQL で代替できない検索（関連度順・ファセット・クラスタ）は awaitBuilt で1回だけ構築して共有する
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpotCatalogIndex {
+
+  // 差分取り込みの基準日時の初期値（スポットが1件もない場合）
+  private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+  // 並び替えのキー（sortKey）の降順に並べる並び順（ID 順・関連度順以外）
+  static final Set<SpotSortType> KEY_SORTS = EnumSet.of(
+      SpotSortType.RATING, SpotSortType.REVIEWS, SpotSortType.FAVORITES, SpotSortType.NEWEST);
+
+  // 差分取り込みで遡って読み直す幅（秒）の既定値
+  static final long DEFAULT_WATERMARK_MARGIN_SECONDS = 60;
+
+  // 索引が未構築の場合に、リクエストから全件構築を再び試みるまでの間隔（ミリ秒）の既定値
+  static final long DEFAULT_ON_DEMAND_RETRY_MS = 5000;
+
+  private final SpotMapper spotMapper;
+  private final CategoryMapper categoryMapper;
+
+  // 差分取り込みで、取り込み済みの最終更新日時より遡って読み直す幅（秒）。
+  // 日時の記録後、取り込みより遅れてコミットされた変更を拾うため、最も長い書き込みトランザクションの時間以上にする
+  // （読み直した変更のない行は apply で除かれる）
+  @Value("${famigo.catalog.index.watermark-margin-seconds:" + DEFAULT_WATERMARK_MARGIN_SECONDS + "}")
+  private long watermarkMarginSeconds = DEFAULT_WATERMARK_MARGIN_SECONDS;
+
+  // 索引が未構築の場合に、リクエストからの全件構築が失敗してから再び試みるまでの間隔（ミリ秒）。
+  // DB障害中に、リクエストのたびに全件読み込みを繰り返さないため
+  @Value("${famigo.catalog.index.on-demand-retry-ms:" + DEFAULT_ON_DEMAND_RETRY_MS + "}")
+  private long onDemandRetryMs = DEFAULT_ON_DEMAND_RETRY_MS;
+
+  // リクエストから最後に全件構築を試みた時刻（System.nanoTime。0 は未実施。書き込みは synchronized 内のみ）
+  private long lastOnDemandBuildNanos;
+
+  // 現在の索引（null は未構築）
+  private volatile Snapshot snapshot;
+
+  // カタログ版数（内容の変わった索引に差し替えるたびに増える。検索結果キャッシュのキーなどに使う）
+  private volatile long version;
+
+  /**
+   * 起動完了時に索引を全件構築する（失敗しても起動は止めず、定期実行で再試行する）。
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    rebuild();
+  }
+
+  /**
+   * 前回取り込み以降に更新されたスポットだけを索引へ反映する（定期実行）。
+   */
+  @Scheduled(
+      initialDelayString = "${famigo.catalog.index.refresh-interval-ms:30000}",
+      fixedDelayString = "${famigo.catalog.index.refresh-interval-ms:30000}"
+  )
+  public synchronized void refresh() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      rebuild();
+      return;
+    }
+
+    try {
+      if (!categoryNames().equals(current.categoryNames)) {
+        // カテゴリの追加・名称変更 → 全件再構築（カテゴリ名は全スポットの行データに含まれるため）
+        rebuild();
+        return;
+      }
+
+      List<SpotCatalogRow> changed =
+          spotMapper.findCatalogRowsUpdatedSince(current.watermark.minusSeconds(watermarkMarginSeconds));
+      Snapshot next = current.apply(changed);
+
+      if (next == null) {
+        // 既存IDより小さいIDのスポットが追加された（ID昇順の採番を保てない）→ 全件再構築
+        rebuild();
+        return;
+      }
+
+      if (next == current) {
+        return;
+      }
+      if (next.sameContent(current)) {
+        // 集計値または取り込み済みの最終更新日時だけが変わった（内容は同じ）→ 版数は変えない
+        snapshot = next;
+        return;
+      }
+
+      publish(next);
+      log.info("Spot catalog index refreshed: changedRows={}, liveSpots={}",
+          changed.size(), next.liveCount());
+    } catch (RuntimeException e) {
+      log.warn("Spot catalog index refresh failed (keeping current index): {}", e.getMessage());
+    }
+  }
+
+  /**
+   * 索引を全件構築し直す（起動時・定期実行。updated_at を更新しない直接のDB修正などの取りこぼし対策）。
+   * 失敗した場合は現在の索引を使い続ける。
+   */
+  @Scheduled(
+      initialDelayString = "${famigo.catalog.index.rebuild-interval-ms:3600000}",
+      fixedDelayString = "${famigo.catalog.index.rebuild-interval-ms:3600000}"
+  )
+  public synchronized void rebuild() {
+    try {
+      Snapshot built = Snapshot.build(spotMapper.findCatalogRowsUpdatedSince(null));
+      built.categoryNames = categoryNames();
+
+      Snapshot current = snapshot;
+      if (current != null && built.sameContent(current)) {
+        // 内容が同じ → 索引だけ差し替え（論理削除済みの位置を詰める）、版数は変えない（ETag・検索結果キャッシュを保つ）
+        snapshot = built;
+        log.debug("Spot catalog index rebuilt without changes: liveSpots={}", built.liveCount());
+        return;
+      }
+
+      publish(built);
+      log.info("Spot catalog index built: liveSpots={}", built.liveCount());
+    } catch (RuntimeException e) {
+      log.warn("Spot catalog index build failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * 差分を取り込み、集計値だけの変更でもカタログ版数を増やす（レビューの書き込みのコミット後に呼ぶ）。
+   * スポット詳細のレビュー集計（reviewStats）は DB から直接読むため、版数（ETag）を変えないと
+   * 次の定期の差分取り込みまで、再取得が 304 になり古い件数・平均が表示される。
+   */
+  public synchronized void refreshWithNewVersion() {
+    refresh();
+    if (snapshot != null) {
+      version++;
+    }
+  }
+
+  private void publish(Snapshot next) {
+    snapshot = next;
+    version++;   // 書き込みは synchronized メソッド内のみ
+  }
+
+  // カテゴリID → カテゴリ名（ID昇順）
+  private Map<Long, String> categoryNames() {
+    Map<Long, String> names = new LinkedHashMap<>();
+    for (CategoryDto category : categoryMapper.selectAll()) {
+      names.put(category.getId(), category.getName());
+    }
+    return names;
+  }
+
+  /**
+   * @return カタログ版数（スポット・設備・カテゴリの変更を取り込むたびに増える。集計値だけの変更では増えない。未構築の間は 0）
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return 索引が構築済みで検索に使える場合は true
+   */
+  public boolean isAvailable() {
+    return snapshot != null;
+  }
+
+  /**
+   * 索引が未構築の場合に、全件構築を1回だけ行って完了を待つ（SQL で代替できない検索から呼ぶ）。
+   * 同時に呼ばれた場合や定期実行の構築中は、その構築の完了を待って結果を共有する（リクエストごとに全件を読まない）。
+   * 構築に失敗した場合は、on-demand-retry-ms の間は構築を試みずに false を返す。
+   *
+   * @return 索引が使える場合は true
+   */
+  public boolean awaitBuilt() {
+    if (snapshot != null) {
+      return true;
+    }
+    synchronized (this) {
+      long now = System.nanoTime();
+      if (snapshot == null && (lastOnDemandBuildNanos == 0
+          || now - lastOnDemandBuildNanos >= onDemandRetryMs * 1_000_000)) {
+        lastOnDemandBuildNanos = now;
+        rebuild();
+      }
+      return snapshot != null;
+    }
+  }
+
+  /**
+   * 一覧表示用DTOの集計値（レビュー件数・評価の平均・お気に入り数）が現在の索引と異なる場合に、
+   * 現在の値にしたコピーを返す（集計値の変更では版数が変わらないため、版数ごとの検索結果キャッシュの DTO は古い値を持ちうる）。
+   *
+   * @param item 一覧表示用DTO（書き換えない）
+   * @return 現在の集計値にしたコピー（値が同じ場合・索引にないスポット・索引が未構築の場合は empty）
+   */
+  public Optional<SpotListItemDto> withCurrentStats(SpotListItemDto item) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return Optional.empty();
+    }
+    Integer pos = current.positions.get(item.getId());
+    SpotListItemDto latest = (pos == null) ? null : current.items[pos];
+    if (latest == null || latest == item || sameStats(latest, item)) {
+      return Optional.empty();
+    }
+
+    SpotListItemDto copied = new SpotListItemDto();
+    BeanUtils.copyProperties(item, copied);
+    copied.setReviewCount(latest.getReviewCount());
+    copied.setRatingAverage(latest.getRatingAverage());
+    copied.setFavoriteCount(latest.getFavoriteCount());
+    return Optional.of(copied);
+  }
+
+  private static boolean sameStats(SpotListItemDto a, SpotListItemDto b) {
+    return Objects.equals(a.getReviewCount(), b.getReviewCount())
+        && Objects.equals(a.getRatingAverage(), b.getRatingAverage())
+        && Objects.equals(a.getFavoriteCount(), b.getFavoriteCount());
+  }
+
+  /**
+   * 検索条件に一致するスポットを ID 昇順で返す。
+   * 返却する DTO は索引内で共有しているため、呼び出し側で書き換えないこと。
+   *
+   * @param condition 検索条件（null項目は条件なしとして扱う）
+   * @param afterId   このIDより後ろ（大きいID）だけを返す（null の場合は先頭から）
+   * @param limit     最大件数
+   * @return 一致したスポット一覧（索引が未構築の場合は empty）
+   */
+  public Optional<List<SpotListItemDto>> search(SpotSearchCondition condition, Long afterId, int limit) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.collect(current.match(condition), afterId, limit));
+  }
+
+  /**
+   * 検索条件に一致するスポットを、キーワードの関連度が高い順（同点は ID 昇順）に全件返す。
+   * 返却する DTO は索引内で共有しているため、呼び出し側で書き換えないこと。
+   *
+   * @param condition 検索条件（キーワード指定あり）
+   * @return 関連度付きのスポット一覧（索引が未構築の場合は empty）
+   */
+  public Optional<List<RankedSpot>> rank(SpotSearchCondition condition) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.rank(condition));
+  }
+
+  /**
+   * 検索条件に一致するスポットを、検索条件の並び順（KEY_SORTS のいずれか）で全件返す。
+   * 並び替えのキーの降順で、同点は ID 昇順（SpotMapper の ORDER BY と同じ並び）。
+   * 返却する DTO は索引内で共有しているため、呼び出し側で書き換えないこと。
+   *
+   * @param condition 検索条件（並び順は KEY_SORTS のいずれか）
+   * @return 並び替えのキー付きのスポット一覧（索引が未構築の場合は empty）
+   */
+  public Optional<List<RankedSpot>> sorted(SpotSearchCondition condition) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.sorted(condition));
+  }
+
+  /**
+   * 並び替えのキー（大きいほど先頭）。
+   * - RATING    : 総合評価の平均（同じ評価はレビュー件数の多い順）
+   * - REVIEWS   : レビュー件数
+   * - FAVORITES : お気に入り数
+   * - NEWEST    : 登録日時
+   *
+   * @param row  行データ
+   * @param sort 並び順（KEY_SORTS のいずれか。それ以外は 0）
+   * @return 並び替えのキー
+   */
+  static double sortKey(SpotCatalogRow row, SpotSortType sort) {
+    return switch (sort) {
+      // 評価（小数第2位まで）とレビュー件数を1つの値にまとめる（double で誤差なく表せる範囲）
+      case RATING -> Math.round(orZero(row.getRatingAverage()) * 100) * 1_000_000_000L
+          + Math.min(orZero(row.getReviewCount()), 999_999_999);
+      case REVIEWS -> orZero(row.getReviewCount());
+      case FAVORITES -> orZero(row.getFavoriteCount());
+      case NEWEST -> (row.getCreatedAt() == null) ? 0 : row.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+      case ID, RELEVANCE -> 0;
+    };
+  }
+
+  private static double orZero(Double value) {
+    return (value == null) ? 0 : value;
+  }
+
+  private static int orZero(Integer value) {
+    return (value == null) ? 0 : value;
+  }
+
+  /**
+   * 検索条件に対する絞り込み候補ごとの件数（ファセット）を返す。
+   *
+   * @param condition 検索条件（null項目は条件なしとして扱う）
+   * @return 件数（索引が未構築の場合は empty）
+   */
+  public Optional<SpotFacetsDto> facets(SpotSearchCondition condition) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.facets(condition));
+  }
+
+  /**
+   * 地図の表示範囲に重なるグリッドセルごとのクラスタ（件数・重心・代表スポット）を返す。
+   *
+   * @param minLat 表示範囲の南端の緯度
+   * @param minLng 表示範囲の西端の経度
+   * @param maxLat 表示範囲の北端の緯度
+   * @param maxLng 表示範囲の東端の経度
+   * @param zoom   地図のズームレベル
+   * @return クラスタ一覧（索引が未構築の場合は empty）
+   */
+  public Optional<List<SpotClusterDto>> clusters(
+      double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.clusters.clusters(minLat, minLng, maxLat, maxLng, zoom));
+  }
+
+  private static boolean hasKeyword(SpotSearchCondition condition) {
+    return condition.getKeyword() != null && !condition.getKeyword().isEmpty();
+  }
+
+  /**
+   * 関連度付きの検索結果1件。
+   */
+  @Getter
+  @RequiredArgsConstructor
+  public static final class RankedSpot {
+
+    private final SpotListItemDto item;   // 一覧表示用DTO
+
+    private final double score;           // キーワードの関連度（BM25F）、または並び替えのキー（sortKey）
+  }
+
+  /**
+   * ある時点の索引。公開後は変更しない（差分取り込み時はコピーを作って差し替える）。
+   */
+  static final class Snapshot {
+
+    private SpotCatalogRow[] rows;            // 位置 → 行データ（論理削除済みも位置は保持）
+    private SpotListItemDto[] items;          // 位置 → 一覧表示用DTO（論理削除済みは null）
+    private long[] ids;                       // 位置 → スポットID（昇順）
+    private int size;                         // 採番済みの位置の数
+
+    private final Map<Long, Integer> positions;          // スポットID → 位置
+    private final BitSet alive;                          // 論理削除されていないスポット
+    private final Map<Long, BitSet> byCategory;          // カテゴリID → スポット
+    private final Map<String, BitSet> byPriceType;       // 予算区分（DB保存値） → スポット
+    private final Map<String, BitSet> byTargetAge;       // 対象年齢（DB保存値） → スポット
+    private final Map<FacilityType, BitSet> byFacility;  // 設備 → スポット
+    private SpotKeywordIndex keywords;                   // キーワード検索用の転置索引
+    private SpotClusterIndex clusters;                   // 地図のマーカー集約用のグリッド索引
+    private Map<SpotSortType, int[]> orders;             // 並び順 → 並べた位置（論理削除済みの位置も含む）
+
+    private LocalDateTime watermark;          // 取り込み済みの最終更新日時
+    private Map<Long, String> categoryNames;  // 取り込み済みのカテゴリ（カテゴリID → カテゴリ名）
+
+    private Snapshot(int capacity) {
+      this.rows = new SpotCatalogRow[capacity];
+      this.items = new SpotListItemDto[capacity];
+      this.ids = new long[capacity];
+      this.positions = new HashMap<>();
+      this.alive = new BitSet();
+      this.byCategory = new HashMap<>();
+      this.byPriceType = new HashMap<>();
+      this.byTargetAge = new HashMap<>();
+      this.byFacility = new EnumMap<>(FacilityType.class);
+      for (FacilityType type : FacilityType.values()) {
+        byFacility.put(type, new BitSet());
+      }
+      this.keywords = SpotKeywordIndex.EMPTY;
+      this.clusters = SpotClusterIndex.EMPTY;
+      this.orders = new EnumMap<>(SpotSortType.class);
+      this.watermark = EPOCH;
+      this.categoryNames = Map.of();
+    }
+
+    /**
+     * 全件の行データから索引を構築する。
+     *
+     * @param rows 論理削除されていないスポット（ID昇順）
+     * @return 索引
+     */
+    static Snapshot build(List<SpotCatalogRow> rows) {
+      Snapshot built = new Snapshot(Math.max(rows.size(), 16));
+      for (SpotCatalogRow row : rows) {
+        built.append(row);
+      }
+      built.keywords = SpotKeywordIndex.build(built.rows, built.size, built.alive);
+      built.clusters = SpotClusterIndex.build(built.rows, built.size, built.alive);
+      built.orders = sortOrders(built.rows, built.size);
+      built.watermark = maxUpdatedAt(rows, EPOCH);
+      return built;
+    }
+
+    /**
+     * 差分（更新されたスポット）を反映した新しい索引を返す。
+     *
+     * @param changed 更新されたスポット（論理削除済みを含む。ID昇順）
+     * @return 新しい索引（変更がなければ this。ID昇順の採番を保てない場合は null）
+     */
+    Snapshot apply(List<SpotCatalogRow> changed) {
+      LocalDateTime nextWatermark = maxUpdatedAt(changed, watermark);
+
+      List<SpotCatalogRow> effective = new ArrayList<>();
+      List<SpotCatalogRow> statsChanged = new ArrayList<>();
+      for (SpotCatalogRow row : changed) {
+        Integer pos = positions.get(row.getId());
+        boolean deleted = Boolean.TRUE.equals(row.getIsDeleted());
+        if (pos == null ? !deleted : !row.equals(rows[pos])) {
+          effective.add(row);
+        } else if (pos != null && !deleted && !sameStats(row, rows[pos])) {
+          statsChanged.add(row);
+        }
+      }
+
+      if (effective.isEmpty() && statsChanged.isEmpty()) {
+        return nextWatermark.equals(watermark) ? this : withWatermark(nextWatermark);
+      }
+
+      Snapshot next = copy();
+      // 集計値だけの変更：行データと DTO を差し替える（絞り込み・キーワード・クラスタの索引は変わらない）
+      for (SpotCatalogRow row : statsChanged) {
+        int pos = next.positions.get(row.getId());
+        next.rows[pos] = row;
+        next.items[pos] = toItem(row);
+      }
+
+      Map<Integer, SpotCatalogRow> rowChanges = new HashMap<>();
+      for (SpotCatalogRow row : effective) {
+        Integer pos = next.positions.get(row.getId());
+
+        if (pos == null) {
+          if (next.size > 0 && row.getId() < next.ids[next.size - 1]) {
+            return null;
+          }
+          next.append(row);
+          rowChanges.put(next.size - 1, row);
+          continue;
+        }
+
+        next.unindex(pos);
+        if (Boolean.TRUE.equals(row.getIsDeleted())) {
+          next.rows[pos] = row;
+          rowChanges.put(pos, null);
+        } else {
+          next.index(pos, row);
+          rowChanges.put(pos, row);
+        }
+      }
+      if (!rowChanges.isEmpty()) {
+        next.keywords = keywords.update(rowChanges, next.size);
+        next.clusters = clusters.update(rowChanges, next.size);
+      }
+      next.orders = sortOrders(next.rows, next.size);
+      next.watermark = nextWatermark;
+      return next;
+    }
+
+    /**
+     * 検索条件に一致する位置の集合を求める（キーワード条件は評価しない）。
+     */
+    BitSet match(SpotSearchCondition condition) {
+      return match(condition, keywordQuery(condition));
+    }
+
+    private BitSet match(SpotSearchCondition condition, SpotKeywordIndex.Query query) {
+      BitSet result = intersect(categoryFilter(condition), priceFilter(condition),
+          ageFilter(condition), facilityFilter(condition));
+
+      // キーワードは他の条件で絞り込んだ後に評価する（部分一致の確認対象を減らすため）
+      if (query != null) {
+        return keywords.match(query, result);
+      }
+
+      return result;
+    }
+
+    // キーワード条件（指定なしは null）。一致判定と関連度の計算で同じものを使う
+    private static SpotKeywordIndex.Query keywordQuery(SpotSearchCondition condition) {
+      return hasKeyword(condition) ? SpotKeywordIndex.Query.of(condition.getKeyword()) : null;
+    }
+
+    /**
+     * 絞り込み候補ごとの件数を求める。
+     * カテゴリ・予算・対象年齢は同じ項目内が OR のため、その項目自身の条件を除いて数える
+     * （選択済みの候補以外を追加で選んだ場合の件数になる）。
+     * 設備はすべてを満たす条件（AND）のため、現在の一致集合にその設備を加えた件数を数える。
+     */
+    SpotFacetsDto facets(SpotSearchCondition condition) {
+      // 条件ごとの集合（未指定は null＝絞り込みなし）。キーワードは一度だけ評価する
+      BitSet keyword = hasKeyword(condition) ? keywords.match(condition.getKeyword(), alive) : null;
+      BitSet category = categoryFilter(condition);
+      BitSet price = priceFilter(condition);
+      BitSet age = ageFilter(condition);
+      BitSet facility = facilityFilter(condition);
+
+      BitSet matched = intersect(keyword, category, price, age, facility);
+
+      BitSet exceptCategory = intersect(keyword, price, age, facility);
+      List<FacetCountDto> categories = new ArrayList<>();
+      new TreeMap<>(byCategory).forEach((categoryId, bits) -> {
+        int first = bits.nextSetBit(0);
+        if (first >= 0) {
+          categories.add(new FacetCountDto(
+              categoryId.toString(), rows[first].getCategoryName(), countAnd(exceptCategory, bits)));
+        }
+      });
+
+      BitSet exceptPrice = intersect(keyword, category, age, facility);
+      List<FacetCountDto> prices = new ArrayList<>();
+      for (PriceType type : PriceType.values()) {
+        prices.add(new FacetCountDto(
+            type.name(), type.getValue(), countAnd(exceptPrice, byPriceType.get(type.getValue()))));
+      }
+
+      BitSet exceptAge = intersect(keyword, category, price, facility);
+      List<FacetCountDto> ages = new ArrayList<>();
+      for (AgeGroup group : AgeGroup.values()) {
+        ages.add(new FacetCountDto(
+            group.name(), group.getValue(), countAnd(exceptAge, byTargetAge.get(group.getValue()))));
+      }
+
+      List<FacetCountDto> facilities = new ArrayList<>();
+      for (FacilityType type : FacilityType.values()) {
+        facilities.add(new FacetCountDto(
+            type.getCode(), type.getLabel(), countAnd(matched, byFacility.get(type))));
+      }
+
+      return new SpotFacetsDto(matched.cardinality(), categories, prices, ages, facilities);
+    }
+
+    private BitSet categoryFilter(SpotSearchCondition condition) {
+      return isNotEmpty(condition.getCategoryIds()) ? union(byCategory, condition.getCategoryIds()) : null;
+    }
+
+    private BitSet priceFilter(SpotSearchCondition condition) {
+      return isNotEmpty(condition.getPrice())
+          ? union(byPriceType, condition.getPrice().stream().map(PriceType::getValue).toList())
+          : null;
+    }
+
+    private BitSet ageFilter(SpotSearchCondition condition) {
+      return isNotEmpty(condition.getAge())
+          ? union(byTargetAge, condition.getAge().stream().map(AgeGroup::getValue).toList())
+          : null;
+    }
+
+    // 設備は選択されたものすべてを満たす（AND）。未知の値は無視する（すべて未知なら条件なし）
+    private BitSet facilityFilter(SpotSearchCondition condition) {
+      if (!isNotEmpty(condition.getFacilities())) {
+        return null;
+      }
+      BitSet result = null;
+      for (String code : condition.getFacilities()) {
+        Optional<FacilityType> type = FacilityType.fromCode(code);
+        if (type.isEmpty()) {
+          continue;
+        }
+        if (result == null) {
+          result = (BitSet) byFacility.get(type.get()).clone();
+        } else {
+          result.and(byFacility.get(type.get()));
+        }
+      }
+      return result;
+    }
+
+    // 論理削除されていないスポットに、指定された集合（null は絞り込みなし）をすべて AND する
+    private BitSet intersect(BitSet... filters) {
+      BitSet result = (BitSet) alive.clone();
+      for (BitSet filter : filters) {
+        if (filter != null) {
+          result.and(filter);
+        }
+      }
+      return result;
+    }
+
+    /**
+     * 検索条件に一致するスポットを関連度順（同点は ID 昇順）に並べる。
+     */
+    List<RankedSpot> rank(SpotSearchCondition condition) {
+      SpotKeywordIndex.Query query = keywordQuery(condition);
+      BitSet matched = match(condition, query);
+
+      List<RankedSpot> result = new ArrayList<>();
+      for (int pos = matched.nextSetBit(0); pos >= 0; pos = matched.nextSetBit(pos + 1)) {
+        double score = (query == null) ? 0 : keywords.score(query, pos);
+        result.add(new RankedSpot(items[pos], score));
+      }
+      // 位置は ID 昇順のため、安定ソートで同点は ID 昇順のまま残る
+      result.sort(Comparator.comparingDouble(RankedSpot::getScore).reversed());
+      return result;
+    }
+
+    /**
+     * 検索条件に一致するスポットを、並べておいた位置の順にたどって返す。
+     */
+    List<RankedSpot> sorted(SpotSearchCondition condition) {
+      BitSet matched = match(condition);
+      SpotSortType sort = condition.getSort();
+
+      List<RankedSpot> result = new ArrayList<>(matched.cardinality());
+      for (int pos : orders.get(sort)) {
+        if (matched.get(pos)) {
+          result.add(new RankedSpot(items[pos], sortKey(rows[pos], sort)));
+        }
+      }
+      return result;
+    }
+
+    /**
+     * 位置の集合を ID 昇順の DTO リストに変換する。
+     */
+    List<SpotListItemDto> collect(BitSet matched, Long afterId, int limit) {
+      int from = (afterId == null) ? 0 : firstPositionAfter(afterId);
+
+      List<SpotListItemDto> result = new ArrayList<>();
+      for (int pos = matched.nextSetBit(from); pos >= 0 && result.size() < limit;
+          pos = matched.nextSetBit(pos + 1)) {
+        result.add(items[pos]);
+      }
+      return result;
+    }
+
+    int liveCount() {
+      return alive.cardinality();
+    }
+
+    private void append(SpotCatalogRow row) {
+      if (size == ids.length) {
+        int capacity = size * 2;
+        rows = Arrays.copyOf(rows, capacity);
+        items = Arrays.copyOf(items, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+      }
+      int pos = size++;
+      ids[pos] = row.getId();
+      positions.put(row.getId(), pos);
+      index(pos, row);
+    }
+
+    private void index(int pos, SpotCatalogRow row) {
+      rows[pos] = row;
+      items[pos] = toItem(row);
+      alive.set(pos);
+
+      if (row.getCategoryId() != null) {
+        byCategory.computeIfAbsent(row.getCategoryId(), k -> new BitSet()).set(pos);
+      }
+      if (row.getPriceType() != null) {
+        byPriceType.computeIfAbsent(row.getPriceType(), k -> new BitSet()).set(pos);
+      }
+      if (row.getTargetAge() != null) {
+        byTargetAge.computeIfAbsent(row.getTargetAge(), k -> new BitSet()).set(pos);
+      }
+      for (FacilityType type : FacilityType.values()) {
+        if (Boolean.TRUE.equals(facilityFlag(row, type))) {
+          byFacility.get(type).set(pos);
+        }
+      }
+    }
+
+    private void unindex(int pos) {
+      SpotCatalogRow old = rows[pos];
+      items[pos] = null;
+      alive.clear(pos);
+
+      clear(byCategory, old.getCategoryId(), pos);
+      clear(byPriceType, old.getPriceType(), pos);
+      clear(byTargetAge, old.getTargetAge(), pos);
+      for (BitSet bits : byFacility.values()) {
+        bits.clear(pos);
+      }
+    }
+
+    private int firstPositionAfter(long afterId) {
+      int found = Arrays.binarySearch(ids, 0, size, afterId);
+      return (found >= 0) ? found + 1 : -(found + 1);
+    }
+
+    /**
+     * 検索結果に関わる内容（論理削除されていないスポットの行データ・カテゴリ）が同じか判定する。
+     * 位置の採番（論理削除済みの位置の有無）・集計値・取り込み済みの最終更新日時は比べない（SpotCatalogRow#equals）。
+     */
+    boolean sameContent(Snapshot other) {
+      if (!categoryNames.equals(other.categoryNames) || alive.cardinality() != other.alive.cardinality()) {
+        return false;
+      }
+      for (int a = alive.nextSetBit(0), b = other.alive.nextSetBit(0); a >= 0;
+          a = alive.nextSetBit(a + 1), b = other.alive.nextSetBit(b + 1)) {
+        if (!rows[a].equals(other.rows[b])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Snapshot copy() {
+      Snapshot copied = new Snapshot(ids.length);
+      copied.rows = Arrays.copyOf(rows, rows.length);
+      copied.items = Arrays.copyOf(items, items.length);
+      copied.ids = Arrays.copyOf(ids, ids.length);
+      copied.size = size;
+      copied.positions.putAll(positions);
+      copied.alive.or(alive);
+      byCategory.forEach((k, v) -> copied.byCategory.put(k, (BitSet) v.clone()));
+      byPriceType.forEach((k, v) -> copied.byPriceType.put(k, (BitSet) v.clone()));
+      byTargetAge.forEach((k, v) -> copied.byTargetAge.put(k, (BitSet) v.clone()));
+      byFacility.forEach((k, v) -> copied.byFacility.put(k, (BitSet) v.clone()));
+      copied.keywords = keywords;
+      copied.clusters = clusters;
+      copied.orders = orders;
+      copied.watermark = watermark;
+      copied.categoryNames = categoryNames;
+      return copied;
+    }
+
+    private Snapshot withWatermark(LocalDateTime nextWatermark) {
+      Snapshot copied = copy();
+      copied.watermark = nextWatermark;
+      return copied;
+    }
+
+    // 並び順ごとに、位置を並び替えのキーの降順に並べる（位置は ID 昇順のため、安定ソートで同点は ID 昇順）
+    private static Map<SpotSortType, int[]> sortOrders(SpotCatalogRow[] rows, int size) {
+      Map<SpotSortType, int[]> orders = new EnumMap<>(SpotSortType.class);
+      for (SpotSortType sort : KEY_SORTS) {
+        double[] keys = new double[size];
+        for (int pos = 0; pos < size; pos++) {
+          keys[pos] = sortKey(rows[pos], sort);
+        }
+        orders.put(sort, IntStream.range(0, size).boxed()
+            .sorted(Comparator.comparingDouble((Integer pos) -> keys[pos]).reversed())
+            .mapToInt(Integer::intValue)
+            .toArray());
+      }
+      return orders;
+    }
+
+    private static <K> BitSet union(Map<K, BitSet> index, Collection<K> keys) {
+      BitSet result = new BitSet();
+      for (K key : keys) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+          result.or(bits);
+        }
+      }
+      return result;
+    }
+
+    private static int countAnd(BitSet scope, BitSet bits) {
+      if (bits == null) {
+        return 0;
+      }
+      BitSet result = (BitSet) scope.clone();
+      result.and(bits);
+      return result.cardinality();
+    }
+
+    private static <K> void clear(Map<K, BitSet> index, K key, int pos) {
+      if (key == null) {
+        return;
+      }
+      BitSet bits = index.get(key);
+      if (bits != null) {
+        bits.clear(pos);
+      }
+    }
+
+    private static boolean isNotEmpty(Collection<?> values) {
+      return values != null && !values.isEmpty();
+    }
+
+    private static boolean sameStats(SpotCatalogRow a, SpotCatalogRow b) {
+      return Objects.equals(a.getReviewCount(), b.getReviewCount())
+          && Objects.equals(a.getRatingAverage(), b.getRatingAverage())
+          && Objects.equals(a.getFavoriteCount(), b.getFavoriteCount());
+    }
+
+    private static LocalDateTime maxUpdatedAt(List<SpotCatalogRow> rows, LocalDateTime initial) {
+      LocalDateTime max = initial;
+      for (SpotCatalogRow row : rows) {
+        if (row.getUpdatedAt() != null && row.getUpdatedAt().isAfter(max)) {
+          max = row.getUpdatedAt();
+        }
+      }
+      return max;
+    }
+
+    private static Boolean facilityFlag(SpotCatalogRow row, FacilityType type) {
+      return switch (type) {
+        case DIAPER -> row.getDiaperChanging();
+        case STROLLER -> row.getStrollerOk();
+        case PLAYGROUND -> row.getPlayground();
+        case ATHLETICS -> row.getAthletics();
+        case WATER -> row.getWaterPlay();
+        case INDOOR -> row.getIndoor();
+      };
+    }
+
+    private static SpotListItemDto toItem(SpotCatalogRow row) {
+      SpotListItemDto dto = new SpotListItemDto();
+      dto.setId(row.getId());
+      dto.setName(row.getName());
+      dto.setAddress(row.getAddress());
+      dto.setArea(row.getArea());
+      dto.setPriceType(row.getPriceType());
+      dto.setCategoryName(row.getCategoryName());
+      dto.setTargetAge(row.getTargetAge());
+      dto.setGoogleMapUrl(row.getGoogleMapUrl());
+      dto.setLatitude(row.getLatitude());
+      dto.setLongitude(row.getLongitude());
+      dto.setIsFavorite(false);
+      dto.setReviewCount(row.getReviewCount());
+      dto.setRatingAverage(row.getRatingAverage());
+      dto.setFavoriteCount(row.getFavoriteCount());
+      dto.setDiaperChanging(row.getDiaperChanging());
+      dto.setStrollerOk(row.getStrollerOk());
+      dto.setPlayground(row.getPlayground());
+      dto.setAthletics(row.getAthletics());
+      dto.setWaterPlay(row.getWaterPlay());
+      dto.setIndoor(row.getIndoor());
+      return dto;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.dto.SpotCatalogRow;
+import com.famigo.backend.dto.SpotClusterDto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 地図のマーカー集約（クラスタ）用のグリッド索引。SpotCatalogIndex のスナップショットごとに1つ持つ。
+ * 【方針】
+ * - ズームレベル 0〜MAX_ZOOM ごとに、Webメルカトルのタイル（256px）を 4×4 に分けたセル（約64px四方）で集計済みのクラスタを持つ
+ * - セルごとに「件数・重心・代表スポット（重心に最も近いスポット）」を保持し、地図の表示範囲のセルだけを返す
+ * - 緯度・経度が未設定のスポットは含めない
+ * - 公開後は変更しない。差分取り込みでは変更のあったスポットが属するセルだけを作り直し、それ以外は共有する
+ */
+final class SpotClusterIndex {
+
+  // 集計するズームレベルの上限（これより大きいズームはこのレベルのセルを返す）
+  static final int MAX_ZOOM = 18;
+
+  // 1タイルを 2^CELL_SHIFT × 2^CELL_SHIFT のセルに分ける（256px / 4 = 64px）
+  private static final int CELL_SHIFT = 2;
+
+  // Webメルカトルで表せる緯度の上限
+  private static final double MAX_LATITUDE = 85.05112878;
+
+  static final SpotClusterIndex EMPTY =
+      new SpotClusterIndex(new double[0], new double[0], new long[0], emptyLevels());
+
+  private final double[] lats;                   // 位置 → 緯度（座標なし・論理削除済み・未採番は NaN）
+  private final double[] lngs;                   // 位置 → 経度
+  private final long[] ids;                      // 位置 → スポットID
+  private final List<Map<Long, Cell>> levels;    // ズーム → セルキー → クラスタ
+
+  private SpotClusterIndex(double[] lats, double[] lngs, long[] ids, List<Map<Long, Cell>> levels) {
+    this.lats = lats;
+    this.lngs = lngs;
+    this.ids = ids;
+    this.levels = levels;
+  }
+
+  /**
+   * 位置ごとの行データから索引を構築する。
+   *
+   * @param rows  位置 → 行データ
+   * @param size  採番済みの位置の数
+   * @param alive 論理削除されていない位置
+   * @return 索引
+   */
+  static SpotClusterIndex build(SpotCatalogRow[] rows, int size, BitSet alive) {
+    Map<Integer, SpotCatalogRow> all = new HashMap<>();
+    for (int pos = alive.nextSetBit(0); pos >= 0 && pos < size; pos = alive.nextSetBit(pos + 1)) {
+      all.put(pos, rows[pos]);
+    }
+    return EMPTY.update(all, size);
+  }
+
+  /**
+   * 変更のあった位置だけを反映した新しい索引を返す。
+   *
+   * @param changes 位置 → 新しい行データ（論理削除された場合は null）
+   * @param size    採番済みの位置の数
+   * @return 新しい索引
+   */
+  SpotClusterIndex update(Map<Integer, SpotCatalogRow> changes, int size) {
+    int length = Math.max(lats.length, size);
+    double[] nextLats = Arrays.copyOf(lats, length);
+    double[] nextLngs = Arrays.copyOf(lngs, length);
+    long[] nextIds = Arrays.copyOf(ids, length);
+    Arrays.fill(nextLats, lats.length, length, Double.NaN);
+    Arrays.fill(nextLngs, lngs.length, length, Double.NaN);
+
+    // ズームごとに、作り直すセルと、そのセルに新しく入る位置
+    List<Map<Long, List<Integer>>> touched = new ArrayList<>();
+    for (int z = 0; z <= MAX_ZOOM; z++) {
+      touched.add(new HashMap<>());
+    }
+
+    for (Map.Entry<Integer, SpotCatalogRow> change : changes.entrySet()) {
+      int pos = change.getKey();
+      SpotCatalogRow row = change.getValue();
+
+      if (pos < lats.length && !Double.isNaN(lats[pos])) {
+        for (int z = 0; z <= MAX_ZOOM; z++) {
+          touched.get(z).computeIfAbsent(cellKey(z, lats[pos], lngs[pos]), k -> new ArrayList<>());
+        }
+      }
+
+      boolean located = row != null && row.getLatitude() != null && row.getLongitude() != null;
+      nextLats[pos] = located ? row.getLatitude() : Double.NaN;
+      nextLngs[pos] = located ? row.getLongitude() : Double.NaN;
+      nextIds[pos] = (row != null) ? row.getId() : 0;
+
+      if (located) {
+        for (int z = 0; z <= MAX_ZOOM; z++) {
+          touched.get(z).computeIfAbsent(cellKey(z, nextLats[pos], nextLngs[pos]), k -> new ArrayList<>())
+              .add(pos);
+        }
+      }
+    }
+
+    List<Map<Long, Cell>> nextLevels = new ArrayList<>();
+    for (int z = 0; z <= MAX_ZOOM; z++) {
+      Map<Long, Cell> cells = new HashMap<>(levels.get(z));
+      for (Map.Entry<Long, List<Integer>> entry : touched.get(z).entrySet()) {
+        // 変更のあった位置を除いた既存メンバー＋新しく入る位置でセルを作り直す
+        List<Integer> members = new ArrayList<>(entry.getValue());
+        Cell old = cells.get(entry.getKey());
+        if (old != null) {
+          for (int member : old.positions) {
+            if (!changes.containsKey(member)) {
+              members.add(member);
+            }
+          }
+        }
+        if (members.isEmpty()) {
+          cells.remove(entry.getKey());
+        } else {
+          cells.put(entry.getKey(), Cell.of(members, nextLats, nextLngs, nextIds));
+        }
+      }
+      nextLevels.add(cells);
+    }
+
+    return new SpotClusterIndex(nextLats, nextLngs, nextIds, nextLevels);
+  }
+
+  /**
+   * 表示範囲に重なるセルのクラスタを返す（セルの北西から順）。
+   *
+   * @param minLat 表示範囲の南端の緯度
+   * @param minLng 表示範囲の西端の経度
+   * @param maxLat 表示範囲の北端の緯度
+   * @param maxLng 表示範囲の東端の経度
+   * @param zoom   地図のズームレベル（MAX_ZOOM を超える場合は MAX_ZOOM）
+   * @return クラスタ一覧
+   */
+  List<SpotClusterDto> clusters(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+    int z = Math.max(0, Math.min(zoom, MAX_ZOOM));
+    Map<Long, Cell> cells = levels.get(z);
+
+    int x0 = cellX(z, minLng);
+    int x1 = cellX(z, maxLng);
+    int y0 = cellY(z, maxLat);   // 北ほど y が小さい
+    int y1 = cellY(z, minLat);
+
+    // 表示範囲のセル数とクラスタ数の少ない方を走査する（セル数は表示サイズ、クラスタ数はスポット数で上限が決まる）
+    Map<Long, Cell> hits = new TreeMap<>();
+    long range = (long) (x1 - x0 + 1) * (y1 - y0 + 1);
+    if (range <= cells.size()) {
+      for (int y = y0; y <= y1; y++) {
+        for (int x = x0; x <= x1; x++) {
+          Cell cell = cells.get(key(x, y));
+          if (cell != null) {
+            hits.put(key(y, x), cell);
+          }
+        }
+      }
+    } else {
+      cells.forEach((key, cell) -> {
+        int x = (int) (key >>> 32);
+        int y = (int) (long) key;
+        if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+          hits.put(key(y, x), cell);
+        }
+      });
+    }
+
+    List<SpotClusterDto> result = new ArrayList<>(hits.size());
+    for (Cell cell : hits.values()) {
+      result.add(new SpotClusterDto(cell.positions.length, cell.latitude, cell.longitude, cell.representativeId));
+    }
+    return result;
+  }
+
+  private static List<Map<Long, Cell>> emptyLevels() {
+    List<Map<Long, Cell>> levels = new ArrayList<>();
+    for (int z = 0; z <= MAX_ZOOM; z++) {
+      levels.add(new HashMap<>());
+    }
+    return levels;
+  }
+
+  private static long cellKey(int zoom, double lat, double lng) {
+    return key(cellX(zoom, lng), cellY(zoom, lat));
+  }
+
+  private static long key(int high, int low) {
+    return ((long) high << 32) | (low & 0xffffffffL);
+  }
+
+  private static int cellX(int zoom, double lng) {
+    int cells = 1 << (zoom + CELL_SHIFT);
+    int x = (int) Math.floor((lng + 180) / 360 * cells);
+    return Math.max(0, Math.min(x, cells - 1));
+  }
+
+  private static int cellY(int zoom, double lat) {
+    int cells = 1 << (zoom + CELL_SHIFT);
+    double phi = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(lat, MAX_LATITUDE)));
+    double y = (1 - Math.log(Math.tan(phi) + 1 / Math.cos(phi)) / Math.PI) / 2;
+    return Math.max(0, Math.min((int) Math.floor(y * cells), cells - 1));
+  }
+
+  /**
+   * セル1つ分のクラスタ（変更しない）。
+   */
+  private static final class Cell {
+
+    private final int[] positions;          // メンバーの位置（昇順）
+    private final double latitude;          // 重心の緯度
+    private final double longitude;         // 重心の経度
+    private final long representativeId;    // 重心に最も近いスポットのID（同じ距離は ID の小さい方）
+
+    private Cell(int[] positions, double latitude, double longitude, long representativeId) {
+      this.positions = positions;
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.representativeId = representativeId;
+    }
+
+    static Cell of(List<Integer> members, double[] lats, double[] lngs, long[] ids) {
+      int[] positions = members.stream().mapToInt(Integer::intValue).sorted().toArray();
+
+      double sumLat = 0;
+      double sumLng = 0;
+      for (int pos : positions) {
+        sumLat += lats[pos];
+        sumLng += lngs[pos];
+      }
+      double lat = sumLat / positions.length;
+      double lng = sumLng / positions.length;
+
+      // 経度方向の距離は緯度によって縮むため、cos(緯度) を掛けて比べる
+      double scale = Math.cos(Math.toRadians(lat));
+      int nearest = positions[0];
+      double best = Double.MAX_VALUE;
+      for (int pos : positions) {
+        double dLat = lats[pos] - lat;
+        double dLng = (lngs[pos] - lng) * scale;
+        double distance = dLat * dLat + dLng * dLng;
+        if (distance < best) {
+          best = distance;
+          nearest = pos;
+        }
+      }
+      return new Cell(positions, lat, lng, ids[nearest]);
+    }
+  }
+}
@@ -0,0 +1,473 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.dto.SpotCatalogRow;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * スポットのキーワード検索用の転置索引（2文字 n-gram）。SpotCatalogIndex のスナップショットごとに1つ持つ。
+ * 【方針】
+ * - name / address / area / notes を正規化し、2文字ずつ（bi-gram）に分割して索引化する
+ * - 正規化は DB の照合順序（utf8mb4_0900_ai_ci）の比較に合わせる
+ *   （NFKC・小文字化に加えて、アクセント・濁点・半濁点を除き、カタカナ→ひらがな、小書きの仮名→通常の仮名にそろえる）
+ * - ポスティングリストは「位置（SpotCatalogIndex の BitSet と同じ番号）の昇順配列＋フィールド別出現回数」を int 配列で持つ
+ * - 一致判定は従来の LIKE と同じく name / address / area のいずれかへの部分一致（notes は関連度の計算だけに使う）
+ *   キーワード中の % / _ も LIKE と同じくワイルドカードとして扱う（\ の直後の文字はそのまま）
+ * - 関連度はフィールド別の重み付き BM25（BM25F）
+ * - 公開後は変更しない。差分取り込みでは変更のあった語のポスティングだけを作り直し、それ以外は共有する
+ */
+final class SpotKeywordIndex {
+
+  // フィールド番号（FIELD_WEIGHTS などの添字）
+  private static final int NAME = 0;
+  private static final int ADDRESS = 1;
+  private static final int AREA = 2;
+  private static final int NOTES = 3;
+  private static final int FIELDS = 4;
+
+  // 一致判定の対象フィールド（LIKE 検索と同じ name / address / area）
+  private static final int MATCH_FIELDS = 3;
+
+  // フィールド別の重み（スポット名 > エリア > 住所 > 備考）
+  private static final double[] FIELD_WEIGHTS = {3.0, 1.0, 2.0, 0.5};
+
+  // BM25 のパラメータ（一般的な既定値）
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  static final SpotKeywordIndex EMPTY =
+      new SpotKeywordIndex(new Doc[0], new HashMap<>(), new long[FIELDS], 0);
+
+  private final Doc[] docs;                       // 位置 → 正規化済みテキスト（論理削除済み・未採番は null）
+  private final Map<String, Postings> postings;   // bi-gram → ポスティングリスト
+  private final long[] totalLengths;              // フィールド別の bi-gram 数の合計（平均フィールド長の計算用）
+  private final int docCount;                     // 索引対象のスポット数
+
+  private SpotKeywordIndex(Doc[] docs, Map<String, Postings> postings, long[] totalLengths,
+      int docCount) {
+    this.docs = docs;
+    this.postings = postings;
+    this.totalLengths = totalLengths;
+    this.docCount = docCount;
+  }
+
+  /**
+   * 位置ごとの行データから索引を構築する。
+   *
+   * @param rows 位置 → 行データ
+   * @param size 採番済みの位置の数
+   * @param alive 論理削除されていない位置
+   * @return 索引
+   */
+  static SpotKeywordIndex build(SpotCatalogRow[] rows, int size, BitSet alive) {
+    Map<Integer, SpotCatalogRow> all = new HashMap<>();
+    for (int pos = alive.nextSetBit(0); pos >= 0 && pos < size; pos = alive.nextSetBit(pos + 1)) {
+      all.put(pos, rows[pos]);
+    }
+    return EMPTY.update(all, size);
+  }
+
+  /**
+   * 変更のあった位置だけを反映した新しい索引を返す。
+   *
+   * @param changes 位置 → 新しい行データ（論理削除された場合は null）
+   * @param size    採番済みの位置の数
+   * @return 新しい索引
+   */
+  SpotKeywordIndex update(Map<Integer, SpotCatalogRow> changes, int size) {
+    Doc[] nextDocs = Arrays.copyOf(docs, Math.max(docs.length, size));
+    long[] nextLengths = Arrays.copyOf(totalLengths, FIELDS);
+    int nextCount = docCount;
+
+    // 変更のあった位置の新しい出現回数（語 → 位置 → フィールド別出現回数）
+    Map<String, Map<Integer, int[]>> added = new HashMap<>();
+    Set<String> touched = new HashSet<>();
+
+    for (Map.Entry<Integer, SpotCatalogRow> change : changes.entrySet()) {
+      int pos = change.getKey();
+
+      Doc old = (pos < docs.length) ? docs[pos] : null;
+      if (old != null) {
+        touched.addAll(old.terms);
+        for (int f = 0; f < FIELDS; f++) {
+          nextLengths[f] -= old.lengths[f];
+        }
+        nextCount--;
+      }
+
+      Doc doc = (change.getValue() == null) ? null : Doc.of(change.getValue());
+      nextDocs[pos] = doc;
+      if (doc == null) {
+        continue;
+      }
+
+      for (int f = 0; f < FIELDS; f++) {
+        nextLengths[f] += doc.lengths[f];
+        for (String term : bigrams(doc.fields[f])) {
+          added.computeIfAbsent(term, k -> new HashMap<>())
+              .computeIfAbsent(pos, k -> new int[FIELDS])[f]++;
+        }
+      }
+      touched.addAll(doc.terms);
+      nextCount++;
+    }
+
+    Map<String, Postings> nextPostings = new HashMap<>(postings);
+    for (String term : touched) {
+      Postings merged = Postings.merge(postings.get(term), changes.keySet(), added.get(term));
+      if (merged == null) {
+        nextPostings.remove(term);
+      } else {
+        nextPostings.put(term, merged);
+      }
+    }
+
+    return new SpotKeywordIndex(nextDocs, nextPostings, nextLengths, nextCount);
+  }
+
+  /**
+   * キーワードに部分一致する位置の集合を求める。
+   *
+   * @param keyword 検索キーワード
+   * @param scope   確認対象の位置（検索条件で絞り込み済みのもの）
+   * @return 一致した位置
+   */
+  BitSet match(String keyword, BitSet scope) {
+    return match(Query.of(keyword), scope);
+  }
+
+  /**
+   * キーワードに部分一致する位置の集合を求める。
+   * キーワードの bi-gram をすべて含む位置に絞り込んでから、フィールドへの部分一致を確認する。
+   * 絞り込みはポスティングの位置の配列（昇順）どうしで行い、件数の少ない語から順に候補を減らす。
+   * 1文字のキーワード（ワイルドカードを除く）は bi-gram を作れないため、全件を確認する。
+   *
+   * @param query 解釈済みの検索キーワード（Query.of）
+   * @param scope 確認対象の位置（検索条件で絞り込み済みのもの）
+   * @return 一致した位置
+   */
+  BitSet match(Query query, BitSet scope) {
+    BitSet result = new BitSet();
+    if (query.terms.isEmpty()) {
+      for (int pos = scope.nextSetBit(0); pos >= 0; pos = scope.nextSetBit(pos + 1)) {
+        addIfMatches(query, pos, result);
+      }
+      return result;
+    }
+
+    List<int[]> lists = new ArrayList<>(query.terms.size());
+    for (String term : query.terms) {
+      Postings list = postings.get(term);
+      if (list == null) {
+        return result;
+      }
+      lists.add(list.positions);
+    }
+    lists.sort(Comparator.comparingInt(positions -> positions.length));
+
+    // 最も件数の少ない語の位置のうち、確認対象に含まれるものを候補にする
+    int[] candidates = new int[lists.get(0).length];
+    int n = 0;
+    for (int pos : lists.get(0)) {
+      if (scope.get(pos)) {
+        candidates[n++] = pos;
+      }
+    }
+    for (int k = 1; k < lists.size() && n > 0; k++) {
+      n = retainAll(candidates, n, lists.get(k));
+    }
+
+    for (int i = 0; i < n; i++) {
+      addIfMatches(query, candidates[i], result);
+    }
+    return result;
+  }
+
+  /**
+   * 候補（昇順）のうち、位置の配列（昇順）に含まれるものだけを先頭に詰める。
+   *
+   * @return 残った候補の数
+   */
+  private static int retainAll(int[] candidates, int n, int[] positions) {
+    int kept = 0;
+    int from = 0;
+    for (int i = 0; i < n && from < positions.length; i++) {
+      int at = Arrays.binarySearch(positions, from, positions.length, candidates[i]);
+      if (at >= 0) {
+        candidates[kept++] = candidates[i];
+        from = at + 1;
+      } else {
+        from = -at - 1;
+      }
+    }
+    return kept;
+  }
+
+  private void addIfMatches(Query query, int pos, BitSet result) {
+    Doc doc = (pos < docs.length) ? docs[pos] : null;
+    if (doc != null && doc.matches(query)) {
+      result.set(pos);
+    }
+  }
+
+  /**
+   * キーワードに対する関連度（BM25F）を計算する。
+   *
+   * @param query 解釈済みの検索キーワード（Query.of。一致した位置ごとに解釈し直さないため）
+   * @param pos   位置
+   * @return 関連度（bi-gram を作れないキーワードの場合は 0）
+   */
+  double score(Query query, int pos) {
+    double score = 0;
+    for (String term : query.terms) {
+      Postings list = postings.get(term);
+      if (list == null) {
+        continue;
+      }
+      int at = Arrays.binarySearch(list.positions, pos);
+      if (at < 0) {
+        continue;
+      }
+
+      double weighted = 0;
+      for (int f = 0; f < FIELDS; f++) {
+        int tf = list.freqs[at * FIELDS + f];
+        if (tf == 0) {
+          continue;
+        }
+        double avgLength = (double) totalLengths[f] / Math.max(docCount, 1);
+        double norm = 1 - B + B * docs[pos].lengths[f] / Math.max(avgLength, 1);
+        weighted += FIELD_WEIGHTS[f] * tf / norm;
+      }
+
+      int df = list.positions.length;
+      double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+      score += idf * weighted / (K1 + weighted);
+    }
+    return score;
+  }
+
+  /**
+   * 検索用の正規化（utf8mb4_0900_ai_ci で同じ文字とみなされるものをそろえる）。
+   * - 全角英数・半角カナなどを NFKC でそろえ、小文字にする
+   * - アクセント・濁点・半濁点（分解後の結合文字）を除く（「ぱ」「ば」「は」は同じ）
+   * - カタカナはひらがなに、小書きの仮名は通常の仮名にそろえる（「パーク」「ぱーく」は同じ）
+   */
+  static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    String decomposed = Normalizer.normalize(folded, Normalizer.Form.NFD);
+
+    StringBuilder sb = new StringBuilder(decomposed.length());
+    decomposed.codePoints()
+        .filter(cp -> Character.getType(cp) != Character.NON_SPACING_MARK)
+        .map(SpotKeywordIndex::foldKana)
+        .forEach(sb::appendCodePoint);
+    return sb.toString();
+  }
+
+  /**
+   * カタカナをひらがなに、小書きの仮名を通常の仮名にそろえる（それ以外の文字はそのまま）。
+   */
+  private static int foldKana(int cp) {
+    int c = (cp >= 'ァ' && cp <= 'ヶ') ? cp - ('ァ' - 'ぁ') : cp;
+    return switch (c) {
+      case 'ぁ', 'ぃ', 'ぅ', 'ぇ', 'ぉ', 'っ', 'ゃ', 'ゅ', 'ょ', 'ゎ' -> c + 1;
+      case 'ゕ' -> 'か';
+      case 'ゖ' -> 'け';
+      default -> c;
+    };
+  }
+
+  /**
+   * 正規化済みテキストを bi-gram に分割する（空白を含む組み合わせは除く）。
+   */
+  static List<String> bigrams(String text) {
+    List<String> result = new ArrayList<>();
+    int[] cps = text.codePoints().toArray();
+    for (int i = 0; i + 1 < cps.length; i++) {
+      if (Character.isWhitespace(cps[i]) || Character.isWhitespace(cps[i + 1])) {
+        continue;
+      }
+      result.add(new String(cps, i, 2));
+    }
+    return result;
+  }
+
+  /**
+   * 1スポット分の正規化済みテキスト。
+   */
+  private static final class Doc {
+
+    private final String[] fields;     // フィールド別の正規化済みテキスト
+    private final int[] lengths;       // フィールド別の bi-gram 数
+    private final Set<String> terms;   // 含まれる bi-gram（重複なし）
+
+    private Doc(String[] fields) {
+      this.fields = fields;
+      this.lengths = new int[FIELDS];
+      this.terms = new HashSet<>();
+      for (int f = 0; f < FIELDS; f++) {
+        List<String> grams = bigrams(fields[f]);
+        lengths[f] = grams.size();
+        terms.addAll(grams);
+      }
+    }
+
+    static Doc of(SpotCatalogRow row) {
+      String[] fields = new String[FIELDS];
+      fields[NAME] = normalize(row.getName());
+      fields[ADDRESS] = normalize(row.getAddress());
+      fields[AREA] = normalize(row.getArea());
+      fields[NOTES] = normalize(row.getNotes());
+      return new Doc(fields);
+    }
+
+    boolean matches(Query query) {
+      for (int f = 0; f < MATCH_FIELDS; f++) {
+        if (query.matches(fields[f])) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * 検索キーワード（LIKE '%keyword%' と同じ意味で解釈したもの）。
+   * % は0文字以上、_ は1文字の任意の文字。\ の直後の文字はワイルドカードとして扱わない。
+   */
+  static final class Query {
+
+    private final String literal;      // ワイルドカードを含まない場合の正規化済みキーワード（含む場合は null）
+    private final Pattern pattern;     // ワイルドカードを含む場合の一致パターン（含まない場合は null）
+    private final Set<String> terms;   // 候補の絞り込みに使う bi-gram（ワイルドカードをまたぐものは除く）
+
+    private Query(String literal, Pattern pattern, Set<String> terms) {
+      this.literal = literal;
+      this.pattern = pattern;
+      this.terms = terms;
+    }
+
+    static Query of(String keyword) {
+      if (keyword == null) {
+        return new Query("", null, Set.of());
+      }
+
+      StringBuilder regex = new StringBuilder();
+      Set<String> terms = new LinkedHashSet<>();
+      StringBuilder segment = new StringBuilder();
+      StringBuilder plain = new StringBuilder();   // エスケープを外したキーワード
+      boolean wildcard = false;
+
+      for (int i = 0; i < keyword.length(); i++) {
+        char ch = keyword.charAt(i);
+        if (ch == '\\' && i + 1 < keyword.length()) {
+          ch = keyword.charAt(++i);
+        } else if (ch == '%' || ch == '_') {
+          appendSegment(segment, regex, terms);
+          regex.append(ch == '%' ? ".*" : ".");
+          wildcard = true;
+          continue;
+        }
+        segment.append(ch);
+        plain.append(ch);
+      }
+      appendSegment(segment, regex, terms);
+
+      if (!wildcard) {
+        return new Query(normalize(plain.toString()), null, terms);
+      }
+      return new Query(null, Pattern.compile(".*" + regex + ".*", Pattern.DOTALL), terms);
+    }
+
+    private static void appendSegment(StringBuilder segment, StringBuilder regex, Set<String> terms) {
+      if (segment.isEmpty()) {
+        return;
+      }
+      String normalized = normalize(segment.toString());
+      regex.append(Pattern.quote(normalized));
+      terms.addAll(bigrams(normalized));
+      segment.setLength(0);
+    }
+
+    boolean matches(String field) {
+      return (pattern == null) ? field.contains(literal) : pattern.matcher(field).matches();
+    }
+  }
+
+  /**
+   * 1語分のポスティングリスト。
+   */
+  private static final class Postings {
+
+    private final int[] positions;  // 位置（昇順）
+    private final int[] freqs;      // positions[i] のフィールド別出現回数（freqs[i * FIELDS + f]）
+
+    private Postings(int[] positions, int[] freqs) {
+      this.positions = positions;
+      this.freqs = freqs;
+    }
+
+    /**
+     * 既存のポスティングから変更のあった位置を除き、新しい出現回数を加えたリストを作る。
+     *
+     * @return 新しいポスティング（1件もなくなった場合は null）
+     */
+    static Postings merge(Postings old, Set<Integer> changed, Map<Integer, int[]> added) {
+      int oldSize = (old == null) ? 0 : old.positions.length;
+      int addSize = (added == null) ? 0 : added.size();
+
+      int[] positions = new int[oldSize + addSize];
+      int[] freqs = new int[(oldSize + addSize) * FIELDS];
+      int n = 0;
+
+      int[] addPositions = (added == null) ? new int[0]
+          : added.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+
+      int i = 0;
+      int j = 0;
+      while (i < oldSize || j < addPositions.length) {
+        boolean takeOld = j >= addPositions.length
+            || (i < oldSize && old.positions[i] < addPositions[j]);
+
+        if (takeOld) {
+          int pos = old.positions[i];
+          if (!changed.contains(pos)) {
+            positions[n] = pos;
+            System.arraycopy(old.freqs, i * FIELDS, freqs, n * FIELDS, FIELDS);
+            n++;
+          }
+          i++;
+        } else {
+          int pos = addPositions[j];
+          if (i < oldSize && old.positions[i] == pos) {
+            i++;  // 同じ位置の古い出現回数は捨てる
+          }
+          positions[n] = pos;
+          System.arraycopy(added.get(pos), 0, freqs, n * FIELDS, FIELDS);
+          n++;
+          j++;
+        }
+      }
+
+      if (n == 0) {
+        return null;
+      }
+      return new Postings(Arrays.copyOf(positions, n), Arrays.copyOf(freqs, n * FIELDS));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.mapper.ReviewMapper;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * スポットのレビュー集計（spot_review_stats）を reviews と突き合わせて修復するクラス（定期実行）。
+ * 【方針】
+ * - 集計は通常、レビューの登録・編集・削除のたびに差分だけを加減算して保つ（ReviewService）
+ * - 直接のDB修正などで差分の加減算を通らなかった場合のずれを、ここで見つけて作り直す
+ * - reviews の全件集計になるため、リクエストの処理からは呼ばない
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpotReviewStatsReconciler {
+
+  private final ReviewMapper reviewMapper;
+
+  /**
+   * ずれているスポットの集計を作り直し、spots の集計値（件数・平均）へも反映する。
+   * スポットごとに作り直すため、1件の失敗で他のスポットの修復は止めない。
+   *
+   * @return 修復したスポット数
+   */
+  @Scheduled(
+      initialDelayString = "${famigo.reviews.stats.reconcile-interval-ms:3600000}",
+      fixedDelayString = "${famigo.reviews.stats.reconcile-interval-ms:3600000}"
+  )
+  public int reconcile() {
+    List<Long> drifted;
+    try {
+      drifted = reviewMapper.selectSpotIdsWithReviewStatsDrift();
+    } catch (RuntimeException e) {
+      log.warn("Spot review stats reconciliation failed: {}", e.getMessage());
+      return 0;
+    }
+
+    int repaired = 0;
+    for (Long spotId : drifted) {
+      try {
+        reviewMapper.rebuildSpotReviewStats(spotId);
+        reviewMapper.refreshSpotReviewStats(spotId);
+        repaired++;
+      } catch (RuntimeException e) {
+        log.warn("Spot review stats rebuild failed: spotId={}, {}", spotId, e.getMessage());
+      }
+    }
+
+    if (!drifted.isEmpty()) {
+      log.info("Spot review stats reconciled: driftedSpots={}, repaired={}", drifted.size(), repaired);
+    }
+    return repaired;
+  }
+}
@@ -0,0 +1,134 @@
+package com.famigo.backend.service;
+
+import com.famigo.backend.dto.SpotListItemDto;
+import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.enums.AgeGroup;
+import com.famigo.backend.enums.FacilityType;
+import com.famigo.backend.enums.PriceType;
+import com.famigo.backend.enums.SpotSortType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * スポット一覧の検索結果キャッシュ（ユーザーに依存しない検索結果を条件ごとに保持する）。
+ * 【方針】
+ * - キーは正規化した検索条件（リストは重複除去＋ソート、キーワードは前後の空白を除去）
+ * - キーにカタログ版数（SpotCatalogIndex#getVersion）を含め、スポット・設備の変更が取り込まれたら
+ *   以前のエントリは使われなくなる（古いエントリは上限・期限切れで破棄される）
+ * - 索引が使えずDBから取得した場合に備え、期限（TTL）も設ける
+ * - 集計値（お気に入り数など）の変更では版数が変わらない。一覧の集計値は返す時点で索引の値を重ね（SpotService）、
+ *   集計値による並び順は期限（TTL）までに入れ替わる
+ * - 保持する一覧は共有されるため、変更不可のリストにして返す
+ */
+@Component
+public class SpotSearchCache {
+
+  // 統計情報の表示名
+  static final String NAME = "spotSearch";
+
+  // キー → 検索結果
+  private final Cache<Key, List<SpotListItemDto>> cache;
+
+  /**
+   * SpotSearchCacheのコンストラクタ。
+   *
+   * @param cacheStatsRegistry キャッシュ統計の登録先
+   * @param maxEntries         保持する検索条件の数の上限
+   * @param ttlSeconds         保持期間（秒）
+   */
+  public SpotSearchCache(
+      CacheStatsRegistry cacheStatsRegistry,
+      @Value("${famigo.spots.search-cache.max-entries:1000}") long maxEntries,
+      @Value("${famigo.spots.search-cache.ttl-seconds:60}") long ttlSeconds
+  ) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxEntries)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    cacheStatsRegistry.register(NAME, cache);
+  }
+
+  /**
+   * 検索結果を取得する（キャッシュにない場合は loader で取得して保持する）。
+   *
+   * @param condition 正規化済みの検索条件（canonicalize の戻り値）
+   * @param version   カタログ版数
+   * @param loader    検索処理
+   * @return 検索結果（変更不可）
+   */
+  public List<SpotListItemDto> get(SpotSearchCondition condition, long version,
+      Supplier<List<SpotListItemDto>> loader) {
+    return cache.get(new Key(version, condition), key -> List.copyOf(loader.get()));
+  }
+
+  /**
+   * 検索条件を正規化する（同じ意味の条件が同じキャッシュキーになるようにする）。
+   * - リスト：重複除去＋ソート（空の場合は null）
+   * - 設備：未知の値を除く（検索でも無視されるため）
+   * - キーワード：前後の空白を除去（空の場合は null）
+   * - 並び順：ID 順と、キーワードなしの関連度順は null
+   *
+   * @param condition 検索条件
+   * @return 正規化した新しい検索条件
+   */
+  public static SpotSearchCondition canonicalize(SpotSearchCondition condition) {
+    SpotSearchCondition canonical = new SpotSearchCondition();
+    canonical.setCategoryIds(sorted(condition.getCategoryIds()));
+    canonical.setPrice(sorted(condition.getPrice()));
+    canonical.setAge(sorted(condition.getAge()));
+    canonical.setFacilities(sorted((condition.getFacilities() == null) ? null
+        : condition.getFacilities().stream()
+            .filter(code -> FacilityType.fromCode(code).isPresent())
+            .toList()));
+
+    String keyword = (condition.getKeyword() == null) ? null : condition.getKeyword().strip();
+    canonical.setKeyword((keyword == null || keyword.isEmpty()) ? null : keyword);
+
+    // 関連度順はキーワードがある場合だけ意味を持つ（それ以外は ID 順＝null にそろえる）
+    SpotSortType sort = condition.getSort();
+    if (sort == SpotSortType.ID || (sort == SpotSortType.RELEVANCE && canonical.getKeyword() == null)) {
+      sort = null;
+    }
+    canonical.setSort(sort);
+    return canonical;
+  }
+
+  private static <T extends Comparable<? super T>> List<T> sorted(Collection<T> values) {
+    if (values == null) {
+      return null;
+    }
+    List<T> result = values.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    return result.isEmpty() ? null : result;
+  }
+
+  /**
+   * キャッシュキー（カタログ版数＋正規化済みの検索条件）。
+   */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class Key {
+
+    private final long version;
+    private final List<Long> categoryIds;
+    private final String keyword;
+    private final List<PriceType> price;
+    private final List<AgeGroup> age;
+    private final List<String> facilities;
+    private final SpotSortType sort;
+
+    Key(long version, SpotSearchCondition condition) {
+      this(version, condition.getCategoryIds(), condition.getKeyword(), condition.getPrice(),
+          condition.getAge(), condition.getFacilities(), condition.getSort());
+    }
+  }
+}
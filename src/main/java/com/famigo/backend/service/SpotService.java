@@ -1,31 +1,396 @@
 package com.famigo.backend.service;
 
+import com.famigo.backend.dto.CursorPage;
+import com.famigo.backend.dto.NearbySpotDto;
+import com.famigo.backend.dto.SpotBatchDto;
+import com.famigo.backend.dto.SpotClusterDto;
 import com.famigo.backend.dto.SpotDetailDto;
+import com.famigo.backend.dto.SpotFacetsDto;
 import com.famigo.backend.dto.SpotListItemDto;
 import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.enums.SpotSortType;
 import com.famigo.backend.mapper.SpotMapper;
+import com.famigo.backend.service.FavoriteSetCache.FavoriteSet;
+import com.famigo.backend.service.SpotCatalogIndex.RankedSpot;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor   // finalフィールドを引数に持つコンストラクタを自動生成
 public class SpotService {
 
+  // ページ取得時の既定件数（limit 未指定で after のみ指定された場合）
+  static final int DEFAULT_PAGE_SIZE = 20;
+
+  // ページ取得時の最大件数（これを超える limit は切り詰める）
+  static final int MAX_PAGE_SIZE = 100;
+
+  // まとめて取得できるスポット詳細の既定の上限件数
+  static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+  // 近くのスポット検索の既定の半径（km）
+  static final double DEFAULT_RADIUS_KM = 5;
+
+  // 近くのスポット検索の最大の半径（km。これを超える radiusKm は切り詰める）
+  static final double MAX_RADIUS_KM = 50;
+
   private final SpotMapper spotMapper;
+  private final SpotCatalogIndex spotCatalogIndex;
+  private final FavoriteSetCache favoriteSetCache;
+  private final SpotSearchCache spotSearchCache;
+  private final CatalogETags catalogETags;
+
+  // まとめて取得できるスポット詳細の上限件数（超える場合は 400）
+  @Value("${famigo.spots.batch.max-size:" + DEFAULT_MAX_BATCH_SIZE + "}")
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
 
   /**
    * スポット一覧（カテゴリ・設備情報をJOIN済）のデータを取得するメソッド
+   * 検索はユーザーに依存しない形で行い、ログイン時のみ後からお気に入り状態を設定する。
    *
    * @param condition 検索条件（null項目は条件なしとして扱う）
    * @param userId    ユーザーID（ログイン時のみ指定。未ログインの場合はnullを渡す）
    * @return スポット一覧（SpotListItemDto のリスト）
    */
   public List<SpotListItemDto> getSpotList(SpotSearchCondition condition, Long userId) {
-    return spotMapper.findAllWithCategoryAndFacilities(condition, userId);
-    // Mapperに条件＋（ログイン時のみ）ユーザーIDを渡して一覧取得
+
+    // 同じ意味の条件は同じ検索結果を共有する（正規化した条件でキャッシュを引く）
+    SpotSearchCondition canonical = SpotSearchCache.canonicalize(condition);
+    List<SpotListItemDto> catalog = spotSearchCache.get(
+        canonical, spotCatalogIndex.getVersion(), () -> findCatalog(canonical));
+
+    return withStatsAndFavorites(catalog, userId);
+  }
+
+  private List<SpotListItemDto> findCatalog(SpotSearchCondition condition) {
+
+    // 関連度順・評価順など：索引で並べる（索引が使えない場合は Mapper の ORDER BY に任せる。関連度順は ID 昇順）
+    Optional<List<RankedSpot>> ranked = findRanked(condition);
+    if (ranked.isPresent()) {
+      return ranked.get().stream().map(RankedSpot::getItem).toList();
+    }
+
+    // 常駐索引（BitSet）で検索する
+    Optional<List<SpotListItemDto>> indexed =
+        spotCatalogIndex.search(condition, null, Integer.MAX_VALUE);
+    if (indexed.isPresent()) {
+      return indexed.get();
+    }
+
+    return spotMapper.findAllWithCategoryAndFacilities(condition);
+    // 索引が使えない場合（未構築）はMapperに条件を渡して一覧取得
+  }
+
+  /**
+   * スポット一覧をキーセット方式（s.id 昇順）で1ページ分取得するメソッド
+   * 次ページの有無は limit + 1 件取得して判定し、続きがある場合のみ次ページ用カーソルを返す。
+   * 関連度順・評価順などの場合は（関連度または並び替えのキー, ID）をシークキーとしてカーソルに含める
+   * （索引が未構築の場合は構築を待ってから索引で返す。構築できない場合は 503）。
+   *
+   * @param condition 検索条件（null項目は条件なしとして扱う）
+   * @param userId    ユーザーID（ログイン時のみ指定。未ログインの場合はnullを渡す）
+   * @param after     前ページの nextCursor（先頭ページの場合は null）
+   * @param limit     取得件数（null の場合は既定件数。上限を超える場合は上限に切り詰める）
+   * @return 1ページ分のスポット一覧と次ページ用カーソル
+   * @throws ResponseStatusException limit が1未満、またはカーソルが不正な場合は 400。
+   *                                 関連度順・評価順などで索引を構築できない場合は 503
+   */
+  public CursorPage<SpotListItemDto> getSpotPage(
+      SpotSearchCondition condition, Long userId, String after, Integer limit) {
+
+    CursorPage<SpotListItemDto> page =
+        findCatalogPage(SpotSearchCache.canonicalize(condition), after, resolvePageSize(limit));
+    return new CursorPage<>(withStatsAndFavorites(page.getItems(), userId), page.getNextCursor());
+  }
+
+  private CursorPage<SpotListItemDto> findCatalogPage(
+      SpotSearchCondition condition, String after, int pageSize) {
+
+    if (isRankedSort(condition)) {
+      // 関連度順・評価順などは SQL で同じ並び・同じカーソルを作れないため、常に索引で返す
+      return rankedPage(fromIndex(() -> findRanked(condition)), after, pageSize);
+    }
+
+    Long afterId = (after == null || after.isBlank()) ? null : CursorCodec.decodeLong(after);
+
+    List<SpotListItemDto> rows = findPageRows(condition, afterId, pageSize + 1);
+
+    if (rows.size() <= pageSize) {
+      return new CursorPage<>(rows, null);
+    }
+
+    List<SpotListItemDto> items = rows.subList(0, pageSize);
+    String next = CursorCodec.encode(items.get(pageSize - 1).getId());
+    return new CursorPage<>(items, next);
+  }
+
+  private List<SpotListItemDto> findPageRows(SpotSearchCondition condition, Long afterId, int limit) {
+
+    // 一覧取得と同じく、常駐索引を優先する
+    Optional<List<SpotListItemDto>> indexed = spotCatalogIndex.search(condition, afterId, limit);
+    if (indexed.isPresent()) {
+      return indexed.get();
+    }
+
+    return spotMapper.findPageWithCategoryAndFacilities(condition, afterId, limit);
+  }
+
+  /**
+   * 並び順の指定（関連度順・評価順など）がある場合に、索引で並べた検索結果を返す。
+   * ID 順の場合と、索引が未構築の場合は empty。
+   */
+  private Optional<List<RankedSpot>> findRanked(SpotSearchCondition condition) {
+    if (isRelevanceSort(condition)) {
+      return spotCatalogIndex.rank(condition);
+    }
+    if (SpotCatalogIndex.KEY_SORTS.contains(condition.getSort())) {
+      return spotCatalogIndex.sorted(condition);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * 索引で検索する（SQL で代替できない検索用）。索引が未構築の場合は、全件構築を1回だけ行って完了を待つ
+   * （同時のリクエストは同じ構築を待つため、リクエストごとに全スポットを読み込まない）。
+   *
+   * @throws ResponseStatusException 索引を構築できない場合（DB障害中など）は 503
+   */
+  private <T> T fromIndex(Supplier<Optional<T>> search) {
+    return search.get()
+        .or(() -> spotCatalogIndex.awaitBuilt() ? search.get() : Optional.empty())
+        .orElseThrow(() -> new ResponseStatusException(
+            HttpStatus.SERVICE_UNAVAILABLE, "Spot catalog index is not ready"));
+  }
+
+  private boolean isRankedSort(SpotSearchCondition condition) {
+    return isRelevanceSort(condition) || SpotCatalogIndex.KEY_SORTS.contains(condition.getSort());
+  }
+
+  private boolean isRelevanceSort(SpotSearchCondition condition) {
+    return condition.getSort() == SpotSortType.RELEVANCE
+        && condition.getKeyword() != null && !condition.getKeyword().isEmpty();
+  }
+
+  /**
+   * 検索結果（isFavorite はすべて false）に現在の集計値とお気に入り状態を設定する。
+   * 集計値（お気に入り数など）はカタログ版数を変えずに更新されるため、検索結果キャッシュの DTO には索引の現在の値を重ねる。
+   * 検索結果の DTO は索引などで共有しているため書き換えず、値の変わるスポットだけコピーして設定する。
+   */
+  private List<SpotListItemDto> withStatsAndFavorites(List<SpotListItemDto> items, Long userId) {
+    if (items.isEmpty()) {
+      return items;
+    }
+
+    FavoriteSet favorites = (userId == null) ? FavoriteSet.EMPTY : favoriteSetCache.get(userId);
+
+    List<SpotListItemDto> result = new ArrayList<>(items.size());
+    for (SpotListItemDto item : items) {
+      SpotListItemDto current = spotCatalogIndex.withCurrentStats(item).orElse(item);
+      if (favorites.contains(item.getId())) {
+        if (current == item) {
+          current = new SpotListItemDto();
+          BeanUtils.copyProperties(item, current);
+        }
+        current.setIsFavorite(true);
+      }
+      result.add(current);
+    }
+    return result;
+  }
+
+  private CursorPage<SpotListItemDto> rankedPage(List<RankedSpot> ranked, String after, int pageSize) {
+    int from = 0;
+
+    if (after != null && !after.isBlank()) {
+      String[] key = CursorCodec.decode(after, 2);
+      double afterScore;
+      long afterId;
+      try {
+        afterScore = Double.parseDouble(key[0]);
+        afterId = Long.parseLong(key[1]);
+      } catch (NumberFormatException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + after);
+      }
+
+      // 並び順（関連度・並び替えのキーの降順 → ID 昇順）で、カーソルより後ろになる最初の位置を探す
+      while (from < ranked.size()) {
+        RankedSpot spot = ranked.get(from);
+        if (spot.getScore() < afterScore
+            || (spot.getScore() == afterScore && spot.getItem().getId() > afterId)) {
+          break;
+        }
+        from++;
+      }
+    }
+
+    int to = Math.min(from + pageSize, ranked.size());
+    List<SpotListItemDto> items = ranked.subList(from, to).stream().map(RankedSpot::getItem).toList();
+
+    if (to >= ranked.size()) {
+      return new CursorPage<>(items, null);
+    }
+
+    RankedSpot last = ranked.get(to - 1);
+    return new CursorPage<>(items, CursorCodec.encode(last.getScore(), last.getItem().getId()));
+  }
+
+  private int resolvePageSize(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    if (limit < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be 1 or more: " + limit);
+    }
+    return Math.min(limit, MAX_PAGE_SIZE);
+  }
+
+  /**
+   * 指定した地点の近くのスポットを近い順に取得するメソッド（spots.location の SPATIAL INDEX を使う）
+   *
+   * @param condition 検索条件
+   * @param userId    ユーザーID（未ログインは null）
+   * @param lat       中心の緯度（-90〜90。必須。NaN は不可）
+   * @param lng       中心の経度（-180〜180。必須。NaN は不可）
+   * @param radiusKm  半径（km。null の場合は既定値。上限を超える値は切り詰める）
+   * @param limit     最大件数（null の場合は既定値。上限を超える値は切り詰める）
+   * @return 近い順のスポット一覧（距離付き）
+   */
+  public List<NearbySpotDto> getNearbySpots(SpotSearchCondition condition, Long userId,
+      Double lat, Double lng, Double radiusKm, Integer limit) {
+
+    // NaN はどの比較も false になるため、範囲内であることを否定形で確かめる（parseBbox と同じ）
+    if (lat == null || lng == null || !(lat >= -90 && lat <= 90) || !(lng >= -180 && lng <= 180)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "lat must be -90 to 90 and lng must be -180 to 180: lat=" + lat + ", lng=" + lng);
+    }
+    double radius = (radiusKm == null) ? DEFAULT_RADIUS_KM : radiusKm;
+    if (!(radius > 0)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm must be greater than 0: " + radiusKm);
+    }
+
+    List<NearbySpotDto> spots = spotMapper.findNearby(SpotSearchCache.canonicalize(condition),
+        lat, lng, Math.min(radius, MAX_RADIUS_KM), resolvePageSize(limit));
+
+    // 行ごとに新しいDTOが作られるため、そのままお気に入り状態を設定してよい
+    if (userId != null && !spots.isEmpty()) {
+      FavoriteSet favorites = favoriteSetCache.get(userId);
+      for (NearbySpotDto spot : spots) {
+        if (favorites.contains(spot.getId())) {
+          spot.setIsFavorite(true);
+        }
+      }
+    }
+    return spots;
+  }
+
+  /**
+   * 検索条件に対する絞り込み候補ごとの件数（ファセット）を取得するメソッド
+   * 索引（BitSet）で数える。索引が未構築の場合は構築を待ってから数える。
+   *
+   * @param condition 検索条件
+   * @return 候補ごとの件数
+   * @throws ResponseStatusException 索引を構築できない場合は 503
+   */
+  public SpotFacetsDto getFacets(SpotSearchCondition condition) {
+    SpotSearchCondition canonical = SpotSearchCache.canonicalize(condition);
+    return fromIndex(() -> spotCatalogIndex.facets(canonical));
+  }
+
+  /**
+   * 地図の表示範囲のマーカー集約（クラスタ）を取得するメソッド
+   * 索引に集計済みのグリッドセルを返すため、件数はスポット数ではなく表示範囲のセル数で決まる。
+   * 索引が未構築の場合は構築を待ってから集計する。
+   *
+   * @param bbox 表示範囲（"西端の経度,南端の緯度,東端の経度,北端の緯度"。必須）
+   * @param zoom 地図のズームレベル（0以上。必須）
+   * @return クラスタ一覧（セルの北西から順）
+   * @throws ResponseStatusException bbox・zoom が不正な場合は 400。索引を構築できない場合は 503
+   */
+  public List<SpotClusterDto> getClusters(String bbox, Integer zoom) {
+    double[] box = parseBbox(bbox);
+    if (zoom == null || zoom < 0) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "zoom must be 0 or more: " + zoom);
+    }
+    return fromIndex(() -> spotCatalogIndex.clusters(box[1], box[0], box[3], box[2], zoom));
+  }
+
+  private static double[] parseBbox(String bbox) {
+    String[] parts = (bbox == null) ? new String[0] : bbox.split(",");
+    double[] box = new double[4];
+    try {
+      for (int i = 0; i < parts.length && i < box.length; i++) {
+        box[i] = Double.parseDouble(parts[i].trim());
+      }
+    } catch (NumberFormatException e) {
+      throw invalidBbox(bbox);
+    }
+    // 日付変更線をまたぐ範囲は扱わない（西端 <= 東端）
+    if (parts.length != 4
+        || !(box[0] >= -180 && box[0] <= box[2] && box[2] <= 180)
+        || !(box[1] >= -90 && box[1] <= box[3] && box[3] <= 90)) {
+      throw invalidBbox(bbox);
+    }
+    return box;
+  }
+
+  private static ResponseStatusException invalidBbox(String bbox) {
+    return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "bbox must be minLng,minLat,maxLng,maxLat: " + bbox);
+  }
+
+
+  /**
+   * スポット一覧を1件ずつ sink に渡すメソッド（ストリーミング応答用。ID昇順）
+   * 一覧をリストに載せず DB から1行ずつ読み出すため、件数が増えてもリクエストあたりのメモリは一定になる。
+   * カーソルを読み切るまでトランザクション（コネクション）を保持する。
+   *
+   * @param condition 検索条件（並び順の指定は無視し、ID昇順で返す）
+   * @param userId    ユーザーID（未ログインは null）
+   * @param sink      1件ごとの出力先
+   */
+  @Transactional(readOnly = true)
+  public void streamSpotList(SpotSearchCondition condition, Long userId, Consumer<SpotListItemDto> sink) {
+    FavoriteSet favorites = (userId == null) ? FavoriteSet.EMPTY : favoriteSetCache.get(userId);
+
+    try (Cursor<SpotListItemDto> cursor =
+        spotMapper.streamWithCategoryAndFacilities(SpotSearchCache.canonicalize(condition))) {
+      for (SpotListItemDto item : cursor) {
+        // 行ごとに新しいDTOが作られるため、そのままお気に入り状態を設定してよい
+        if (favorites.contains(item.getId())) {
+          item.setIsFavorite(true);
+        }
+        sink.accept(item);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * スポット一覧・詳細の ETag を取得するメソッド（If-None-Match と一致すれば 304 を返すために使う）
+   *
+   * @param userId ユーザーID（未ログインは null）
+   * @return ETag（引用符付き）。索引が未構築の場合は null（ETag を付けない）
+   */
+  public String getCatalogETag(Long userId) {
+    return catalogETags.forUser(userId);
   }
 
   /**
@@ -37,14 +402,68 @@ public class SpotService {
    */
   public SpotDetailDto getSpotDetail(Long id, Long userId) {
 
-    SpotDetailDto dto = spotMapper.findDetailById(id, userId);
-    // MapperにID＋（ログイン時のみ）ユーザーIDを渡して詳細取得
+    SpotDetailDto dto = spotMapper.findDetailById(id);
+    // MapperにIDを渡して詳細取得（お気に入り状態はユーザーごとに後から設定する）
 
     if (dto == null) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Spot not found: id=" + id);
     }
 
+    if (userId != null) {
+      dto.setIsFavorite(favoriteSetCache.contains(userId, id));
+    }
+
     return dto;
   }
 
+  /**
+   * 指定した複数のスポットIDのスポット詳細情報を、1回の問い合わせでまとめて取得するメソッド
+   * お気に入り・閲覧履歴・比較画面などで詳細を続けて取得する場合に、HTTP・DB の往復を1回にまとめる。
+   * 見つからない（存在しない・論理削除済みの）IDは全体をエラーにせず、missingIds で返す。
+   *
+   * @param ids    スポットID（1件以上、重複を除いて上限件数まで。重複したIDは最初の1件のみ返す）
+   * @param userId ユーザーID（ログイン時のみ指定。未ログインの場合はnullを渡す）
+   * @return 指定したIDの順のスポット詳細と、見つからなかったID
+   */
+  public SpotBatchDto getSpotDetails(List<Long> ids, Long userId) {
+
+    Set<Long> requested = new LinkedHashSet<>();
+    if (ids != null) {
+      for (Long id : ids) {
+        if (id != null) {
+          requested.add(id);
+        }
+      }
+    }
+    if (requested.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+    }
+    if (requested.size() > maxBatchSize) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "ids must be " + maxBatchSize + " or fewer: " + requested.size());
+    }
+
+    Map<Long, SpotDetailDto> found = new HashMap<>();
+    for (SpotDetailDto dto : spotMapper.findDetailsByIds(new ArrayList<>(requested))) {
+      found.put(dto.getId(), dto);
+    }
+
+    FavoriteSet favorites = (userId == null) ? FavoriteSet.EMPTY : favoriteSetCache.get(userId);
+
+    List<SpotDetailDto> spots = new ArrayList<>(found.size());
+    List<Long> missingIds = new ArrayList<>();
+    for (Long id : requested) {
+      SpotDetailDto dto = found.get(id);
+      if (dto == null) {
+        missingIds.add(id);
+        continue;
+      }
+      // 行ごとに新しいDTOが作られるため、そのままお気に入り状態を設定してよい
+      if (favorites.contains(id)) {
+        dto.setIsFavorite(true);
+      }
+      spots.add(dto);
+    }
+    return new SpotBatchDto(spots, missingIds);
+  }
 }
@@ -5,6 +5,7 @@ import com.famigo.backend.dto.user.UpdateUserMeRequest;
 import com.famigo.backend.entity.User;
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.DemoAccountGuard;
+import com.famigo.backend.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
@@ -25,6 +26,9 @@ public class UserSelfService {
   private final UserMapper userMapper;
   private final PasswordEncoder passwordEncoder;
   private final DemoAccountGuard demoAccountGuard;
+  private final ReviewListCache reviewListCache;
+  private final UserPrincipalCache userPrincipalCache;
+  private final RefreshTokenService refreshTokenService;
 
   /**
    * ログイン中ユーザーの情報（Me）を取得する。
@@ -68,6 +72,10 @@ public class UserSelfService {
       throw new ResponseStatusException(HttpStatus.CONFLICT, "Email is already registered.");
     }
 
+    // JWT 認証のログインユーザー情報（email）と、表示名が出るレビュー一覧のキャッシュを破棄する
+    userPrincipalCache.evict(userId);
+    reviewListCache.evictReviewsBy(userId);
+
     User updated = requireActiveUser(userId);
     return new MeResponse(updated.getId(), updated.getName(), updated.getEmail(), updated.getRole());
   }
@@ -98,6 +106,12 @@ public class UserSelfService {
     if (rows != 1) {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user not found.");
     }
+
+    // JWT 認証のログインユーザー情報を破棄し、次のリクエストで DB から確認し直す
+    userPrincipalCache.evict(userId);
+
+    // 変更前のパスワードでログインした端末が再発行し続けられないよう、リフレッシュトークンをすべて失効させる
+    refreshTokenService.revokeAll(userId);
   }
 
 
@@ -121,6 +135,14 @@ public class UserSelfService {
     if (rows != 1) {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user not found.");
     }
+
+    // 退会後のリクエストを未ログイン扱いにするため、JWT 認証のログインユーザー情報を破棄し、
+    // アクセストークンを再発行できないようリフレッシュトークンをすべて失効させる
+    userPrincipalCache.evict(userId);
+    refreshTokenService.revokeAll(userId);
+
+    // レビュー一覧の投稿者名が「退会ユーザー」に変わるため、該当スポットの一覧キャッシュを破棄する（コミット後）
+    reviewListCache.evictReviewsBy(userId);
   }
 
 
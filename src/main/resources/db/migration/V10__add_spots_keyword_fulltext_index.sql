@@ -0,0 +1,16 @@
+-- ============================================
+-- V10 スポットのキーワード検索用 FULLTEXT インデックス追加
+-- name / address / area を ngram パーサ（2文字単位）で索引化し、
+-- 先頭ワイルドカードの LIKE による全件走査を避ける
+-- ============================================
+
+-- ngram はストップワードを含む2文字（"of" "to" "be" など）を索引から除外するため、
+-- 英字を含むスポット名・住所でも部分一致を取りこぼさないよう、このインデックスではストップワードを無効にする
+-- （作成時の設定がインデックスに保存されるため、セッション単位の変更で足りる）
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+CREATE FULLTEXT INDEX ft_spots_keyword
+    ON spots (name, address, area)
+    WITH PARSER ngram;                                           -- キーワード（スポット名・住所・エリア）の部分一致検索を高速化
+
+SET SESSION innodb_ft_enable_stopword = ON;
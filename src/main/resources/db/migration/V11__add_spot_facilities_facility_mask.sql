@@ -0,0 +1,20 @@
+-- ============================================
+-- V11 spot_facilities に設備ビットマスク（facility_mask）を追加
+-- 6つの設備フラグを1つの整数にまとめ、設備フィルタを
+-- 「(facility_mask & 必要な設備) = 必要な設備」の1条件で評価できるようにする
+-- ============================================
+
+-- 生成列（STORED）にすることで、設備フラグの更新時に MySQL が自動で再計算する（トリガー不要）
+-- ビットの割り当ては FacilityType（アプリ側）と一致させること
+--   1:diaper_changing / 2:stroller_ok / 4:playground / 8:athletics / 16:water_play / 32:indoor
+ALTER TABLE spot_facilities
+    ADD COLUMN facility_mask TINYINT UNSIGNED
+        AS (
+            (diaper_changing <> 0)
+            | ((stroller_ok <> 0) << 1)
+            | ((playground <> 0) << 2)
+            | ((athletics <> 0) << 3)
+            | ((water_play <> 0) << 4)
+            | ((indoor <> 0) << 5)
+        ) STORED NOT NULL                                        -- 設備ビットマスク（設備フィルタ用）
+        AFTER indoor;
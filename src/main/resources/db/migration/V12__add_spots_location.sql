@@ -0,0 +1,40 @@
+-- ============================================
+-- V12 spots に緯度・経度と位置（POINT）を追加
+-- 「現在地の近くのスポット」をサーバー側で検索できるようにする
+-- ============================================
+
+-- 1. 緯度・経度（未設定のスポットは NULL）
+ALTER TABLE spots
+    ADD COLUMN latitude DECIMAL(9, 6) NULL                       -- 緯度（世界測地系 WGS84）
+        AFTER google_map_url,
+    ADD COLUMN longitude DECIMAL(9, 6) NULL                      -- 経度（世界測地系 WGS84）
+        AFTER latitude;
+
+-- 2. 既存スポットの緯度・経度を GoogleマップURL から補完する
+--    場所（ピン）の座標は URL の「!3d<緯度>!4d<経度>」に入っている
+--    （「@<緯度>,<経度>」は地図の表示中心のため使わない。該当しないURLは NULL のまま）
+--    周辺の場所（公園内の施設なら公園など）を含む URL は、その場所の「!3d…!4d…」が先に入り、
+--    目的の場所は最後に入るため、最後の組を使う（先頭の .* を最長一致にして最後の組を取り出す）
+UPDATE spots
+SET
+    latitude = CAST(
+        REGEXP_REPLACE(google_map_url, '^.*!3d(-?[0-9]+(\\.[0-9]+)?)!4d(-?[0-9]+(\\.[0-9]+)?).*$', '$1')
+        AS DECIMAL(9, 6)),
+    longitude = CAST(
+        REGEXP_REPLACE(google_map_url, '^.*!3d(-?[0-9]+(\\.[0-9]+)?)!4d(-?[0-9]+(\\.[0-9]+)?).*$', '$3')
+        AS DECIMAL(9, 6))
+WHERE google_map_url REGEXP '!3d-?[0-9]+(\\.[0-9]+)?!4d-?[0-9]+(\\.[0-9]+)?';
+
+-- 3. 位置（SRID 4326 の POINT）を生成列で持ち、SPATIAL INDEX を張る
+--    - SPATIAL INDEX は NOT NULL の列にしか張れないため、緯度・経度が未設定の行は POINT(0 0) にする
+--      （検索時は latitude IS NOT NULL で除外する）
+--    - POINT(x, y) は「経度, 緯度」の順で渡す（ST_SRID は軸を入れ替えないため、x=経度, y=緯度 で組み立てる）
+--      ※ WKT（ST_GeomFromText）は SRID 4326 の軸順に従い「緯度 経度」の順になる点に注意
+--    - 緯度・経度を更新すると MySQL が自動で再計算する（トリガー不要）
+ALTER TABLE spots
+    ADD COLUMN location POINT
+        AS (ST_SRID(POINT(COALESCE(longitude, 0), COALESCE(latitude, 0)), 4326))
+        STORED NOT NULL SRID 4326                                -- 位置（近くのスポット検索用）
+        AFTER longitude;
+
+CREATE SPATIAL INDEX idx_spots_location ON spots (location);     -- 範囲（矩形）での絞り込みを高速化
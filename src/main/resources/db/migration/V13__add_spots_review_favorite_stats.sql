@@ -0,0 +1,33 @@
+-- ============================================
+-- V13 spots にレビュー・お気に入りの集計値を追加
+-- スポット一覧を「評価順 / レビュー件数順 / お気に入り数順 / 新着順」で並べられるようにする
+-- （リクエストごとに reviews / favorites を GROUP BY せず、集計済みの列で並べる）
+-- ============================================
+
+-- 1. 集計値（レビュー・お気に入りの登録・編集・削除と同じトランザクションで再計算する）
+ALTER TABLE spots
+    ADD COLUMN review_count INT NOT NULL DEFAULT 0              -- 有効なレビューの件数
+        AFTER notes,
+    ADD COLUMN rating_average DECIMAL(3, 2) NOT NULL DEFAULT 0  -- 有効なレビューの総合評価の平均（レビューなしは 0）
+        AFTER review_count,
+    ADD COLUMN favorite_count INT NOT NULL DEFAULT 0            -- 有効なお気に入りの件数
+        AFTER rating_average,
+    ADD COLUMN stats_updated_at DATETIME NULL                   -- 集計値の更新日時（スポットカタログ索引の差分取り込みに使う）
+        AFTER favorite_count;
+
+-- 2. 既存データから集計値を補完する
+UPDATE spots s
+SET
+    s.review_count = (
+        SELECT COUNT(*) FROM reviews r
+        WHERE r.spot_id = s.id AND r.is_deleted = 0),
+    s.rating_average = (
+        SELECT COALESCE(ROUND(AVG(r.rating), 2), 0) FROM reviews r
+        WHERE r.spot_id = s.id AND r.is_deleted = 0),
+    s.favorite_count = (
+        SELECT COUNT(*) FROM favorites fav
+        WHERE fav.spot_id = s.id AND fav.is_deleted = 0),
+    s.stats_updated_at = NOW();
+
+-- ※ 並び順ごとの並べ替えはスポットカタログ索引（アプリ側）で事前に済ませておくため、
+--    ここでは並び順用のインデックスは追加しない（レビュー・お気に入りの更新のたびに維持するコストがかかるため）
@@ -0,0 +1,12 @@
+-- ============================================
+-- V14 reviews にスポット別レビュー一覧用の複合インデックスを追加
+-- スポット別のレビュー一覧を「投稿日時の新しい順（同じ日時は ID の大きい順）」で
+-- インデックスの順に読み、キーセット方式（created_at, id）でページ取得できるようにする
+-- ============================================
+
+-- 1. (spot_id, is_deleted) で絞り込んだ範囲を (created_at, id) の逆順に読む（並べ替え不要・LIMIT で打ち切り）
+CREATE INDEX idx_reviews_spot_created ON reviews (spot_id, is_deleted, created_at, id);
+
+-- 2. spot_id 単独のインデックスは上の複合インデックスの先頭列で代替できるため削除する
+--    （外部キー fk_reviews_spot も複合インデックスを使う。レビュー登録時のインデックス更新を1つ減らす）
+DROP INDEX idx_reviews_spot_id ON reviews;
@@ -0,0 +1,55 @@
+-- ============================================
+-- V15 spot_review_stats テーブル（スポットごとのレビュー集計）を追加
+-- スポットの平均評価・レビュー件数・評価の分布を reviews を読まずに返せるようにする
+-- - レビューの登録・編集・削除と同じトランザクションで「差分」を加減算する（全件の再集計はしない）
+-- - 加減算の取りこぼし（直接のDB修正など）は定期実行の突き合わせで修復する
+-- ============================================
+
+-- 1. spot_review_stats テーブル（spots と 1:1。有効な（論理削除されていない）レビューの集計）
+CREATE TABLE IF NOT EXISTS spot_review_stats (                   -- スポットごとのレビュー集計値
+    spot_id BIGINT PRIMARY KEY,                                  -- スポットID（PKかつFK）spots と 1:1
+    review_count INT NOT NULL DEFAULT 0,                         -- レビュー件数
+    rating_sum INT NOT NULL DEFAULT 0,                           -- 総合評価の合計
+    rating_count INT NOT NULL DEFAULT 0,                         -- 総合評価の件数
+    rating_cost_sum INT NOT NULL DEFAULT 0,                      -- コスパ評価の合計
+    rating_cost_count INT NOT NULL DEFAULT 0,                    -- コスパ評価の件数（未入力は数えない）
+    crowd_level_sum INT NOT NULL DEFAULT 0,                      -- 混雑度の合計
+    crowd_level_count INT NOT NULL DEFAULT 0,                    -- 混雑度の件数（未入力は数えない）
+    toilet_cleanliness_sum INT NOT NULL DEFAULT 0,               -- トイレ清潔度の合計
+    toilet_cleanliness_count INT NOT NULL DEFAULT 0,             -- トイレ清潔度の件数（未入力は数えない）
+    stroller_ease_sum INT NOT NULL DEFAULT 0,                    -- ベビーカーの使いやすさの合計
+    stroller_ease_count INT NOT NULL DEFAULT 0,                  -- ベビーカーの使いやすさの件数（未入力は数えない）
+    rating_1_count INT NOT NULL DEFAULT 0,                       -- 総合評価 1 の件数
+    rating_2_count INT NOT NULL DEFAULT 0,                       -- 総合評価 2 の件数
+    rating_3_count INT NOT NULL DEFAULT 0,                       -- 総合評価 3 の件数
+    rating_4_count INT NOT NULL DEFAULT 0,                       -- 総合評価 4 の件数
+    rating_5_count INT NOT NULL DEFAULT 0,                       -- 総合評価 5 の件数
+    created_at DATETIME NOT NULL,                                -- 登録日時
+    updated_at DATETIME NOT NULL,                                -- 更新日時
+    CONSTRAINT fk_spot_review_stats_spot                         -- FK制約名（spots への外部キー）
+        FOREIGN KEY (spot_id) REFERENCES spots(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;                         -- InnoDB＋UTF-8で作成
+
+-- 2. 既存のレビューから集計値を作る（レビューのないスポットは行なし＝すべて 0 として扱う）
+INSERT INTO spot_review_stats (
+    spot_id, review_count,
+    rating_sum, rating_count,
+    rating_cost_sum, rating_cost_count,
+    crowd_level_sum, crowd_level_count,
+    toilet_cleanliness_sum, toilet_cleanliness_count,
+    stroller_ease_sum, stroller_ease_count,
+    rating_1_count, rating_2_count, rating_3_count, rating_4_count, rating_5_count,
+    created_at, updated_at
+)
+SELECT
+    r.spot_id, COUNT(*),
+    SUM(r.rating), COUNT(r.rating),
+    COALESCE(SUM(r.rating_cost), 0), COUNT(r.rating_cost),
+    COALESCE(SUM(r.crowd_level), 0), COUNT(r.crowd_level),
+    COALESCE(SUM(r.toilet_cleanliness), 0), COUNT(r.toilet_cleanliness),
+    COALESCE(SUM(r.stroller_ease), 0), COUNT(r.stroller_ease),
+    SUM(r.rating = 1), SUM(r.rating = 2), SUM(r.rating = 3), SUM(r.rating = 4), SUM(r.rating = 5),
+    NOW(), NOW()
+FROM reviews r
+WHERE r.is_deleted = 0
+GROUP BY r.spot_id;
@@ -0,0 +1,21 @@
+-- ============================================
+-- V16 refresh_tokens テーブル（アクセストークン再発行用のリフレッシュトークン）を追加
+-- アクセストークン（JWT）の期限切れのたびに email / password でログインし直さず（BCrypt の照合なし）に再発行できるようにする
+-- - トークン本体は保存せず、SHA-256 のハッシュ値だけを保存する（DBが漏れてもそのまま使えない）
+-- - 使うたびに失効させて新しいトークンを発行する（ローテーション）
+-- - パスワード変更・退会ではそのユーザーのトークンをすべて失効させる
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (                      -- リフレッシュトークン（ハッシュ値）を管理するテーブル
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,                        -- リフレッシュトークンID（PK）
+    user_id BIGINT NOT NULL,                                     -- ユーザーID（FK → users.id）
+    token_hash CHAR(64) NOT NULL,                                -- トークンの SHA-256 ハッシュ値（16進64文字）
+    expires_at DATETIME NOT NULL,                                -- 有効期限
+    revoked_at DATETIME NULL,                                    -- 失効日時（使用済み・パスワード変更・退会。未失効は NULL）
+    created_at DATETIME NOT NULL,                                -- 発行日時
+    UNIQUE KEY uk_refresh_tokens_token_hash (token_hash),        -- 再発行時はハッシュ値で1件を引く
+    KEY idx_refresh_tokens_user_id (user_id),                    -- パスワード変更・退会時にユーザーのトークンを失効させる
+    KEY idx_refresh_tokens_expires_at (expires_at),              -- 期限切れトークンの定期削除
+    CONSTRAINT fk_refresh_tokens_user                            -- FK制約名（usersへの外部キー）
+        FOREIGN KEY (user_id) REFERENCES users(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;                         -- InnoDB＋UTF-8で作成
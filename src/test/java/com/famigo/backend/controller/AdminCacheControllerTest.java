@@ -0,0 +1,58 @@
+package com.famigo.backend.controller;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.famigo.backend.dto.CacheStatsDto;
+import com.famigo.backend.exception.GlobalExceptionHandler;
+import com.famigo.backend.mapper.UserMapper;
+import com.famigo.backend.security.JwtTokenProvider;
+import com.famigo.backend.security.UserPrincipalCache;
+import com.famigo.backend.service.CacheStatsRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(AdminCacheController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(GlobalExceptionHandler.class)
+class AdminCacheControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private CacheStatsRegistry cacheStatsRegistry;
+
+  // Securityフィルタが生成される構成でも Context が落ちないように保険でモック
+  @MockitoBean
+  private JwtTokenProvider jwtTokenProvider;
+
+  @MockitoBean
+  private UserMapper userMapper;
+
+  @MockitoBean
+  private UserPrincipalCache userPrincipalCache;
+
+  @Test
+  void キャッシュ統計_200で返ること() throws Exception {
+    when(cacheStatsRegistry.snapshot())
+        .thenReturn(List.of(new CacheStatsDto("spotSearch", 3L, 9L, 1L, 0.9, 0L)));
+
+    mockMvc.perform(get("/api/admin/caches"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("spotSearch"))
+        .andExpect(jsonPath("$[0].hitRate").value(0.9));
+
+    verify(cacheStatsRegistry, times(1)).snapshot();
+  }
+}
@@ -13,6 +13,7 @@ import com.famigo.backend.dto.auth.LoginResponse;
 import com.famigo.backend.exception.GlobalExceptionHandler;
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.JwtTokenProvider;
+import com.famigo.backend.security.UserPrincipalCache;
 import com.famigo.backend.service.AuthService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +51,9 @@ class AuthControllerTest {
   @MockitoBean
   private UserMapper userMapper;
 
+  @MockitoBean
+  private UserPrincipalCache userPrincipalCache;
+
   @Test
   void ログイン_バリデーションエラー_400になること() throws Exception {
 
@@ -71,7 +75,7 @@ class AuthControllerTest {
   void ログイン_正常系_200でトークンが返ること() throws Exception {
 
     when(authService.login(any()))
-        .thenReturn(new LoginResponse("dummy-token", "Bearer", 3600L, null));
+        .thenReturn(new LoginResponse("dummy-token", "Bearer", 3600L, null, "dummy-refresh", 2592000L));
 
     String json = """
         { "email": "demo@example.com", "password": "demo1234" }
@@ -83,11 +87,50 @@ class AuthControllerTest {
             .content(json))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.accessToken").value("dummy-token"))
-        .andExpect(jsonPath("$.tokenType").value("Bearer"));
+        .andExpect(jsonPath("$.tokenType").value("Bearer"))
+        .andExpect(jsonPath("$.refreshToken").value("dummy-refresh"));
 
     verify(authService, times(1)).login(any());
   }
 
+  @Test
+  void 再発行_リフレッシュトークン未指定_400になること() throws Exception {
+
+    String json = """
+        { "refreshToken": "" }
+        """;
+
+    mockMvc.perform(post("/api/auth/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .characterEncoding("UTF-8")
+            .content(json))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errorCode").value("VALIDATION_ERROR"));
+
+    verify(authService, never()).refresh(any());
+  }
+
+  @Test
+  void 再発行_正常系_200で新しいトークンが返ること() throws Exception {
+
+    when(authService.refresh(any()))
+        .thenReturn(new LoginResponse("new-token", "Bearer", 3600L, null, "new-refresh", 2592000L));
+
+    String json = """
+        { "refreshToken": "old-refresh" }
+        """;
+
+    mockMvc.perform(post("/api/auth/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .characterEncoding("UTF-8")
+            .content(json))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.accessToken").value("new-token"))
+        .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+
+    verify(authService, times(1)).refresh(any());
+  }
+
   @Test
   void 登録_バリデーションエラー_400になること() throws Exception {
 
@@ -10,6 +10,7 @@ import com.famigo.backend.dto.CategoryDto;
 import com.famigo.backend.exception.GlobalExceptionHandler;
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.JwtTokenProvider;
+import com.famigo.backend.security.UserPrincipalCache;
 import com.famigo.backend.service.CategoryService;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,9 @@ class CategoryControllerTest {
   @MockitoBean
   private UserMapper userMapper;
 
+  @MockitoBean
+  private UserPrincipalCache userPrincipalCache;
+
   @Test
   void カテゴリ一覧_200で返ること() throws Exception {
     when(categoryService.getAll()).thenReturn(List.of(new CategoryDto()));
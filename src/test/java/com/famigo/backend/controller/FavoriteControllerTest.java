@@ -13,6 +13,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.AppUserPrincipal;
 import com.famigo.backend.security.JwtTokenProvider;
+import com.famigo.backend.security.UserPrincipalCache;
 import com.famigo.backend.service.FavoriteService;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,9 @@ class FavoriteControllerTest {
   @MockitoBean
   private UserMapper userMapper;
 
+  @MockitoBean
+  private UserPrincipalCache userPrincipalCache;
+
   private UsernamePasswordAuthenticationToken buildAuthWithAppUserPrincipal(Long userId) {
 
     AppUserPrincipal principal = mock(AppUserPrincipal.class);
@@ -5,12 +5,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.famigo.backend.dto.CursorPage;
 import com.famigo.backend.dto.ReviewListItemDto;
 import com.famigo.backend.exception.GlobalExceptionHandler;
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.JwtTokenProvider;
+import com.famigo.backend.security.UserPrincipalCache;
 import com.famigo.backend.service.ReviewService;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -39,6 +43,9 @@ class ReviewControllerTest {
   @MockitoBean
   private UserMapper userMapper;
 
+  @MockitoBean
+  private UserPrincipalCache userPrincipalCache;
+
   @Test
   void レビュー一覧取得_200で返ること() throws Exception {
     when(reviewService.getReviewsBySpotId(1L)).thenReturn(List.of(new ReviewListItemDto()));
@@ -48,4 +55,15 @@ class ReviewControllerTest {
 
     verify(reviewService, times(1)).getReviewsBySpotId(eq(1L));
   }
+
+  @Test
+  void レビュー一覧ページ取得_次カーソルをヘッダで返すこと() throws Exception {
+    when(reviewService.getReviewPage(1L, "abc", 2))
+        .thenReturn(new CursorPage<>(List.of(new ReviewListItemDto()), "next"));
+
+    mockMvc.perform(get("/api/spots/1/reviews").param("limit", "2").param("before", "abc"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(SpotController.NEXT_CURSOR_HEADER, "next"))
+        .andExpect(jsonPath("$.length()").value(1));
+  }
 }
@@ -1,21 +1,37 @@
 package com.famigo.backend.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.famigo.backend.dto.CursorPage;
+import com.famigo.backend.dto.FacetCountDto;
+import com.famigo.backend.dto.NearbySpotDto;
+import com.famigo.backend.dto.SpotBatchDto;
+import com.famigo.backend.dto.SpotClusterDto;
 import com.famigo.backend.dto.SpotDetailDto;
+import com.famigo.backend.dto.SpotFacetsDto;
 import com.famigo.backend.dto.SpotListItemDto;
 import com.famigo.backend.exception.GlobalExceptionHandler;
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.JwtTokenProvider;
+import com.famigo.backend.security.UserPrincipalCache;
 import com.famigo.backend.service.SpotService;
 import java.util.List;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -23,6 +39,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(SpotController.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -42,6 +59,9 @@ class SpotControllerTest {
   @MockitoBean
   private UserMapper userMapper;
 
+  @MockitoBean
+  private UserPrincipalCache userPrincipalCache;
+
   @Test
   void スポット一覧_200で返ること() throws Exception {
     when(spotService.getSpotList(any(), any())).thenReturn(List.of(new SpotListItemDto()));
@@ -52,6 +72,19 @@ class SpotControllerTest {
     verify(spotService, times(1)).getSpotList(any(), any());
   }
 
+  @Test
+  void スポット一覧ページ_次カーソルがヘッダで返ること() throws Exception {
+    when(spotService.getSpotPage(any(), any(), eq(null), eq(2)))
+        .thenReturn(new CursorPage<>(List.of(new SpotListItemDto()), "next-token"));
+
+    mockMvc.perform(get("/api/spots").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "next-token"))
+        .andExpect(jsonPath("$.length()").value(1));
+
+    verify(spotService, times(1)).getSpotPage(any(), any(), eq(null), eq(2));
+  }
+
   @Test
   void スポット詳細_200で返ること() throws Exception {
     SpotDetailDto dto = new SpotDetailDto();
@@ -67,4 +100,137 @@ class SpotControllerTest {
 
     verify(spotService, times(1)).getSpotDetail(eq(1L), any());
   }
+
+  @Test
+  void スポット一覧_ETagが一致する場合は検索せずに304を返すこと() throws Exception {
+    when(spotService.getCatalogETag(any())).thenReturn("\"c1-1\"");
+
+    mockMvc.perform(get("/api/spots").header("If-None-Match", "\"c1-1\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"c1-1\""));
+
+    verify(spotService, never()).getSpotList(any(), any());
+  }
+
+  @Test
+  void スポット一覧_ETagが一致しない場合は200でETagを返すこと() throws Exception {
+    when(spotService.getCatalogETag(any())).thenReturn("\"c1-2\"");
+    when(spotService.getSpotList(any(), any())).thenReturn(List.of(new SpotListItemDto()));
+
+    mockMvc.perform(get("/api/spots").header("If-None-Match", "\"c1-1\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"c1-2\""));
+  }
+
+  @Test
+  void スポット一覧ストリーム_NDJSONで1行1件ずつ返ること() throws Exception {
+    doAnswer(invocation -> {
+      Consumer<SpotListItemDto> sink = invocation.getArgument(2);
+      for (long id = 1; id <= 2; id++) {
+        SpotListItemDto dto = new SpotListItemDto();
+        dto.setId(id);
+        sink.accept(dto);
+      }
+      return null;
+    }).when(spotService).streamSpotList(any(), any(), any());
+
+    MvcResult started = mockMvc.perform(get("/api/spots/stream").param("format", "NDJSON"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    MvcResult result = mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andReturn();
+
+    String[] lines = result.getResponse().getContentAsString().split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("{\"id\":1,"));
+    assertTrue(lines[1].startsWith("{\"id\":2,"));
+  }
+
+  @Test
+  void スポット一覧ストリーム_既定はJSON配列で返ること() throws Exception {
+    doAnswer(invocation -> {
+      Consumer<SpotListItemDto> sink = invocation.getArgument(2);
+      sink.accept(new SpotListItemDto());
+      return null;
+    }).when(spotService).streamSpotList(any(), any(), any());
+
+    MvcResult started = mockMvc.perform(get("/api/spots/stream"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+  }
+
+  @Test
+  void 近くのスポット_200で距離付きの一覧が返ること() throws Exception {
+    NearbySpotDto dto = new NearbySpotDto();
+    dto.setId(1L);
+    dto.setDistanceKm(1.5);
+    when(spotService.getNearbySpots(any(), any(), eq(34.7), eq(135.5), eq(3.0), eq(null)))
+        .thenReturn(List.of(dto));
+
+    mockMvc.perform(get("/api/spots/nearby")
+            .param("lat", "34.7").param("lng", "135.5").param("radiusKm", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(1))
+        .andExpect(jsonPath("$[0].distanceKm").value(1.5));
+  }
+
+  @Test
+  void 近くのスポット_緯度経度がNaNの場合は400になること() throws Exception {
+    // 入力チェックは SpotService で行うため、実メソッドを呼ぶ（チェックで弾かれ、Mapper までは進まない）
+    when(spotService.getNearbySpots(any(), any(), any(), any(), any(), any())).thenCallRealMethod();
+
+    mockMvc.perform(get("/api/spots/nearby").param("lat", "NaN").param("lng", "135.5"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/spots/nearby").param("lat", "34.7").param("lng", "NaN"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void ファセット_200で件数が返ること() throws Exception {
+    when(spotService.getFacets(any())).thenReturn(new SpotFacetsDto(
+        3, List.of(new FacetCountDto("1", "公園", 3)), List.of(), List.of(), List.of()));
+
+    mockMvc.perform(get("/api/spots/facets").param("categoryIds", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(3))
+        .andExpect(jsonPath("$.categories[0].label").value("公園"));
+
+    verify(spotService, times(1)).getFacets(any());
+  }
+
+  @Test
+  void クラスタ_200でクラスタ一覧が返ること() throws Exception {
+    when(spotService.getClusters("135.9,34.8,136.4,35.1", 12))
+        .thenReturn(List.of(new SpotClusterDto(8, 34.96, 136.16, 1L)));
+
+    mockMvc.perform(get("/api/spots/clusters").param("bbox", "135.9,34.8,136.4,35.1").param("zoom", "12"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].count").value(8))
+        .andExpect(jsonPath("$[0].spotId").value(1));
+
+    verify(spotService, times(1)).getClusters("135.9,34.8,136.4,35.1", 12);
+  }
+
+  @Test
+  void スポット詳細まとめて取得_200で詳細と見つからないIDが返ること() throws Exception {
+    SpotDetailDto dto = new SpotDetailDto();
+    dto.setId(1L);
+    dto.setName("テストスポット");
+    when(spotService.getSpotDetails(List.of(1L, 999L), null))
+        .thenReturn(new SpotBatchDto(List.of(dto), List.of(999L)));
+
+    mockMvc.perform(get("/api/spots/batch").param("ids", "1,999"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.spots[0].id").value(1))
+        .andExpect(jsonPath("$.missingIds[0]").value(999));
+
+    verify(spotService, times(1)).getSpotDetails(List.of(1L, 999L), null);
+  }
 }
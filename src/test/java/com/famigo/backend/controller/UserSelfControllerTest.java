@@ -19,6 +19,7 @@ import com.famigo.backend.exception.GlobalExceptionHandler;
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.AppUserPrincipal;
 import com.famigo.backend.security.JwtTokenProvider;
+import com.famigo.backend.security.UserPrincipalCache;
 import com.famigo.backend.service.UserSelfService;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -54,6 +55,9 @@ class UserSelfControllerTest {
   @MockitoBean
   private UserMapper userMapper;
 
+  @MockitoBean
+  private UserPrincipalCache userPrincipalCache;
+
   /**
    * @AuthenticationPrincipal AppUserPrincipal に渡す principal を作るヘルパー
    */
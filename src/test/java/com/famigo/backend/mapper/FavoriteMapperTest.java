@@ -33,4 +33,31 @@ class FavoriteMapperTest extends MybatisTestBase {
     sut.logicalDeleteFavorite(userId, spotId);
     assertThat(sut.existsActiveFavorite(userId, spotId)).isFalse();
   }
+
+  @Test
+  void お気に入り中のスポットIDだけが取得できること() {
+    Long userId = 1L;
+
+    sut.upsertFavorite(userId, 1L);
+    sut.upsertFavorite(userId, 2L);
+    sut.logicalDeleteFavorite(userId, 2L);
+
+    assertThat(sut.findActiveFavoriteSpotIds(userId)).contains(1L).doesNotContain(2L);
+  }
+
+  @Test
+  void お気に入り一覧でスポットの緯度経度が取得できること() {
+    Long userId = 1L;
+
+    // スポットID1（水口スポーツの森）は GoogleマップURL から緯度・経度が補完されている
+    sut.upsertFavorite(userId, 1L);
+
+    assertThat(sut.findFavoriteSpots(userId))
+        .filteredOn(s -> s.getId().equals(1L))
+        .singleElement()
+        .satisfies(s -> {
+          assertThat(s.getLatitude()).isNotNull();
+          assertThat(s.getLongitude()).isNotNull();
+        });
+  }
 }
@@ -0,0 +1,331 @@
+package com.famigo.backend.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.famigo.backend.dto.ReviewUpsertRequest;
+import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.entity.User;
+import com.famigo.backend.enums.ChildAgeGroup;
+import com.famigo.backend.enums.SpotSortType;
+import com.famigo.backend.testsupport.MybatisTestBase;
+import com.famigo.backend.testsupport.QueryPlan;
+import com.famigo.backend.testsupport.SyntheticDataset;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 全 Mapper ステートメントの実行計画を、本番相当の件数の合成データで確認する（スキーマ変更・SQL変更による性能退行の検知）。
+ * 【方針】
+ * - ステートメントごとに代表的なパラメータの組み合わせと「許容する全件読み・filesort・一時テーブル」（予算）を宣言する
+ * - 予算はテーブル別名で書く。c（categories）は10件程度のマスタのため、結合順によって全件読みになってもよい
+ * - 守りたいインデックス（idx_reviews_spot_created など）は、使用インデックスとしても宣言する
+ * - 対象 Mapper に確認ケースの無いステートメントがあれば落とす（SQL を追加したら予算の宣言も追加する）
+ */
+@MybatisTest
+class QueryPlanRegressionTest extends MybatisTestBase {
+
+  private static final List<Class<?>> MAPPERS = List.of(
+      SpotMapper.class, ReviewMapper.class, FavoriteMapper.class, UserMapper.class, CategoryMapper.class,
+      RefreshTokenMapper.class);
+
+  private static long reviewId;
+
+  @Autowired
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @BeforeAll
+  static void loadDataset(@Autowired DataSource dataSource) throws Exception {
+    SyntheticDataset.load(dataSource);
+    reviewId = SyntheticDataset.firstReviewId(dataSource);
+  }
+
+  @AfterAll
+  static void clearDataset(@Autowired DataSource dataSource) throws Exception {
+    SyntheticDataset.clear(dataSource);
+  }
+
+  @TestFactory
+  Stream<DynamicTest> 各ステートメントの実行計画が予算内であること() {
+    return cases().stream().map(planCase -> DynamicTest.dynamicTest(planCase.toString(), () -> {
+      QueryPlan plan = QueryPlan.explain(
+          sqlSessionFactory.getConfiguration(), dataSource, planCase.statementId, planCase.params);
+      planCase.budget.verify(plan);
+    }));
+  }
+
+  @Test
+  void 対象Mapperのすべてのステートメントに確認ケースがあること() {
+    Set<String> declared = cases().stream().map(planCase -> planCase.statementId).collect(Collectors.toSet());
+
+    List<String> missing = sqlSessionFactory.getConfiguration().getMappedStatementNames().stream()
+        .filter(name -> MAPPERS.stream().anyMatch(mapper -> name.startsWith(mapper.getName() + ".")))
+        .filter(name -> !declared.contains(name))
+        .sorted()
+        .toList();
+
+    assertThat(missing).as("実行計画の確認ケースが無いステートメント").isEmpty();
+  }
+
+  private List<PlanCase> cases() {
+    List<PlanCase> cases = new ArrayList<>();
+    long spotId = SyntheticDataset.spotId(1);
+    long userId = SyntheticDataset.userId(1);
+
+    // ---- SpotMapper ----
+    // 一覧・ストリーミング・索引構築は全スポットを返すため、全件読みと並べ替えを許容する
+    cases.add(new PlanCase(SpotMapper.class, "findAllWithCategoryAndFacilities", "条件なし",
+        params("condition", new SpotSearchCondition()), catalogWide()));
+    // 並び順の指定も全件を返す（reviews / favorites を集計せず、spots の集計列だけで並べる）
+    cases.add(new PlanCase(SpotMapper.class, "findAllWithCategoryAndFacilities", "評価順",
+        params("condition", sorted(SpotSortType.RATING)), catalogWide()));
+    cases.add(new PlanCase(SpotMapper.class, "findAllWithCategoryAndFacilities", "キーワード",
+        params("condition", keyword("検証スポット123")),
+        Budget.strict().scans("c").filesort().key("s", "ft_spots_keyword")));
+    cases.add(new PlanCase(SpotMapper.class, "streamWithCategoryAndFacilities", "条件なし",
+        params("condition", new SpotSearchCondition()), catalogWide()));
+    // 先頭ページは PRIMARY 順に読んで LIMIT で打ち切る（index）ため、s の全件読みを許容する
+    cases.add(new PlanCase(SpotMapper.class, "findPageWithCategoryAndFacilities", "先頭ページ",
+        params("condition", new SpotSearchCondition(), "afterId", null, "limit", 21),
+        Budget.strict().scans("s", "c")));
+    cases.add(new PlanCase(SpotMapper.class, "findPageWithCategoryAndFacilities", "2ページ目以降",
+        params("condition", new SpotSearchCondition(), "afterId", SyntheticDataset.spotId(1000), "limit", 21),
+        Budget.strict().scans("c").key("s", "PRIMARY")));
+    cases.add(new PlanCase(SpotMapper.class, "findNearby", "半径3km",
+        params("condition", new SpotSearchCondition(), "lat", 34.5, "lng", 135.5, "radiusKm", 3.0, "limit", 20),
+        Budget.strict().scans("c").filesort().key("s", "idx_spots_location")));
+    cases.add(new PlanCase(SpotMapper.class, "findDetailById", "ID指定",
+        params("id", spotId), Budget.strict()));
+    cases.add(new PlanCase(SpotMapper.class, "findDetailsByIds", "ID3件",
+        params("ids", List.of(spotId, SyntheticDataset.spotId(2), SyntheticDataset.spotId(3))),
+        Budget.strict().key("s", "PRIMARY")));
+    cases.add(new PlanCase(SpotMapper.class, "findCatalogRowsUpdatedSince", "全件構築",
+        params("since", null), catalogWide()));
+    cases.add(new PlanCase(SpotMapper.class, "findCatalogRowsUpdatedSince", "差分取り込み",
+        params("since", LocalDateTime.now().minusMinutes(30)), catalogWide()));
+
+    // ---- ReviewMapper ----
+    // 一覧・ページ取得は (spot_id, is_deleted, created_at, id) の複合インデックスを逆順に読む（並べ替えなし）
+    cases.add(new PlanCase(ReviewMapper.class, "selectReviewsBySpotId", "スポット指定",
+        params("spotId", spotId), Budget.strict().key("r", "idx_reviews_spot_created")));
+    cases.add(new PlanCase(ReviewMapper.class, "selectReviewPageBySpotId", "先頭ページ",
+        params("spotId", spotId, "beforeCreatedAt", null, "beforeId", null, "limit", 21),
+        Budget.strict().key("r", "idx_reviews_spot_created")));
+    cases.add(new PlanCase(ReviewMapper.class, "selectReviewPageBySpotId", "2ページ目以降",
+        params("spotId", spotId, "beforeCreatedAt", LocalDateTime.now().minusDays(1), "beforeId", reviewId,
+            "limit", 21),
+        Budget.strict().key("r", "idx_reviews_spot_created")));
+    cases.add(new PlanCase(ReviewMapper.class, "selectReviewedSpotIds", "ユーザー指定",
+        params("userId", userId), Budget.strict().temporary().key("r", "idx_reviews_user_id")));
+    cases.add(new PlanCase(ReviewMapper.class, "insertReview", "登録",
+        params("spotId", spotId, "userId", userId, "request", review()), Budget.strict()));
+    cases.add(new PlanCase(ReviewMapper.class, "selectReviewAuthInfo", "ID指定",
+        params("reviewId", reviewId), Budget.strict()));
+    cases.add(new PlanCase(ReviewMapper.class, "updateReview", "ID指定",
+        params("spotId", spotId, "reviewId", reviewId, "userId", userId, "isAdmin", false, "request", review()),
+        Budget.strict()));
+    cases.add(new PlanCase(ReviewMapper.class, "lockReviewForEdit", "ID指定",
+        params("spotId", spotId, "reviewId", reviewId, "userId", userId, "isAdmin", false), Budget.strict()));
+    cases.add(new PlanCase(ReviewMapper.class, "softDeleteReview", "ID指定",
+        params("spotId", spotId, "reviewId", reviewId, "userId", userId, "isAdmin", false), Budget.strict()));
+    // レビュー集計の加減算・反映は対象レビュー / 集計行を主キーで1行だけ読む（d は1行だけの導出表）
+    cases.add(new PlanCase(ReviewMapper.class, "applyReviewToSpotStats", "ID指定",
+        params("reviewId", reviewId, "sign", 1), Budget.strict().scans("d")));
+    cases.add(new PlanCase(ReviewMapper.class, "applyReviewEditToSpotStats", "ID指定",
+        params("spotId", spotId, "reviewId", reviewId, "userId", userId, "isAdmin", false, "request", review()),
+        Budget.strict().scans("d")));
+    cases.add(new PlanCase(ReviewMapper.class, "refreshSpotReviewStats", "スポット指定",
+        params("spotId", spotId), Budget.strict()));
+    // 突き合わせは定期実行で reviews を全件集計するため、全件読み・並べ替え・一時テーブルを許容する
+    cases.add(new PlanCase(ReviewMapper.class, "selectSpotIdsWithReviewStatsDrift", "全件",
+        null, Budget.strict().scans("s", "r", "a").filesort().temporary()));
+    cases.add(new PlanCase(ReviewMapper.class, "rebuildSpotReviewStats", "スポット指定",
+        params("spotId", spotId), Budget.strict().scans("a").key("r", "idx_reviews_spot_created")));
+
+    // ---- FavoriteMapper ----
+    cases.add(new PlanCase(FavoriteMapper.class, "upsertFavorite", "登録",
+        params("userId", userId, "spotId", spotId), Budget.strict()));
+    cases.add(new PlanCase(FavoriteMapper.class, "logicalDeleteFavorite", "解除",
+        params("userId", userId, "spotId", spotId), Budget.strict()));
+    cases.add(new PlanCase(FavoriteMapper.class, "refreshSpotFavoriteCount", "スポット指定",
+        params("spotId", spotId), Budget.strict().key("fav", "idx_favorites_spot_id")));
+    cases.add(new PlanCase(FavoriteMapper.class, "existsActiveFavorite", "判定",
+        params("userId", userId, "spotId", spotId), Budget.strict()));
+    cases.add(new PlanCase(FavoriteMapper.class, "findFavoriteSpots", "ユーザー指定",
+        params("userId", userId),
+        Budget.strict().scans("c").filesort().key("fav", "PRIMARY", "idx_favorites_user_id")));
+    cases.add(new PlanCase(FavoriteMapper.class, "findActiveFavoriteSpotIds", "ユーザー指定",
+        params("userId", userId),
+        Budget.strict().key("favorites", "PRIMARY", "idx_favorites_user_id")));
+
+    // ---- UserMapper ----
+    cases.add(new PlanCase(UserMapper.class, "findActiveByEmail", "メールアドレス指定",
+        params("email", SyntheticDataset.userEmail(1)), Budget.strict().key("users", "email")));
+    cases.add(new PlanCase(UserMapper.class, "findActiveById", "ID指定",
+        params("id", userId), Budget.strict()));
+    cases.add(new PlanCase(UserMapper.class, "insert", "登録",
+        newUser(), Budget.strict()));
+    cases.add(new PlanCase(UserMapper.class, "updateProfile", "ID指定",
+        params("id", userId, "name", "検証", "email", "plan-updated@example.com"), Budget.strict()));
+    cases.add(new PlanCase(UserMapper.class, "updatePasswordHash", "ID指定",
+        params("id", userId, "passwordHash", "x"), Budget.strict()));
+    cases.add(new PlanCase(UserMapper.class, "withdraw", "ID指定",
+        params("id", userId, "withdrawnName", "退会ユーザー"), Budget.strict()));
+
+    // ---- RefreshTokenMapper ----
+    String tokenHash = SyntheticDataset.refreshTokenHash(1);
+    cases.add(new PlanCase(RefreshTokenMapper.class, "insert", "登録",
+        params("userId", userId, "tokenHash", SyntheticDataset.refreshTokenHash(0), "expirationDays", 30L),
+        Budget.strict()));
+    cases.add(new PlanCase(RefreshTokenMapper.class, "revoke", "ハッシュ値指定",
+        params("tokenHash", tokenHash),
+        Budget.strict().key("refresh_tokens", "uk_refresh_tokens_token_hash")));
+    cases.add(new PlanCase(RefreshTokenMapper.class, "findUserIdByTokenHash", "ハッシュ値指定",
+        params("tokenHash", tokenHash), Budget.strict()));
+    cases.add(new PlanCase(RefreshTokenMapper.class, "revokeAllByUserId", "ユーザー指定",
+        params("userId", userId),
+        Budget.strict().key("refresh_tokens", "idx_refresh_tokens_user_id")));
+    cases.add(new PlanCase(RefreshTokenMapper.class, "deleteExpired", "期限切れ",
+        params("limit", 1000),
+        Budget.strict().key("refresh_tokens", "idx_refresh_tokens_expires_at")));
+
+    // ---- CategoryMapper ----
+    // categories は10件程度のマスタのため、全件読みと並べ替えを許容する
+    cases.add(new PlanCase(CategoryMapper.class, "selectAll", "全件",
+        null, Budget.strict().scans("categories").filesort()));
+
+    return cases;
+  }
+
+  private static Budget catalogWide() {
+    return Budget.strict().scans("s", "c").filesort().temporary();
+  }
+
+  private static Map<String, Object> params(Object... keyValues) {
+    Map<String, Object> params = new HashMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      params.put((String) keyValues[i], keyValues[i + 1]);
+    }
+    return params;
+  }
+
+  private static SpotSearchCondition keyword(String keyword) {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setKeyword(keyword);
+    return condition;
+  }
+
+  private static SpotSearchCondition sorted(SpotSortType sort) {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setSort(sort);
+    return condition;
+  }
+
+  private static ReviewUpsertRequest review() {
+    ReviewUpsertRequest request = new ReviewUpsertRequest();
+    request.setChildAgeGroup(ChildAgeGroup.PRESCHOOL);
+    request.setRating(5);
+    request.setReviewText("検証");
+    return request;
+  }
+
+  private static User newUser() {
+    User user = new User();
+    user.setName("検証");
+    user.setEmail("plan-new@example.com");
+    user.setPasswordHash("x");
+    user.setRole("USER");
+    return user;
+  }
+
+  /**
+   * 確認ケース（ステートメント × 代表的なパラメータ × 予算）。
+   */
+  private static final class PlanCase {
+
+    private final String statementId;
+    private final String label;
+    private final Object params;
+    private final Budget budget;
+
+    PlanCase(Class<?> mapper, String id, String label, Object params, Budget budget) {
+      this.statementId = mapper.getName() + "." + id;
+      this.label = mapper.getSimpleName() + "." + id + "（" + label + "）";
+      this.params = params;
+      this.budget = budget;
+    }
+
+    @Override
+    public String toString() {
+      return label;
+    }
+  }
+
+  /**
+   * 実行計画の予算（許容する全件読みのテーブル、filesort・一時テーブルの可否、使うべきインデックス）。
+   * 何も指定しない strict() は「全件読み・filesort・一時テーブルなし」。
+   */
+  private static final class Budget {
+
+    private final Set<String> scans = new HashSet<>();
+    private final Map<String, List<String>> keys = new LinkedHashMap<>();
+    private boolean filesort;
+    private boolean temporary;
+
+    static Budget strict() {
+      return new Budget();
+    }
+
+    Budget scans(String... tables) {
+      scans.addAll(Arrays.asList(tables));
+      return this;
+    }
+
+    Budget filesort() {
+      filesort = true;
+      return this;
+    }
+
+    Budget temporary() {
+      temporary = true;
+      return this;
+    }
+
+    Budget key(String table, String... allowed) {
+      keys.put(table, List.of(allowed));
+      return this;
+    }
+
+    void verify(QueryPlan plan) {
+      assertThat(plan.fullScans()).as("予算外の全件読み（ALL / index）: %s", plan).isSubsetOf(scans);
+      if (!filesort) {
+        assertThat(plan.usesFilesort()).as("予算外の filesort: %s", plan).isFalse();
+      }
+      if (!temporary) {
+        assertThat(plan.usesTemporaryTable()).as("予算外の一時テーブル: %s", plan).isFalse();
+      }
+      keys.forEach((table, allowed) ->
+          assertThat(plan.key(table)).as("%s の使用インデックス: %s", table, plan).isIn(allowed));
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.famigo.backend.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.famigo.backend.testsupport.MybatisTestBase;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * リフレッシュトークンは「1回しか使えない」「ユーザー単位で失効できる」「期限切れは使えない」が重要。
+ * 失効の条件がズレると、使用済み・退会済みのトークンでアクセストークンを再発行できてしまうため、ここで押さえる。
+ */
+@MybatisTest
+class RefreshTokenMapperTest extends MybatisTestBase {
+
+  @Autowired
+  private RefreshTokenMapper sut;
+
+  @Test
+  void 有効なトークンは1回だけ失効でき持ち主を取得できること() {
+    sut.insert(1L, "a".repeat(64), 30);
+
+    assertThat(sut.revoke("a".repeat(64))).isEqualTo(1);
+    assertThat(sut.findUserIdByTokenHash("a".repeat(64))).isEqualTo(1L);
+
+    // 使用済み（失効済み）のトークンは再度使えない
+    assertThat(sut.revoke("a".repeat(64))).isZero();
+  }
+
+  @Test
+  void ユーザーのトークンをすべて失効できること() {
+    sut.insert(1L, "b".repeat(64), 30);
+    sut.insert(1L, "c".repeat(64), 30);
+    sut.insert(2L, "d".repeat(64), 30);
+
+    assertThat(sut.revokeAllByUserId(1L)).isEqualTo(2);
+
+    assertThat(sut.revoke("b".repeat(64))).isZero();
+    assertThat(sut.revoke("c".repeat(64))).isZero();
+    // 他のユーザーのトークンは失効しない
+    assertThat(sut.revoke("d".repeat(64))).isEqualTo(1);
+  }
+
+  @Test
+  void 期限切れのトークンは使えず削除されること() {
+    sut.insert(1L, "e".repeat(64), -1);
+
+    assertThat(sut.revoke("e".repeat(64))).isZero();
+    assertThat(sut.deleteExpired(1000)).isGreaterThanOrEqualTo(1);
+    assertThat(sut.findUserIdByTokenHash("e".repeat(64))).isNull();
+  }
+}
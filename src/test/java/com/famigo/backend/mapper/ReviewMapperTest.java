@@ -1,15 +1,32 @@
 package com.famigo.backend.mapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
 
 import com.famigo.backend.dto.ReviewAuthInfoDto;
 import com.famigo.backend.dto.ReviewListItemDto;
 import com.famigo.backend.dto.ReviewUpsertRequest;
+import com.famigo.backend.dto.SpotCatalogRow;
+import com.famigo.backend.dto.SpotReviewStatsDto;
+import com.famigo.backend.enums.ChildAgeGroup;
+import com.famigo.backend.service.CacheStatsRegistry;
+import com.famigo.backend.service.ReviewListCache;
+import com.famigo.backend.service.ReviewService;
+import com.famigo.backend.service.SpotCatalogIndex;
 import com.famigo.backend.testsupport.MybatisTestBase;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * ReviewMapper は「一覧表示」と「編集/削除の認可判定」に直結する。
@@ -22,6 +39,12 @@ class ReviewMapperTest extends MybatisTestBase {
   @Autowired
   private ReviewMapper sut;
 
+  @Autowired
+  private SpotMapper spotMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
   @Test
   void スポットIDに紐づくレビュー一覧が取得できること() {
     // seed前提：spotId=2 が存在する想定（違う場合はseedに合わせてID変更）
@@ -34,6 +57,22 @@ class ReviewMapperTest extends MybatisTestBase {
     assertThat(result.get(0).getChildAgeGroup()).isNotNull();
   }
 
+  @Test
+  void レビュー一覧が投稿日時とIDのキーセット方式でページ取得できること() {
+    // seed前提：spotId=2 にレビューが2件以上存在する想定
+    List<ReviewListItemDto> all = sut.selectReviewsBySpotId(2L);
+    assertThat(all.size()).isGreaterThanOrEqualTo(2);
+
+    List<ReviewListItemDto> first = sut.selectReviewPageBySpotId(2L, null, null, 1);
+    ReviewListItemDto last = first.get(0);
+    List<ReviewListItemDto> rest = sut.selectReviewPageBySpotId(2L, last.getCreatedAt(), last.getId(), 100);
+
+    // 1ページ目 + 続き が一覧取得と同じ並び（重複・抜けなし）になる
+    assertThat(first).extracting(ReviewListItemDto::getId).containsExactly(all.get(0).getId());
+    assertThat(rest).extracting(ReviewListItemDto::getId)
+        .containsExactlyElementsOf(all.subList(1, all.size()).stream().map(ReviewListItemDto::getId).toList());
+  }
+
   @Test
   void レビュー認可情報が取得できること() {
     // seed前提：reviewId=1 が存在する想定（違う場合はseedのIDに合わせて変更）
@@ -53,9 +92,166 @@ class ReviewMapperTest extends MybatisTestBase {
     req.setReviewText("レビューを更新しました。これはテストです。");
     req.setCostTotal(5000);
 
-    int updated = sut.updateReview(2L, 1L, req);
+    Long ownerId = sut.selectReviewAuthInfo(1L).getUserId();
+    int updated = sut.updateReview(2L, 1L, ownerId, false, req);
 
     // 1件更新されること（SQLのwhere条件が効いているかの最低確認）
     assertThat(updated).isEqualTo(1);
   }
+
+  @Test
+  void レビュー更新と削除_投稿者以外はADMINでなければ0件になること() {
+    // seed前提：spotId=2 / reviewId=1 が存在する想定
+    Long otherUserId = sut.selectReviewAuthInfo(1L).getUserId() + 1000;
+    ReviewUpsertRequest req = new ReviewUpsertRequest();
+    req.setRating(2);
+    req.setReviewText("他人による更新のテストです。");
+
+    assertThat(sut.updateReview(2L, 1L, otherUserId, false, req)).isZero();
+    assertThat(sut.softDeleteReview(2L, 1L, otherUserId, false)).isZero();
+
+    // ADMIN は他人のレビューも更新・削除できる
+    assertThat(sut.updateReview(2L, 1L, otherUserId, true, req)).isEqualTo(1);
+    assertThat(sut.softDeleteReview(2L, 1L, otherUserId, true)).isEqualTo(1);
+  }
+
+  @Test
+  void スポットのレビュー集計値が有効なレビューから再計算されること() {
+    // seed前提：spotId=2 にレビューが存在する想定
+    List<ReviewListItemDto> reviews = sut.selectReviewsBySpotId(2L);
+    double average = reviews.stream().mapToInt(ReviewListItemDto::getRating).average().orElse(0);
+
+    int updated = sut.refreshSpotReviewStats(2L);
+
+    SpotCatalogRow row = spotMapper.findCatalogRowsUpdatedSince(null).stream()
+        .filter(r -> r.getId() == 2L).findFirst().orElseThrow();
+    assertThat(updated).isEqualTo(1);
+    assertThat(row.getReviewCount()).isEqualTo(reviews.size());
+    assertThat(row.getRatingAverage()).isCloseTo(average, within(0.005));
+  }
+
+  @Test
+  void 登録したレビューがレビュー集計に加算され削除で差し引かれること() {
+    // seed前提：spotId=2 が存在する想定
+    SpotReviewStatsDto before = spotMapper.findDetailById(2L).getReviewStats();
+
+    ReviewUpsertRequest req = new ReviewUpsertRequest();
+    req.setChildAgeGroup(ChildAgeGroup.PRESCHOOL);
+    req.setRating(5);
+    req.setCrowdLevel(2);
+    req.setReviewText("レビュー集計の加算を確認するテストです。");
+    sut.insertReview(2L, 1L, req);
+    sut.applyReviewToSpotStats(null, 1);
+
+    SpotReviewStatsDto added = spotMapper.findDetailById(2L).getReviewStats();
+    assertThat(added.getReviewCount()).isEqualTo(before.getReviewCount() + 1);
+    assertThat(added.getRating5Count()).isEqualTo(before.getRating5Count() + 1);
+    assertThat(added.getRating1Count()).isEqualTo(before.getRating1Count());
+
+    // 登録したレビュー（最新の1件）を論理削除して差し引く
+    Long reviewId = sut.selectReviewPageBySpotId(2L, null, null, 1).get(0).getId();
+    sut.softDeleteReview(2L, reviewId, 1L, false);
+    sut.applyReviewToSpotStats(reviewId, -1);
+
+    SpotReviewStatsDto removed = spotMapper.findDetailById(2L).getReviewStats();
+    assertThat(removed.getReviewCount()).isEqualTo(before.getReviewCount());
+    assertThat(removed.getRating5Count()).isEqualTo(before.getRating5Count());
+    assertThat(removed.getRatingAverage()).isEqualTo(before.getRatingAverage());
+    assertThat(removed.getCrowdLevelAverage()).isEqualTo(before.getCrowdLevelAverage());
+  }
+
+  @Test
+  void 編集前後の差分がレビュー集計に反映され投稿者以外の編集では集計に触れないこと() {
+    // seed前提：reviewId=1 が spotId=2 のレビューである想定
+    Long ownerId = sut.selectReviewAuthInfo(1L).getUserId();
+    SpotReviewStatsDto before = spotMapper.findDetailById(2L).getReviewStats();
+    int oldRating = sut.selectReviewsBySpotId(2L).stream()
+        .filter(r -> r.getId() == 1L).findFirst().orElseThrow().getRating();
+    int newRating = (oldRating == 5) ? 1 : 5;
+
+    ReviewUpsertRequest req = new ReviewUpsertRequest();
+    req.setChildAgeGroup(ChildAgeGroup.PRESCHOOL);
+    req.setRating(newRating);
+    req.setReviewText("レビュー集計の差分を確認するテストです。");
+
+    // 投稿者以外（ADMIN でもない）の編集は0行で、集計は変わらない
+    sut.applyReviewEditToSpotStats(2L, 1L, ownerId + 1000, false, req);
+    assertThat(spotMapper.findDetailById(2L).getReviewStats().getRatingAverage())
+        .isEqualTo(before.getRatingAverage());
+
+    sut.applyReviewEditToSpotStats(2L, 1L, ownerId, false, req);
+    sut.updateReview(2L, 1L, ownerId, false, req);
+    sut.refreshSpotReviewStats(2L);
+
+    // 件数は変わらず、評価の分布だけが移る。差分の結果は reviews からの集計と一致する
+    SpotReviewStatsDto edited = spotMapper.findDetailById(2L).getReviewStats();
+    assertThat(edited.getReviewCount()).isEqualTo(before.getReviewCount());
+    assertThat(edited.getRatingAverage()).isNotEqualTo(before.getRatingAverage());
+    assertThat(sut.selectSpotIdsWithReviewStatsDrift()).doesNotContain(2L);
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void 同じレビューの同時編集はデッドロックせず順に処理されること() throws Exception {
+    // seed前提：reviewId=1 が spotId=2 のレビューである想定
+    // 2つのトランザクションで同じレビューを編集する。1件目は最初の文の直後で止め、その間に2件目を始める
+    // （最初の文が共有ロックだと、2件目も共有ロックを取って集計行を待ち、1件目は排他ロックへ格上げできずデッドロックになる）
+    Long ownerId = sut.selectReviewAuthInfo(1L).getUserId();
+    ReviewUpsertRequest req = new ReviewUpsertRequest();
+    req.setChildAgeGroup(ChildAgeGroup.PRESCHOOL);
+    req.setRating(5);
+    req.setReviewText("同時編集を確認するテストです。");
+
+    CountDownLatch firstStatementDone = new CountDownLatch(1);
+    AtomicReference<Thread> pausedThread = new AtomicReference<>();
+    ReviewMapper pausing = mock(ReviewMapper.class, invocation -> {
+      Object result = invocation.getMethod().invoke(sut, invocation.getArguments());
+      if (Thread.currentThread() == pausedThread.get() && firstStatementDone.getCount() > 0) {
+        firstStatementDone.countDown();
+        Thread.sleep(500);   // 2件目が最初の文を実行するまで待つ
+      }
+      return result;
+    });
+    ReviewService service = new ReviewService(pausing,
+        new ReviewListCache(pausing, new CacheStatsRegistry(), 100, 60), mock(SpotCatalogIndex.class));
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+    // どちらもロールバックする（seed のレビュー・集計は変えない）
+    CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+      pausedThread.set(Thread.currentThread());
+      tx.executeWithoutResult(status -> {
+        service.updateReview(2L, 1L, ownerId, "USER", req);
+        status.setRollbackOnly();
+      });
+    });
+    assertThat(firstStatementDone.await(10, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+        tx.executeWithoutResult(status -> {
+          service.updateReview(2L, 1L, ownerId, "ADMIN", req);
+          status.setRollbackOnly();
+        }));
+
+    first.get(30, TimeUnit.SECONDS);
+    second.get(30, TimeUnit.SECONDS);
+    assertThat(sut.selectSpotIdsWithReviewStatsDrift()).doesNotContain(2L);
+  }
+
+  @Test
+  void ずれたレビュー集計が突き合わせで検出されreviewsから作り直せること() {
+    // seed前提：reviewId=1 が spotId=2 のレビューである想定
+    assertThat(sut.selectSpotIdsWithReviewStatsDrift()).doesNotContain(2L);
+    SpotReviewStatsDto before = spotMapper.findDetailById(2L).getReviewStats();
+
+    // 同じレビューを二重に加算して、集計をずらす
+    sut.applyReviewToSpotStats(1L, 1);
+    assertThat(sut.selectSpotIdsWithReviewStatsDrift()).contains(2L);
+
+    sut.rebuildSpotReviewStats(2L);
+    sut.refreshSpotReviewStats(2L);
+
+    assertThat(sut.selectSpotIdsWithReviewStatsDrift()).doesNotContain(2L);
+    SpotReviewStatsDto rebuilt = spotMapper.findDetailById(2L).getReviewStats();
+    assertThat(rebuilt.getReviewCount()).isEqualTo(before.getReviewCount());
+    assertThat(rebuilt.getRatingAverage()).isEqualTo(before.getRatingAverage());
+  }
 }
@@ -2,14 +2,31 @@ package com.famigo.backend.mapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.famigo.backend.dto.NearbySpotDto;
 import com.famigo.backend.dto.SpotDetailDto;
 import com.famigo.backend.dto.SpotListItemDto;
 import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.enums.SpotSortType;
 import com.famigo.backend.testsupport.MybatisTestBase;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.Test;
 import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 
 /**
  * SpotMapper はSQLが複雑になりやすい（JOIN/検索条件/設備など）ので
@@ -21,11 +38,17 @@ class SpotMapperTest extends MybatisTestBase {
   @Autowired
   private SpotMapper sut;
 
+  @Autowired
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Autowired
+  private DataSource dataSource;
+
   @Test
   void スポット一覧が取得できること_条件なし() {
-    // 条件未指定（conditionが空）＋未ログイン（userId=null）でも落ちないことが重要（フロント初期表示に直結）
+    // 条件未指定（conditionが空）でも落ちないことが重要（フロント初期表示に直結）
     SpotSearchCondition condition = new SpotSearchCondition();
-    List<SpotListItemDto> result = sut.findAllWithCategoryAndFacilities(condition, null);
+    List<SpotListItemDto> result = sut.findAllWithCategoryAndFacilities(condition);
 
     assertThat(result).isNotNull();
     assertThat(result).isNotEmpty();
@@ -33,10 +56,156 @@ class SpotMapperTest extends MybatisTestBase {
     assertThat(result.get(0).getName()).isNotBlank();
   }
 
+  @Test
+  void スポット一覧がレビュー件数の多い順に取得できること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setSort(SpotSortType.REVIEWS);
+
+    List<SpotListItemDto> result = sut.findAllWithCategoryAndFacilities(condition);
+
+    // レビュー件数の降順（同じ件数は ID 昇順）
+    assertThat(result).isNotEmpty();
+    assertThat(result).isSortedAccordingTo(
+        Comparator.comparing(SpotListItemDto::getReviewCount).reversed()
+            .thenComparing(SpotListItemDto::getId));
+  }
+
+  @Test
+  void スポット一覧がキーセット方式でページ取得できること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+
+    List<SpotListItemDto> first = sut.findPageWithCategoryAndFacilities(condition, null, 2);
+    assertThat(first).hasSize(2);
+
+    // 前ページ最後のIDより後ろだけが返る（重複なし・ID昇順）
+    Long lastId = first.get(1).getId();
+    List<SpotListItemDto> second = sut.findPageWithCategoryAndFacilities(condition, lastId, 2);
+    assertThat(second).isNotEmpty();
+    assertThat(second).allSatisfy(s -> assertThat(s.getId()).isGreaterThan(lastId));
+  }
+
+  @Test
+  void スポット一覧がカーソルで一覧取得と同じ順に読み出せること() throws Exception {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    List<Long> expected = sut.findAllWithCategoryAndFacilities(condition).stream()
+        .map(SpotListItemDto::getId)
+        .toList();
+
+    // ストリーミング中はコネクションを占有するため、一覧取得の後で読み出す
+    List<Long> streamed = new ArrayList<>();
+    try (Cursor<SpotListItemDto> cursor = sut.streamWithCategoryAndFacilities(condition)) {
+      cursor.forEach(s -> streamed.add(s.getId()));
+    }
+
+    assertThat(streamed).isEqualTo(expected);
+  }
+
+  @Test
+  void 近くのスポットが半径内だけ近い順に取得できること() {
+    // 水口スポーツの森（GoogleマップURL から補完された座標）のすぐ近くを中心にする
+    SpotSearchCondition condition = new SpotSearchCondition();
+    List<NearbySpotDto> result = sut.findNearby(condition, 34.9599, 136.1625, 10, 5);
+
+    assertThat(result).isNotEmpty();
+    assertThat(result.get(0).getName()).isEqualTo("水口スポーツの森");
+    assertThat(result.get(0).getDistanceKm()).isLessThan(0.1);
+    assertThat(result).allSatisfy(s -> assertThat(s.getDistanceKm()).isLessThanOrEqualTo(10.0));
+    assertThat(result).extracting(NearbySpotDto::getDistanceKm).isSorted();
+  }
+
+  @Test
+  void 近くのスポットの距離が実際の緯度経度どおりに計算されること() throws Exception {
+    // 京都駅（34.985849, 135.758767）にスポットを置き、大阪駅（34.702485, 135.495951）から検索する
+    // 2点間の大圏距離は約 39.6km（緯度と経度を取り違えると約 36.9km になる）
+    // テストのトランザクションと同じコネクションで登録する（テスト後にロールバックされる）
+    Connection con = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement ps = con.prepareStatement("""
+        INSERT INTO spots (category_id, name, address, area, price_type,
+                           latitude, longitude, created_at, updated_at, is_deleted)
+        VALUES (1, '距離検証スポット', '京都府京都市下京区', '京都市', '無料',
+                34.985849, 135.758767, NOW(), NOW(), 0)
+        """)) {
+      ps.executeUpdate();
+    }
+
+    SpotSearchCondition condition = new SpotSearchCondition();
+    List<NearbySpotDto> result = sut.findNearby(condition, 34.702485, 135.495951, 50, 100);
+
+    assertThat(result).filteredOn(s -> s.getName().equals("距離検証スポット"))
+        .singleElement()
+        .satisfies(s -> assertThat(s.getDistanceKm()).isBetween(39.3, 39.9));
+  }
+
+  @Test
+  void 緯度経度はGoogleマップURLの最後の座標から補完されていること() {
+    // seed の 2（滋賀県希望ヶ丘文化公園）の URL は公園（35.0541662, 136.0684148）の座標が先、
+    // スポーツ会館（35.0579612, 136.0507334）の座標が後に入っている。ピンの位置は後の組
+    SpotDetailDto detail = sut.findDetailById(2L);
+
+    assertThat(detail.getLatitude()).isEqualTo(35.057961);
+    assertThat(detail.getLongitude()).isEqualTo(136.050733);
+  }
+
+  @Test
+  void キーワード検索で名前_住所_エリアのいずれかに部分一致するスポットだけが返ること() {
+    // 2文字以上（FULLTEXT で絞り込み）と1文字（LIKE のみ）の両方で、部分一致の結果になることを確認
+    for (String keyword : List.of("公園", "スポーツの森", "森")) {
+      SpotSearchCondition condition = new SpotSearchCondition();
+      condition.setKeyword(keyword);
+
+      List<SpotListItemDto> result = sut.findAllWithCategoryAndFacilities(condition);
+
+      assertThat(result).as(keyword).isNotEmpty();
+      assertThat(result).as(keyword).allSatisfy(s ->
+          assertThat(s.getName() + s.getAddress() + s.getArea()).contains(keyword));
+    }
+  }
+
+  @Test
+  void キーワードのパーセントとアンダースコアはLIKEのワイルドカードとして扱われること() {
+    // FULLTEXT のフレーズにすると文字どおりの % _ を探して0件になるため、LIKE だけで検索される
+    for (String keyword : List.of("水口%の森", "水口スポーツ_森")) {
+      SpotSearchCondition condition = new SpotSearchCondition();
+      condition.setKeyword(keyword);
+
+      List<SpotListItemDto> result = sut.findAllWithCategoryAndFacilities(condition);
+
+      assertThat(result).as(keyword).extracting(SpotListItemDto::getName).contains("水口スポーツの森");
+    }
+  }
+
+  @Test
+  void 設備で絞り込むと選択した設備をすべて持つスポットだけが返ること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setFacilities(List.of("diaper", "playground"));
+
+    List<SpotListItemDto> result = sut.findAllWithCategoryAndFacilities(condition);
+
+    assertThat(result).isNotEmpty();
+    assertThat(result).allSatisfy(s -> {
+      assertThat(s.getDiaperChanging()).isTrue();
+      assertThat(s.getPlayground()).isTrue();
+    });
+  }
+
+  @Test
+  void キーワード検索でFULLTEXTインデックスが使われること() throws Exception {
+    // Mapper が実際に発行する SQL を EXPLAIN し、spots が ft_spots_keyword で引かれていることを確認する
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setKeyword("公園");
+
+    Map<String, Object> params = new HashMap<>();
+    params.put("condition", condition);
+
+    List<String> plan = explain("findAllWithCategoryAndFacilities", params);
+
+    assertThat(plan).contains("s:fulltext:ft_spots_keyword");
+  }
+
   @Test
   void スポット詳細が取得できること_スポットID1() {
     // seedに1件は入っている想定（もしseed変更ならIDだけ合わせる）
-    SpotDetailDto detail = sut.findDetailById(1L, null);
+    SpotDetailDto detail = sut.findDetailById(1L);
 
     assertThat(detail).isNotNull();
     assertThat(detail.getId()).isEqualTo(1L);
@@ -45,7 +214,38 @@ class SpotMapperTest extends MybatisTestBase {
 
   @Test
   void 存在しないスポットIDではnullになること() {
-    SpotDetailDto detail = sut.findDetailById(999999L, null);
+    SpotDetailDto detail = sut.findDetailById(999999L);
     assertThat(detail).isNull();
   }
+
+  @Test
+  void 複数のスポット詳細が1回で取得でき存在しないIDは含まれないこと() {
+    List<SpotDetailDto> details = sut.findDetailsByIds(List.of(2L, 999999L, 1L));
+
+    assertThat(details).extracting(SpotDetailDto::getId).containsExactly(1L, 2L);
+    assertThat(details).allSatisfy(detail -> assertThat(detail.getName()).isNotBlank());
+  }
+
+  /**
+   * Mapper の SQL を EXPLAIN し、各行を「テーブル別名:アクセス方式:使用インデックス」の形で返す。
+   */
+  private List<String> explain(String statementId, Object params) throws Exception {
+    MappedStatement ms = sqlSessionFactory.getConfiguration()
+        .getMappedStatement(SpotMapper.class.getName() + "." + statementId);
+    BoundSql boundSql = ms.getBoundSql(params);
+
+    List<String> plan = new ArrayList<>();
+    try (Connection con = dataSource.getConnection();
+        PreparedStatement ps = con.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+      ParameterHandler handler = new DefaultParameterHandler(ms, params, boundSql);
+      handler.setParameters(ps);
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          plan.add(rs.getString("table") + ":" + rs.getString("type") + ":" + rs.getString("key"));
+        }
+      }
+    }
+    return plan;
+  }
 }
@@ -0,0 +1,48 @@
+package com.famigo.backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt の強度は起動時に決まり、ログイン時に保存済みハッシュを作り直す判断に使うため、
+ * 「強度は下限〜上限に収まる」「強度が低いハッシュだけ作り直す（下げない）」が重要。
+ */
+class AdaptiveBCryptPasswordEncoderTest {
+
+  @Test
+  void 強度が低いハッシュだけが作り直し対象になり高いハッシュは下げないこと() {
+    AdaptiveBCryptPasswordEncoder sut = new AdaptiveBCryptPasswordEncoder(5);
+
+    assertTrue(sut.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123")));
+    // 強度の異なるインスタンスが混在しても、作り直しを繰り返さない
+    assertFalse(sut.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password123")));
+    assertFalse(sut.upgradeEncoding(sut.encode("password123")));
+  }
+
+  @Test
+  void BCrypt形式でないハッシュは作り直し対象にしないこと() {
+    AdaptiveBCryptPasswordEncoder sut = new AdaptiveBCryptPasswordEncoder(5);
+
+    assertFalse(sut.upgradeEncoding(null));
+    assertFalse(sut.upgradeEncoding("plain-text"));
+  }
+
+  @Test
+  void 目標時間に収まらない場合も強度は下限を使うこと() {
+    AdaptiveBCryptPasswordEncoder sut = AdaptiveBCryptPasswordEncoder.calibrate(-1, 4, 6);
+
+    assertEquals(4, sut.getStrength());
+    assertTrue(sut.matches("password123", sut.encode("password123")));
+  }
+
+  @Test
+  void 強度は上限を超えないこと() {
+    AdaptiveBCryptPasswordEncoder sut = AdaptiveBCryptPasswordEncoder.calibrate(60_000, 4, 5);
+
+    assertEquals(5, sut.getStrength());
+  }
+}
@@ -0,0 +1,100 @@
+package com.famigo.backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * パスワードのハッシュ計算は専用スレッドで行うため、「結果は BCrypt と同じ」「満杯なら待たずに 503」が重要。
+ * 満杯時に待たせてしまうと、ログイン集中時にリクエストのスレッドが埋まり、他の API まで止まるため、ここで押さえる。
+ */
+class BoundedPasswordEncoderTest {
+
+  private BoundedPasswordEncoder sut;
+
+  @AfterEach
+  void after() {
+    sut.destroy();
+  }
+
+  @Test
+  void 専用スレッドでハッシュ化し照合できること() {
+    sut = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1);
+
+    String hashed = sut.encode("password123");
+
+    assertTrue(sut.matches("password123", hashed));
+    assertFalse(sut.matches("wrongpass", hashed));
+  }
+
+  @Test
+  void 計算中で待ち行列も満杯なら待たずに503になること() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    sut = new BoundedPasswordEncoder(new BlockingEncoder(started, release), 1, 1);
+
+    // 1件目：計算中（release まで終わらない）、2件目：待ち行列
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> sut.encode("a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> sut.encode("b"));
+    waitUntilQueued();
+
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.encode("c"));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+
+    // 計算が終われば待っていた分は通常どおり返る
+    release.countDown();
+    assertEquals("hashed:a", first.get(5, TimeUnit.SECONDS));
+    assertEquals("hashed:b", second.get(5, TimeUnit.SECONDS));
+  }
+
+  private void waitUntilQueued() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (sut.getQueuedCount() < 1 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, sut.getQueuedCount());
+  }
+
+  /**
+   * release されるまでハッシュ計算が終わらない PasswordEncoder（計算中の状態を作るため）。
+   */
+  private static final class BlockingEncoder implements PasswordEncoder {
+
+    private final CountDownLatch started;
+    private final CountDownLatch release;
+
+    private BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+      this.started = started;
+      this.release = release;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "hashed:" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      return encodedPassword.equals(encode(rawPassword));
+    }
+  }
+}
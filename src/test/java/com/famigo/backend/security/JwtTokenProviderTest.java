@@ -0,0 +1,66 @@
+package com.famigo.backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.famigo.backend.dto.CacheStatsDto;
+import com.famigo.backend.service.CacheStatsRegistry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JWT の検証結果は保持して使い回すため、「正しいトークンは1回だけ検証」「不正・期限切れは保持せず毎回弾く」が重要。
+ * 改ざんされたトークンが検証済みとして扱われると、なりすましにつながるため、ここで押さえる。
+ */
+class JwtTokenProviderTest {
+
+  private static final String SECRET = "TEST_SECRET_0123456789_TEST_SECRET_0123456789";
+
+  private CacheStatsRegistry cacheStatsRegistry;
+
+  private JwtTokenProvider sut;
+
+  @BeforeEach
+  void before() {
+    cacheStatsRegistry = new CacheStatsRegistry();
+    sut = new JwtTokenProvider(SECRET, 60L, cacheStatsRegistry, 100);
+  }
+
+  @Test
+  void 発行したトークンからuidとroleを取り出し2回目は保持した値を返すこと() {
+    String token = sut.generateToken(1L, "a@example.com", "ADMIN");
+
+    VerifiedToken first = sut.verify(token);
+    VerifiedToken second = sut.verify(token);
+
+    assertEquals(1L, first.getUserId());
+    assertEquals("ADMIN", first.getRole());
+    assertSame(first, second);
+
+    CacheStatsDto stats = cacheStatsRegistry.snapshot().get(0);
+    assertEquals(JwtTokenProvider.VERIFIED_TOKENS, stats.getName());
+    assertEquals(1L, stats.getHitCount());
+  }
+
+  @Test
+  void 中身を書き換えたトークンは例外になり保持されないこと() {
+    String[] token = sut.generateToken(1L, "a@example.com", "USER").split("\\.");
+    String[] other = sut.generateToken(2L, "b@example.com", "ADMIN").split("\\.");
+    // 別ユーザーの中身（payload）に、元のトークンの署名を付け替える
+    String tampered = token[0] + "." + other[1] + "." + token[2];
+
+    assertThrows(SignatureException.class, () -> sut.verify(tampered));
+    assertThrows(SignatureException.class, () -> sut.verify(tampered));
+  }
+
+  @Test
+  void 有効期限切れのトークンは例外になること() {
+    JwtTokenProvider expired = new JwtTokenProvider(SECRET, -1L, new CacheStatsRegistry(), 100);
+    String token = expired.generateToken(1L, "a@example.com", "USER");
+
+    assertThrows(ExpiredJwtException.class, () -> expired.verify(token));
+  }
+}
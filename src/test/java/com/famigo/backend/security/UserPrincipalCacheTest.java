@@ -0,0 +1,76 @@
+package com.famigo.backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.famigo.backend.entity.User;
+import com.famigo.backend.mapper.UserMapper;
+import com.famigo.backend.service.CacheStatsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * ログインユーザー情報のキャッシュは「DBは1回だけ」「破棄後・退会後は最新の状態」が重要。
+ * 破棄が漏れると、メール変更前の principal や退会済みユーザーが認証されたままになるため、ここで押さえる。
+ */
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+
+  @Mock
+  private UserMapper userMapper;
+
+  private UserPrincipalCache sut;
+
+  @BeforeEach
+  void before() {
+    sut = new UserPrincipalCache(userMapper, new CacheStatsRegistry(), 100, 60);
+  }
+
+  @Test
+  void 同じユーザーはDBを1回だけ読みロールから権限を作ること() {
+    when(userMapper.findActiveById(1L)).thenReturn(user(1L, "a@example.com", "ADMIN"));
+
+    sut.get(1L);
+    AppUserPrincipal principal = sut.get(1L);
+
+    verify(userMapper, times(1)).findActiveById(1L);
+    assertEquals("a@example.com", principal.getEmail());
+    assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+  }
+
+  @Test
+  void 破棄後は最新のユーザー情報を読み直すこと() {
+    when(userMapper.findActiveById(1L))
+        .thenReturn(user(1L, "before@example.com", "USER"))
+        .thenReturn(user(1L, "after@example.com", "USER"));
+
+    sut.get(1L);
+    sut.evict(1L);
+
+    assertEquals("after@example.com", sut.get(1L).getEmail());
+  }
+
+  @Test
+  void 退会済みユーザーはnullを返し保持しないこと() {
+    when(userMapper.findActiveById(1L)).thenReturn(null);
+
+    assertNull(sut.get(1L));
+    assertNull(sut.get(1L));
+
+    verify(userMapper, times(2)).findActiveById(1L);
+  }
+
+  private static User user(Long id, String email, String role) {
+    User user = new User();
+    user.setId(id);
+    user.setEmail(email);
+    user.setRole(role);
+    return user;
+  }
+}
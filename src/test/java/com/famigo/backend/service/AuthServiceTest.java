@@ -2,9 +2,16 @@ package com.famigo.backend.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.famigo.backend.dto.auth.LoginRequest;
+import com.famigo.backend.dto.auth.LoginResponse;
+import com.famigo.backend.dto.auth.RefreshTokenRequest;
 import com.famigo.backend.dto.auth.RegisterRequest;
 import com.famigo.backend.entity.User;
 import com.famigo.backend.mapper.UserMapper;
@@ -34,11 +41,14 @@ public class AuthServiceTest {
   @Mock
   private JwtTokenProvider jwtTokenProvider;
 
+  @Mock
+  private RefreshTokenService refreshTokenService;
+
   private AuthService sut;
 
   @BeforeEach
   void before(){
-    sut = new AuthService(userMapper,passwordEncoder,jwtTokenProvider);
+    sut = new AuthService(userMapper,passwordEncoder,jwtTokenProvider,refreshTokenService);
   }
 
   @Test
@@ -66,6 +76,72 @@ public class AuthServiceTest {
     assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
   }
 
+  @Test
+  void ログイン_ハッシュの強度が設定と異なる場合_作り直して保存すること() {
+    User user = new User();
+    user.setId(1L);
+    user.setEmail("test1@example.com");
+    user.setPasswordHash("old-hashed");
+
+    when(userMapper.findActiveByEmail("test1@example.com")).thenReturn(user);
+    when(passwordEncoder.matches("pass1234", "old-hashed")).thenReturn(true);
+    when(passwordEncoder.upgradeEncoding("old-hashed")).thenReturn(true);
+    when(passwordEncoder.encode("pass1234")).thenReturn("new-hashed");
+
+    sut.login(new LoginRequest("test1@example.com", "pass1234"));
+
+    verify(userMapper).updatePasswordHash(1L, "new-hashed");
+  }
+
+  @Test
+  void ログイン_ハッシュの強度が設定どおりの場合_作り直さないこと() {
+    User user = new User();
+    user.setId(1L);
+    user.setEmail("test1@example.com");
+    user.setPasswordHash("hashed");
+
+    when(userMapper.findActiveByEmail("test1@example.com")).thenReturn(user);
+    when(passwordEncoder.matches("pass1234", "hashed")).thenReturn(true);
+    when(passwordEncoder.upgradeEncoding("hashed")).thenReturn(false);
+
+    sut.login(new LoginRequest("test1@example.com", "pass1234"));
+
+    verify(userMapper, never()).updatePasswordHash(eq(1L), anyString());
+    verify(passwordEncoder, never()).encode(anyString());
+  }
+
+  @Test
+  void 再発行_有効なリフレッシュトークンの場合_新しいトークンを返すこと() {
+    User user = new User();
+    user.setId(1L);
+    user.setEmail("test1@example.com");
+    user.setRole("USER");
+
+    when(refreshTokenService.consume("refresh-old")).thenReturn(1L);
+    when(userMapper.findActiveById(1L)).thenReturn(user);
+    when(jwtTokenProvider.generateToken(1L, "test1@example.com", "USER")).thenReturn("access-new");
+    when(refreshTokenService.issue(1L)).thenReturn("refresh-new");
+
+    LoginResponse response = sut.refresh(new RefreshTokenRequest("refresh-old"));
+
+    assertEquals("access-new", response.getAccessToken());
+    assertEquals("refresh-new", response.getRefreshToken());
+    // パスワードの照合は行わないこと
+    verify(passwordEncoder, never()).matches(any(), any());
+  }
+
+  @Test
+  void 再発行_退会済みユーザーの場合_401になり新しいトークンを発行しないこと() {
+    when(refreshTokenService.consume("refresh-old")).thenReturn(1L);
+    when(userMapper.findActiveById(1L)).thenReturn(null);
+
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.refresh(new RefreshTokenRequest("refresh-old")));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+    verify(refreshTokenService, never()).issue(any());
+  }
+
   @Test
   void 登録_メール重複の場合_409になること() {
     User existing = new User();
@@ -0,0 +1,66 @@
+package com.famigo.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import com.famigo.backend.service.FavoriteSetCache.FavoriteSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * ETag は「変更がなければ同じ値」「カタログ・お気に入りが変われば別の値」が重要。
+ * ここがズレると 304 で古い一覧を返し続ける（または 304 にならない）。
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogETagsTest {
+
+  @Mock
+  private SpotCatalogIndex spotCatalogIndex;
+
+  @Mock
+  private FavoriteSetCache favoriteSetCache;
+
+  private CatalogETags sut;
+
+  @BeforeEach
+  void before() {
+    sut = new CatalogETags(spotCatalogIndex, favoriteSetCache);
+  }
+
+  @Test
+  void 索引が未構築の場合はETagを付けないこと() {
+    when(spotCatalogIndex.getVersion()).thenReturn(0L);
+
+    assertNull(sut.forCatalog());
+    assertNull(sut.forUser(10L));
+  }
+
+  @Test
+  void カタログ版数が変わるとETagも変わること() {
+    when(spotCatalogIndex.getVersion()).thenReturn(1L, 1L, 2L);
+
+    String first = sut.forCatalog();
+
+    assertEquals(first, sut.forCatalog());
+    assertNotEquals(first, sut.forCatalog());
+  }
+
+  @Test
+  void お気に入りが変わるとユーザーのETagも変わること() {
+    when(spotCatalogIndex.getVersion()).thenReturn(1L);
+    when(favoriteSetCache.get(10L)).thenReturn(
+        FavoriteSet.of(List.of(1L)), FavoriteSet.of(List.of(1L)), FavoriteSet.of(List.of(1L, 2L)));
+
+    String first = sut.forUser(10L);
+
+    assertEquals(first, sut.forUser(10L));
+    assertNotEquals(first, sut.forUser(10L));
+    assertNotEquals(sut.forCatalog(), first);
+  }
+}
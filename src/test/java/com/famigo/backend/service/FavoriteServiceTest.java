@@ -20,29 +20,36 @@ class FavoriteServiceTest {
   @Mock
   private FavoriteMapper favoriteMapper;
 
+  @Mock
+  private FavoriteSetCache favoriteSetCache;
+
   private FavoriteService sut;
 
   @BeforeEach
   void before() {
-    sut = new FavoriteService(favoriteMapper);
+    sut = new FavoriteService(favoriteMapper, favoriteSetCache);
   }
 
   @Test
   void お気に入り登録でMapperが呼ばれること() {
     sut.addFavorite(1L, 2L);
     verify(favoriteMapper, times(1)).upsertFavorite(1L, 2L);
+    verify(favoriteMapper, times(1)).refreshSpotFavoriteCount(2L);
+    verify(favoriteSetCache, times(1)).added(1L, 2L);
   }
 
   @Test
   void お気に入り解除でMapperが呼ばれること() {
     sut.removeFavorite(1L, 2L);
     verify(favoriteMapper, times(1)).logicalDeleteFavorite(1L, 2L);
+    verify(favoriteMapper, times(1)).refreshSpotFavoriteCount(2L);
+    verify(favoriteSetCache, times(1)).removed(1L, 2L);
   }
 
   @Test
-  void お気に入り判定でMapperが呼ばれること() {
+  void お気に入り判定はキャッシュで行われること() {
     sut.isFavorite(1L, 2L);
-    verify(favoriteMapper, times(1)).existsActiveFavorite(1L, 2L);
+    verify(favoriteSetCache, times(1)).contains(1L, 2L);
   }
 
   @Test
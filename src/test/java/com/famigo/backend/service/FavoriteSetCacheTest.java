@@ -0,0 +1,96 @@
+package com.famigo.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.famigo.backend.mapper.FavoriteMapper;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * FavoriteSetCache は「DB を読むのは初回だけ」「登録・解除がキャッシュに反映される」ことが重要。
+ * ここがズレると一覧のハートの表示がDBとずれる。
+ */
+@ExtendWith(MockitoExtension.class)
+class FavoriteSetCacheTest {
+
+  @Mock
+  private FavoriteMapper favoriteMapper;
+
+  private FavoriteSetCache sut;
+
+  @BeforeEach
+  void before() {
+    sut = new FavoriteSetCache(favoriteMapper, new CacheStatsRegistry(), 100, 30);
+  }
+
+  @AfterEach
+  void after() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void 同じユーザーの判定ではDBを1回だけ読むこと() {
+    when(favoriteMapper.findActiveFavoriteSpotIds(1L)).thenReturn(List.of(3L, 1L));
+
+    assertThat(sut.contains(1L, 1L)).isTrue();
+    assertThat(sut.contains(1L, 3L)).isTrue();
+    assertThat(sut.contains(1L, 2L)).isFalse();
+
+    verify(favoriteMapper, times(1)).findActiveFavoriteSpotIds(1L);
+  }
+
+  @Test
+  void 登録と解除がキャッシュに反映されること() {
+    when(favoriteMapper.findActiveFavoriteSpotIds(1L)).thenReturn(List.of(1L));
+    sut.get(1L);
+
+    sut.added(1L, 5L);
+    sut.removed(1L, 1L);
+
+    assertThat(sut.contains(1L, 5L)).isTrue();
+    assertThat(sut.contains(1L, 1L)).isFalse();
+    verify(favoriteMapper, times(1)).findActiveFavoriteSpotIds(1L);
+  }
+
+  @Test
+  void 未キャッシュのユーザーへの登録は次回の読み込みに任せること() {
+    sut.added(2L, 5L);
+
+    when(favoriteMapper.findActiveFavoriteSpotIds(2L)).thenReturn(List.of(5L));
+    assertThat(sut.contains(2L, 5L)).isTrue();
+  }
+
+  @Test
+  void トランザクション内の登録と解除はコミット後に反映しロールバック時は反映しないこと() {
+    when(favoriteMapper.findActiveFavoriteSpotIds(1L)).thenReturn(List.of(1L));
+    sut.get(1L);
+
+    // ロールバック：反映しない
+    TransactionSynchronizationManager.initSynchronization();
+    sut.added(1L, 5L);
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    TransactionSynchronizationManager.clearSynchronization();
+    assertThat(sut.contains(1L, 5L)).isFalse();
+
+    // コミット：コミットまでは反映せず、コミット後に反映する
+    TransactionSynchronizationManager.initSynchronization();
+    sut.removed(1L, 1L);
+    assertThat(sut.contains(1L, 1L)).isTrue();
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    TransactionSynchronizationManager.clearSynchronization();
+    assertThat(sut.contains(1L, 1L)).isFalse();
+  }
+}
@@ -0,0 +1,69 @@
+package com.famigo.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.famigo.backend.mapper.RefreshTokenMapper;
+import com.famigo.backend.security.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * リフレッシュトークンは「DBにはハッシュ値だけを保存」「使用済み・無効なトークンは 401」が重要。
+ * トークン本体が保存されたり、失効できなかったトークンで再発行できたりすると、なりすましにつながるため、ここで押さえる。
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+  @Mock
+  private RefreshTokenMapper refreshTokenMapper;
+
+  private RefreshTokenService sut;
+
+  @BeforeEach
+  void before() {
+    sut = new RefreshTokenService(refreshTokenMapper, 30);
+  }
+
+  @Test
+  void 発行したトークンはハッシュ値だけを保存すること() {
+    when(refreshTokenMapper.insert(eq(1L), anyString(), eq(30L))).thenReturn(1);
+
+    String token = sut.issue(1L);
+
+    verify(refreshTokenMapper).insert(1L, TokenDigest.sha256Hex(token), 30L);
+    assertNotEquals(token, TokenDigest.sha256Hex(token));
+  }
+
+  @Test
+  void 有効なトークンは失効させて持ち主のユーザーIDを返すこと() {
+    String tokenHash = TokenDigest.sha256Hex("refresh-token");
+    when(refreshTokenMapper.revoke(tokenHash)).thenReturn(1);
+    when(refreshTokenMapper.findUserIdByTokenHash(tokenHash)).thenReturn(1L);
+
+    assertEquals(1L, sut.consume("refresh-token"));
+  }
+
+  @Test
+  void 使用済みや期限切れのトークンは401になること() {
+    String tokenHash = TokenDigest.sha256Hex("used-token");
+    when(refreshTokenMapper.revoke(tokenHash)).thenReturn(0);
+
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.consume("used-token"));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+    verify(refreshTokenMapper, never()).findUserIdByTokenHash(anyString());
+  }
+}
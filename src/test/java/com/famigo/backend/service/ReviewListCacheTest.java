@@ -0,0 +1,133 @@
+package com.famigo.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.famigo.backend.dto.CacheStatsDto;
+import com.famigo.backend.dto.CursorPage;
+import com.famigo.backend.dto.ReviewListItemDto;
+import com.famigo.backend.mapper.ReviewMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * レビュー一覧キャッシュは「書き込みのあったスポットの分だけ破棄」「破棄はコミット後」が重要。
+ * 破棄が早すぎる・広すぎる・漏れると、古い一覧を返すかヒット率が落ちるため、ここで押さえる。
+ */
+@ExtendWith(MockitoExtension.class)
+class ReviewListCacheTest {
+
+  @Mock
+  private ReviewMapper reviewMapper;
+
+  private CacheStatsRegistry cacheStatsRegistry;
+  private ReviewListCache sut;
+
+  private AtomicInteger loads;
+  private Supplier<List<ReviewListItemDto>> loader;
+
+  @BeforeEach
+  void before() {
+    cacheStatsRegistry = new CacheStatsRegistry();
+    sut = new ReviewListCache(reviewMapper, cacheStatsRegistry, 100, 60);
+    loads = new AtomicInteger();
+    loader = () -> {
+      loads.incrementAndGet();
+      return new ArrayList<>(List.of(new ReviewListItemDto()));
+    };
+  }
+
+  @AfterEach
+  void after() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void 同じスポットの一覧はDBを1回だけ読みヒット率と件数を報告すること() {
+    sut.getAll(1L, loader);
+    sut.getAll(1L, loader);
+
+    CacheStatsDto stats = cacheStatsRegistry.snapshot().get(0);
+    assertEquals(1, loads.get());
+    assertEquals(ReviewListCache.NAME, stats.getName());
+    assertEquals(1L, stats.getHitCount());
+    assertEquals(1L, stats.getMissCount());
+  }
+
+  @Test
+  void ページはカーソルと件数ごとに別エントリで保持すること() {
+    Supplier<CursorPage<ReviewListItemDto>> pageLoader = () -> {
+      loads.incrementAndGet();
+      return new CursorPage<>(List.of(new ReviewListItemDto()), "next");
+    };
+
+    sut.getPage(1L, null, 20, pageLoader);
+    sut.getPage(1L, null, 20, pageLoader);
+    sut.getPage(1L, null, 10, pageLoader);
+    CursorPage<ReviewListItemDto> page = sut.getPage(1L, "next", 20, pageLoader);
+
+    assertEquals(3, loads.get());
+    assertEquals("next", page.getNextCursor());
+  }
+
+  @Test
+  void 破棄は対象スポットの分だけで他のスポットは残ること() {
+    sut.getAll(1L, loader);
+    sut.getAll(2L, loader);
+
+    sut.evict(1L);
+    sut.getAll(1L, loader);
+    sut.getAll(2L, loader);
+
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  void トランザクション内の破棄はコミット後に行いロールバック時は行わないこと() {
+    sut.getAll(1L, loader);
+
+    // ロールバック：破棄しない
+    TransactionSynchronizationManager.initSynchronization();
+    sut.evict(1L);
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    TransactionSynchronizationManager.clearSynchronization();
+    sut.getAll(1L, loader);
+    assertEquals(1, loads.get());
+
+    // コミット：コミットまでは保持し、コミット後に破棄する
+    TransactionSynchronizationManager.initSynchronization();
+    sut.evict(1L);
+    sut.getAll(1L, loader);
+    assertEquals(1, loads.get());
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    TransactionSynchronizationManager.clearSynchronization();
+    sut.getAll(1L, loader);
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void 投稿者の表示名変更ではレビューしたスポットの一覧だけ破棄すること() {
+    when(reviewMapper.selectReviewedSpotIds(9L)).thenReturn(List.of(2L));
+    sut.getAll(1L, loader);
+    sut.getAll(2L, loader);
+
+    sut.evictReviewsBy(9L);
+    sut.getAll(1L, loader);
+    sut.getAll(2L, loader);
+
+    assertEquals(3, loads.get());
+  }
+}
@@ -2,17 +2,29 @@ package com.famigo.backend.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.famigo.backend.dto.CursorPage;
 import com.famigo.backend.dto.ReviewAuthInfoDto;
+import com.famigo.backend.dto.ReviewListItemDto;
 import com.famigo.backend.dto.ReviewUpsertRequest;
 import com.famigo.backend.mapper.ReviewMapper;
+import java.time.LocalDateTime;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
@@ -28,11 +40,27 @@ class ReviewServiceTest {
   @Mock
   private ReviewMapper reviewMapper;
 
+  @Mock
+  private SpotCatalogIndex spotCatalogIndex;
+
   private ReviewService sut;
 
   @BeforeEach
   void before() {
-    sut = new ReviewService(reviewMapper);
+    sut = new ReviewService(reviewMapper,
+        new ReviewListCache(reviewMapper, new CacheStatsRegistry(), 100, 60), spotCatalogIndex);
+  }
+
+  @Test
+  void レビュー一覧_2回目はキャッシュから返し書き込み後は取り直すこと() {
+    when(reviewMapper.selectReviewsBySpotId(1L)).thenReturn(List.of(new ReviewListItemDto()));
+
+    sut.getReviewsBySpotId(1L);
+    sut.getReviewsBySpotId(1L);
+    sut.createReview(1L, 2L, new ReviewUpsertRequest());
+    sut.getReviewsBySpotId(1L);
+
+    verify(reviewMapper, times(2)).selectReviewsBySpotId(1L);
   }
 
   @Test
@@ -44,16 +72,111 @@ class ReviewServiceTest {
        0
     );
 
+    // 認可条件付きの行ロックが0件 → 引き直して理由を判定する
+    when(reviewMapper.lockReviewForEdit(1L, 10L, 1L, false)).thenReturn(null);
     when(reviewMapper.selectReviewAuthInfo(10L)).thenReturn(auth);
 
     ResponseStatusException ex = assertThrows(ResponseStatusException.class,
         () -> sut.updateReview(1L, 10L, 1L, "USER", new ReviewUpsertRequest()));
 
+    // 認可条件を満たさないため、集計にもレビューにも触れない
     assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+    verify(reviewMapper, never()).applyReviewEditToSpotStats(any(), any(), any(), anyBoolean(), any());
+    verify(reviewMapper, never()).updateReview(any(), any(), any(), anyBoolean(), any());
+    verify(reviewMapper, never()).refreshSpotReviewStats(any());
   }
 
   @Test
   void レビュー更新_ADMINなら他人のレビューでも403にならないこと() {
+    when(reviewMapper.updateReview(eq(1L), eq(10L), eq(1L), eq(true), any())).thenReturn(1);
+
+    // ADMINは「他人レビューでも許可」という仕様の確認
+    assertDoesNotThrow(() -> sut.updateReview(1L, 10L, 1L, "ADMIN", new ReviewUpsertRequest()));
+  }
+
+  @Test
+  void レビュー更新_更新できた場合は認可情報を引き直さないこと() {
+    ReviewUpsertRequest request = new ReviewUpsertRequest();
+    when(reviewMapper.updateReview(1L, 10L, 2L, false, request)).thenReturn(1);
+
+    sut.updateReview(1L, 10L, 2L, "USER", request);
+
+    verify(reviewMapper, never()).selectReviewAuthInfo(any());
+  }
+
+  @Test
+  void レビュー登録_登録したレビュー1件分がレビュー集計に加算されること() {
+    ReviewUpsertRequest request = new ReviewUpsertRequest();
+
+    sut.createReview(1L, 2L, request);
+
+    InOrder order = inOrder(reviewMapper);
+    order.verify(reviewMapper).insertReview(1L, 2L, request);
+    order.verify(reviewMapper).applyReviewToSpotStats(null, 1);
+    order.verify(reviewMapper).refreshSpotReviewStats(1L);
+    // 書き込み後にカタログ版数を変える（詳細の ETag が古いレビュー集計のまま 304 にならないように）
+    verify(spotCatalogIndex).refreshWithNewVersion();
+  }
+
+  @Test
+  void レビュー更新_レビュー行を排他ロックしてから差分をレビュー集計に反映し更新すること() {
+    ReviewUpsertRequest request = new ReviewUpsertRequest();
+
+    when(reviewMapper.lockReviewForEdit(1L, 10L, 2L, false)).thenReturn(10L);
+    when(reviewMapper.updateReview(1L, 10L, 2L, false, request)).thenReturn(1);
+
+    sut.updateReview(1L, 10L, 2L, "USER", request);
+
+    // 排他ロックが最初（同時編集のデッドロックを防ぐ）。差分の反映は編集前の値を読むため UPDATE より前
+    InOrder order = inOrder(reviewMapper);
+    order.verify(reviewMapper).lockReviewForEdit(1L, 10L, 2L, false);
+    order.verify(reviewMapper).applyReviewEditToSpotStats(1L, 10L, 2L, false, request);
+    order.verify(reviewMapper).updateReview(1L, 10L, 2L, false, request);
+    order.verify(reviewMapper).refreshSpotReviewStats(1L);
+    verify(reviewMapper, never()).applyReviewToSpotStats(any(), anyInt());
+  }
+
+  @Test
+  void レビュー更新_並行削除で更新対象がない場合は404になり集計値を反映しないこと() {
+    ReviewAuthInfoDto auth = new ReviewAuthInfoDto(
+        10L,
+        1L,
+        2L,
+        1
+    );
+
+    when(reviewMapper.lockReviewForEdit(1L, 10L, 2L, false)).thenReturn(null);
+    when(reviewMapper.selectReviewAuthInfo(10L)).thenReturn(auth);
+
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.updateReview(1L, 10L, 2L, "USER", new ReviewUpsertRequest()));
+
+    assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    verify(reviewMapper, never()).applyReviewEditToSpotStats(any(), any(), any(), anyBoolean(), any());
+    verify(reviewMapper, never()).refreshSpotReviewStats(any());
+  }
+
+  @Test
+  void レビュー削除_別スポットのレビューIDを指定すると404になること() {
+    ReviewAuthInfoDto auth = new ReviewAuthInfoDto(
+        10L,
+        5L,
+        2L,
+        0
+    );
+
+    when(reviewMapper.softDeleteReview(1L, 10L, 2L, false)).thenReturn(0);
+    when(reviewMapper.selectReviewAuthInfo(10L)).thenReturn(auth);
+
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.deleteReview(1L, 10L, 2L, "USER"));
+
+    assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    verify(reviewMapper, never()).applyReviewToSpotStats(any(), anyInt());
+  }
+
+  @Test
+  void レビュー削除_USERが他人のレビューを削除しようとすると403になること() {
     ReviewAuthInfoDto auth = new ReviewAuthInfoDto(
         10L,
         1L,
@@ -61,10 +184,62 @@ class ReviewServiceTest {
         0
     );
 
+    when(reviewMapper.softDeleteReview(1L, 10L, 2L, false)).thenReturn(0);
     when(reviewMapper.selectReviewAuthInfo(10L)).thenReturn(auth);
-    when(reviewMapper.updateReview(eq(1L), eq(10L), any())).thenReturn(1);
 
-    // ADMINは「他人レビューでも許可」という仕様の確認
-    assertDoesNotThrow(() -> sut.updateReview(1L, 10L, 1L, "ADMIN", new ReviewUpsertRequest()));
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.deleteReview(1L, 10L, 2L, "USER"));
+
+    assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+    verify(reviewMapper, never()).applyReviewToSpotStats(any(), anyInt());
+  }
+
+  @Test
+  void レビュー削除_削除したレビュー1件分がレビュー集計から差し引かれること() {
+    when(reviewMapper.softDeleteReview(1L, 10L, 2L, false)).thenReturn(1);
+
+    sut.deleteReview(1L, 10L, 2L, "USER");
+
+    InOrder order = inOrder(reviewMapper);
+    order.verify(reviewMapper).softDeleteReview(1L, 10L, 2L, false);
+    order.verify(reviewMapper).applyReviewToSpotStats(10L, -1);
+    order.verify(reviewMapper).refreshSpotReviewStats(1L);
+    verify(reviewMapper, never()).selectReviewAuthInfo(any());
+  }
+
+  @Test
+  void レビュー一覧ページ_limit件を超える場合は最後のレビューの投稿日時とIDを次カーソルにすること() {
+    LocalDateTime t0 = LocalDateTime.of(2025, 12, 1, 10, 0);
+    when(reviewMapper.selectReviewPageBySpotId(1L, null, null, 3))
+        .thenReturn(List.of(review(9L, t0), review(8L, t0), review(5L, t0.minusDays(1))));
+
+    CursorPage<ReviewListItemDto> first = sut.getReviewPage(1L, null, 2);
+    assertEquals(2, first.getItems().size());
+
+    when(reviewMapper.selectReviewPageBySpotId(1L, t0, 8L, 3))
+        .thenReturn(List.of(review(5L, t0.minusDays(1))));
+
+    CursorPage<ReviewListItemDto> second = sut.getReviewPage(1L, first.getNextCursor(), 2);
+    assertEquals(List.of(5L), second.getItems().stream().map(ReviewListItemDto::getId).toList());
+    assertNull(second.getNextCursor());
+  }
+
+  @Test
+  void レビュー一覧ページ_不正なカーソルやlimitは400になること() {
+    ResponseStatusException cursor = assertThrows(ResponseStatusException.class,
+        () -> sut.getReviewPage(1L, CursorCodec.encode("yesterday", 1L), 2));
+    ResponseStatusException limit = assertThrows(ResponseStatusException.class,
+        () -> sut.getReviewPage(1L, null, 0));
+
+    assertEquals(HttpStatus.BAD_REQUEST, cursor.getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, limit.getStatusCode());
+    verify(reviewMapper, never()).selectReviewPageBySpotId(any(), any(), any(), anyInt());
+  }
+
+  private ReviewListItemDto review(Long id, LocalDateTime createdAt) {
+    ReviewListItemDto dto = new ReviewListItemDto();
+    dto.setId(id);
+    dto.setCreatedAt(createdAt);
+    return dto;
   }
 }
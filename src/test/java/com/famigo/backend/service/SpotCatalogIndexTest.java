@@ -0,0 +1,464 @@
+package com.famigo.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.famigo.backend.dto.CategoryDto;
+import com.famigo.backend.dto.FacetCountDto;
+import com.famigo.backend.dto.SpotCatalogRow;
+import com.famigo.backend.dto.SpotClusterDto;
+import com.famigo.backend.dto.SpotFacetsDto;
+import com.famigo.backend.dto.SpotListItemDto;
+import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.enums.PriceType;
+import com.famigo.backend.enums.SpotSortType;
+import com.famigo.backend.mapper.CategoryMapper;
+import com.famigo.backend.mapper.SpotMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * SpotCatalogIndex は SQL の検索結果と「同じ集合・同じ並び順（ID昇順）」を返すことが重要。
+ * 条件の AND / OR と、差分取り込み（追加・変更・論理削除）を押さえる。
+ */
+@ExtendWith(MockitoExtension.class)
+class SpotCatalogIndexTest {
+
+  private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 1, 10, 0);
+
+  @Mock
+  private SpotMapper spotMapper;
+
+  @Mock
+  private CategoryMapper categoryMapper;
+
+  private SpotCatalogIndex sut;
+
+  @BeforeEach
+  void before() {
+    sut = new SpotCatalogIndex(spotMapper, categoryMapper);
+  }
+
+  @Test
+  void 未構築の場合はemptyを返すこと() {
+    assertThat(sut.search(new SpotSearchCondition(), null, 10)).isEmpty();
+  }
+
+  @Test
+  void 未構築の場合は全件構築を1回だけ行い構築済みの索引を共有すること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(row(1L, 1L, "無料", true, T0)));
+
+    assertThat(sut.awaitBuilt()).isTrue();
+    assertThat(sut.awaitBuilt()).isTrue();
+
+    assertThat(sut.facets(new SpotSearchCondition()).orElseThrow().getTotal()).isEqualTo(1);
+    verify(spotMapper, times(1)).findCatalogRowsUpdatedSince(isNull());
+  }
+
+  @Test
+  void 全件構築に失敗した場合は再試行の間隔まで構築を試みないこと() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenThrow(new IllegalStateException("db down"));
+
+    assertThat(sut.awaitBuilt()).isFalse();
+    assertThat(sut.awaitBuilt()).isFalse();
+
+    verify(spotMapper, times(1)).findCatalogRowsUpdatedSince(isNull());
+  }
+
+  @Test
+  void カテゴリと予算と設備の条件で絞り込めること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0),
+        row(2L, 1L, "1000円以内", true, T0),
+        row(3L, 2L, "無料", false, T0),
+        row(4L, 1L, "無料", false, T0)
+    ));
+    sut.rebuild();
+
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setCategoryIds(List.of(1L));
+    condition.setPrice(List.of(PriceType.FREE, PriceType.UNDER_1000));
+    condition.setFacilities(List.of("diaper", "unknown"));
+
+    List<SpotListItemDto> result = sut.search(condition, null, 10).orElseThrow();
+
+    assertThat(result).extracting(SpotListItemDto::getId).containsExactly(1L, 2L);
+  }
+
+  @Test
+  void afterIdより後ろのスポットだけをlimit件まで返すこと() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0),
+        row(2L, 1L, "無料", true, T0),
+        row(3L, 1L, "無料", true, T0),
+        row(5L, 1L, "無料", true, T0)
+    ));
+    sut.rebuild();
+
+    List<SpotListItemDto> result = sut.search(new SpotSearchCondition(), 2L, 2).orElseThrow();
+
+    assertThat(result).extracting(SpotListItemDto::getId).containsExactly(3L, 5L);
+  }
+
+  @Test
+  void キーワードは名前_住所_エリアへの部分一致で絞り込めること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0, "希望ヶ丘文化公園", "滋賀県野洲市", "野洲市", null),
+        row(2L, 1L, "無料", true, T0, "水口スポーツの森", "滋賀県甲賀市", "甲賀市", "公園とスポーツ施設"),
+        row(3L, 1L, "無料", true, T0, "ＡＢＣ公園", "京都府京都市", "京都市", null)
+    ));
+    sut.rebuild();
+
+    // 備考（notes）だけに含まれる語は一致しない（SQL の LIKE 検索と同じ範囲）
+    assertThat(sut.search(keyword("公園"), null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId).containsExactly(1L, 3L);
+    // 全角/半角・大文字/小文字の違いは吸収する
+    assertThat(sut.search(keyword("abc"), null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId).containsExactly(3L);
+    // 1文字のキーワードも部分一致で検索できる
+    assertThat(sut.search(keyword("森"), null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId).containsExactly(2L);
+  }
+
+  @Test
+  void 関連度順ではスポット名に一致するスポットが上位になること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0, "市民プール", "京都府京都市中京区", "京都市", null),
+        row(2L, 1L, "無料", true, T0, "京都水族館", "京都府京都市下京区", "京都市", null),
+        row(3L, 1L, "無料", true, T0, "大津港", "滋賀県大津市", "大津市", null)
+    ));
+    sut.rebuild();
+
+    List<SpotCatalogIndex.RankedSpot> result = sut.rank(keyword("京都")).orElseThrow();
+
+    assertThat(result).extracting(r -> r.getItem().getId()).containsExactly(2L, 1L);
+    assertThat(result.get(0).getScore()).isGreaterThan(result.get(1).getScore());
+  }
+
+  @Test
+  void 差分取り込みでキーワード索引も更新されること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0, "希望ヶ丘文化公園", "滋賀県野洲市", "野洲市", null)
+    ));
+    sut.rebuild();
+
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0.plusMinutes(1), "希望ヶ丘文化センター", "滋賀県野洲市", "野洲市", null),
+        row(2L, 1L, "無料", true, T0.plusMinutes(1), "びわこ公園", "滋賀県大津市", "大津市", null)
+    ));
+    sut.refresh();
+
+    assertThat(sut.search(keyword("公園"), null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId).containsExactly(2L);
+    assertThat(sut.search(keyword("センター"), null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId).containsExactly(1L);
+  }
+
+  @Test
+  void 差分取り込みで追加_変更_論理削除が反映されること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0),
+        row(2L, 1L, "無料", true, T0)
+    ));
+    sut.rebuild();
+
+    SpotCatalogRow deleted = row(1L, 1L, "無料", true, T0.plusMinutes(1));
+    deleted.setIsDeleted(true);
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(
+        deleted,
+        row(2L, 2L, "無料", true, T0.plusMinutes(1)),   // カテゴリ変更
+        row(3L, 1L, "無料", true, T0.plusMinutes(1))    // 追加
+    ));
+    sut.refresh();
+
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setCategoryIds(List.of(1L));
+
+    assertThat(sut.search(condition, null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId).containsExactly(3L);
+    assertThat(sut.search(new SpotSearchCondition(), null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId).containsExactly(2L, 3L);
+  }
+
+  @Test
+  void 差分取り込みは取り込み済みの日時より遡って読み直し遅れてコミットされた変更も反映すること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0),
+        row(2L, 1L, "無料", true, T0.plusMinutes(5))
+    ));
+    sut.rebuild();
+
+    // スポット1の変更は取り込み済みの日時（T0+5分）より前に記録され、取り込みの後にコミットされた
+    LocalDateTime since = T0.plusMinutes(5).minusSeconds(SpotCatalogIndex.DEFAULT_WATERMARK_MARGIN_SECONDS);
+    when(spotMapper.findCatalogRowsUpdatedSince(since)).thenReturn(List.of(
+        row(1L, 1L, "1000円以内", true, T0.plusMinutes(4).plusSeconds(30)),
+        row(2L, 1L, "無料", true, T0.plusMinutes(5))    // 読み直した変更のない行
+    ));
+    sut.refresh();
+
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setPrice(List.of(PriceType.UNDER_1000));
+    assertThat(sut.search(condition, null, 10).orElseThrow())
+        .extracting(SpotListItemDto::getId)
+        .containsExactly(1L);
+  }
+
+  @Test
+  void ファセットは項目ごとに自身の条件を除いて数えること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0),
+        row(2L, 1L, "1000円以内", true, T0),
+        row(3L, 2L, "無料", false, T0),
+        row(4L, 1L, "無料", false, T0)
+    ));
+    sut.rebuild();
+
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setCategoryIds(List.of(1L));
+    condition.setPrice(List.of(PriceType.FREE));
+
+    SpotFacetsDto result = sut.facets(condition).orElseThrow();
+
+    assertThat(result.getTotal()).isEqualTo(2);
+    // カテゴリ：予算（無料）だけで絞り込んだ件数
+    assertThat(result.getCategories()).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+        .containsExactly(tuple("1", 2), tuple("2", 1));
+    // 予算：カテゴリ（1）だけで絞り込んだ件数
+    assertThat(result.getPrice()).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+        .startsWith(tuple("FREE", 2), tuple("UNDER_1000", 1));
+    // 設備：現在の一致集合（1, 4）にその設備を加えた件数
+    assertThat(result.getFacilities()).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+        .contains(tuple("diaper", 1), tuple("indoor", 0));
+  }
+
+  @Test
+  void クラスタは低ズームでまとまり高ズームで分かれること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        located(row(1L, 1L, "無料", true, T0), 35.0, 136.0),
+        located(row(2L, 1L, "無料", true, T0), 35.001, 136.001),
+        located(row(3L, 1L, "無料", true, T0), 34.0, 135.0),
+        row(4L, 1L, "無料", true, T0)   // 座標なしは含めない
+    ));
+    sut.rebuild();
+
+    // ズーム3：すべて同じセル。代表は重心に最も近いスポット
+    assertThat(sut.clusters(30, 130, 40, 140, 3).orElseThrow())
+        .extracting(SpotClusterDto::getCount, SpotClusterDto::getSpotId)
+        .containsExactly(tuple(3, 1L));
+
+    // ズーム18：約100m離れたスポットは別のセル
+    assertThat(sut.clusters(34.99, 135.99, 35.01, 136.01, 18).orElseThrow())
+        .extracting(SpotClusterDto::getCount, SpotClusterDto::getSpotId)
+        .containsExactlyInAnyOrder(tuple(1, 1L), tuple(1, 2L));
+  }
+
+  @Test
+  void 差分取り込みで移動したスポットのクラスタが更新されること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        located(row(1L, 1L, "無料", true, T0), 35.0, 136.0),
+        located(row(2L, 1L, "無料", true, T0), 35.0, 136.0)
+    ));
+    sut.rebuild();
+
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(
+        located(row(2L, 1L, "無料", true, T0.plusMinutes(1)), 34.0, 135.0)
+    ));
+    sut.refresh();
+
+    assertThat(sut.clusters(34.99, 135.99, 35.01, 136.01, 10).orElseThrow())
+        .extracting(SpotClusterDto::getCount, SpotClusterDto::getSpotId)
+        .containsExactly(tuple(1, 1L));
+    assertThat(sut.clusters(33.99, 134.99, 34.01, 135.01, 10).orElseThrow())
+        .extracting(SpotClusterDto::getCount, SpotClusterDto::getSpotId)
+        .containsExactly(tuple(1, 2L));
+  }
+
+  @Test
+  void 評価順は評価_レビュー件数の降順で同点はID昇順になること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        rated(row(1L, 1L, "無料", true, T0), 4.0, 3),
+        rated(row(2L, 1L, "無料", true, T0), 4.5, 1),
+        rated(row(3L, 1L, "無料", true, T0), 4.0, 10),
+        rated(row(4L, 1L, "無料", true, T0), 0.0, 0),
+        rated(row(5L, 1L, "無料", true, T0), 4.0, 3),
+        rated(row(6L, 2L, "無料", true, T0), 5.0, 2)    // カテゴリ違い
+    ));
+    sut.rebuild();
+
+    SpotSearchCondition condition = sorted(SpotSortType.RATING);
+    condition.setCategoryIds(List.of(1L));
+
+    assertThat(sut.sorted(condition).orElseThrow())
+        .extracting(spot -> spot.getItem().getId())
+        .containsExactly(2L, 3L, 1L, 5L, 4L);
+  }
+
+  @Test
+  void 差分取り込みで集計値が変わると並び順も更新されること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        favorited(row(1L, 1L, "無料", true, T0), 5),
+        favorited(row(2L, 1L, "無料", true, T0), 3)
+    ));
+    sut.rebuild();
+
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(
+        favorited(row(2L, 1L, "無料", true, T0.plusMinutes(1)), 6)
+    ));
+    sut.refresh();
+
+    assertThat(sut.sorted(sorted(SpotSortType.FAVORITES)).orElseThrow())
+        .extracting(spot -> spot.getItem().getId(), spot -> spot.getItem().getFavoriteCount())
+        .containsExactly(tuple(2L, 6), tuple(1L, 5));
+  }
+
+  @Test
+  void 内容が変わらない再構築と差分取り込みでは版数が変わらないこと() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0),
+        row(2L, 1L, "無料", true, T0)
+    ));
+    sut.rebuild();
+    long version = sut.getVersion();
+
+    // 定期の全件再構築：内容が同じなら ETag・検索結果キャッシュを保つ
+    sut.rebuild();
+    assertThat(sut.getVersion()).isEqualTo(version);
+
+    // 索引に無いスポットの論理削除（取り込み済みの日時だけが進む）
+    SpotCatalogRow deleted = row(3L, 1L, "無料", true, T0.plusMinutes(1));
+    deleted.setIsDeleted(true);
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(deleted));
+    sut.refresh();
+    assertThat(sut.getVersion()).isEqualTo(version);
+
+    // 内容が変われば増える
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(
+        row(2L, 2L, "無料", true, T0.plusMinutes(2))
+    ));
+    sut.refresh();
+    assertThat(sut.getVersion()).isGreaterThan(version);
+  }
+
+  @Test
+  void 集計値だけの変更では版数を変えずに並び順と一覧の集計値を更新すること() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        favorited(row(1L, 1L, "無料", true, T0), 5),
+        favorited(row(2L, 1L, "無料", true, T0), 3)
+    ));
+    sut.rebuild();
+    long version = sut.getVersion();
+    SpotListItemDto cached = sut.search(new SpotSearchCondition(), null, 10).orElseThrow().get(1);
+
+    // お気に入りの登録（stats_updated_at だけが進む）
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(
+        favorited(row(2L, 1L, "無料", true, T0.plusMinutes(1)), 6)
+    ));
+    sut.refresh();
+
+    assertThat(sut.getVersion()).isEqualTo(version);
+    assertThat(sut.sorted(sorted(SpotSortType.FAVORITES)).orElseThrow())
+        .extracting(spot -> spot.getItem().getId())
+        .containsExactly(2L, 1L);
+    // 版数ごとの検索結果キャッシュに残る DTO には、現在の集計値を重ねたコピーを返す
+    assertThat(sut.withCurrentStats(cached)).get()
+        .extracting(SpotListItemDto::getId, SpotListItemDto::getFavoriteCount)
+        .containsExactly(2L, 6);
+    assertThat(cached.getFavoriteCount()).isEqualTo(3);
+  }
+
+  @Test
+  void レビューの書き込み後は集計値だけの変更でも版数を増やすこと() {
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        rated(row(1L, 1L, "無料", true, T0), 4.0, 1)
+    ));
+    sut.rebuild();
+    long version = sut.getVersion();
+
+    when(spotMapper.findCatalogRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(
+        rated(row(1L, 1L, "無料", true, T0.plusMinutes(1)), 4.5, 2)
+    ));
+    sut.refreshWithNewVersion();
+
+    assertThat(sut.getVersion()).isGreaterThan(version);
+    assertThat(sut.sorted(sorted(SpotSortType.REVIEWS)).orElseThrow())
+        .extracting(spot -> spot.getItem().getReviewCount())
+        .containsExactly(2);
+  }
+
+  @Test
+  void カテゴリの追加と名称変更は差分取り込みで全件再構築して反映されること() {
+    when(categoryMapper.selectAll()).thenReturn(List.of(new CategoryDto(1L, "公園")));
+    when(spotMapper.findCatalogRowsUpdatedSince(isNull())).thenReturn(List.of(
+        row(1L, 1L, "無料", true, T0)
+    ));
+    sut.rebuild();
+    long version = sut.getVersion();
+
+    // カテゴリは updated_at を持たないため、差分取り込みのたびに比べる
+    when(categoryMapper.selectAll()).thenReturn(List.of(new CategoryDto(1L, "公園"), new CategoryDto(2L, "室内遊び場")));
+    sut.refresh();
+
+    assertThat(sut.getVersion()).isGreaterThan(version);
+    verify(spotMapper, times(2)).findCatalogRowsUpdatedSince(isNull());
+  }
+
+  private SpotSearchCondition sorted(SpotSortType sort) {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setSort(sort);
+    return condition;
+  }
+
+  private SpotCatalogRow rated(SpotCatalogRow row, double ratingAverage, int reviewCount) {
+    row.setRatingAverage(ratingAverage);
+    row.setReviewCount(reviewCount);
+    return row;
+  }
+
+  private SpotCatalogRow favorited(SpotCatalogRow row, int favoriteCount) {
+    row.setFavoriteCount(favoriteCount);
+    return row;
+  }
+
+  private SpotSearchCondition keyword(String keyword) {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setKeyword(keyword);
+    return condition;
+  }
+
+  private SpotCatalogRow located(SpotCatalogRow row, double latitude, double longitude) {
+    row.setLatitude(latitude);
+    row.setLongitude(longitude);
+    return row;
+  }
+
+  private SpotCatalogRow row(Long id, Long categoryId, String priceType, boolean diaper,
+      LocalDateTime updatedAt) {
+    return row(id, categoryId, priceType, diaper, updatedAt, "スポット" + id, null, null, null);
+  }
+
+  private SpotCatalogRow row(Long id, Long categoryId, String priceType, boolean diaper,
+      LocalDateTime updatedAt, String name, String address, String area, String notes) {
+    SpotCatalogRow row = new SpotCatalogRow();
+    row.setId(id);
+    row.setCategoryId(categoryId);
+    row.setName(name);
+    row.setAddress(address);
+    row.setArea(area);
+    row.setNotes(notes);
+    row.setPriceType(priceType);
+    row.setDiaperChanging(diaper);
+    row.setIsDeleted(false);
+    row.setUpdatedAt(updatedAt);
+    return row;
+  }
+}
@@ -0,0 +1,108 @@
+package com.famigo.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.famigo.backend.dto.SpotCatalogRow;
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SpotKeywordIndex は SQL の LIKE（utf8mb4_0900_ai_ci）と「同じスポットが一致する」ことが重要。
+ * 照合順序で同じ文字とみなされるもの（ひらがな／カタカナ・濁点・アクセントなど）と、% / _ のワイルドカードを押さえる。
+ */
+class SpotKeywordIndexTest {
+
+  @Test
+  void 照合順序で同じ文字とみなされるものは同じ文字に正規化されること() {
+    // ひらがな／カタカナ／半角カナ
+    assertThat(SpotKeywordIndex.normalize("パーク")).isEqualTo(SpotKeywordIndex.normalize("ぱーく"));
+    assertThat(SpotKeywordIndex.normalize("ﾊﾟｰｸ")).isEqualTo(SpotKeywordIndex.normalize("ぱーく"));
+    // 濁点・半濁点・小書きの仮名
+    assertThat(SpotKeywordIndex.normalize("ばす")).isEqualTo(SpotKeywordIndex.normalize("はす"));
+    assertThat(SpotKeywordIndex.normalize("キッズ")).isEqualTo(SpotKeywordIndex.normalize("きつす"));
+    // アクセント・全角英数・大文字
+    assertThat(SpotKeywordIndex.normalize("Café")).isEqualTo(SpotKeywordIndex.normalize("cafe"));
+    assertThat(SpotKeywordIndex.normalize("ＡＢＣ")).isEqualTo(SpotKeywordIndex.normalize("abc"));
+  }
+
+  @Test
+  void ひらがなとカタカナ_濁点の有無を区別せずに一致すること() {
+    SpotKeywordIndex sut = index(
+        row("みなくちパーク", "滋賀県甲賀市", "甲賀市"),
+        row("キッズカフェ", "滋賀県大津市", "大津市"),
+        row("市民プール", "滋賀県草津市", "草津市")
+    );
+
+    assertThat(positions(sut.match("ぱーく", all(3)))).containsExactly(0);
+    assertThat(positions(sut.match("きっすかふぇ", all(3)))).containsExactly(1);
+    assertThat(positions(sut.match("フール", all(3)))).containsExactly(2);
+    assertThat(positions(sut.match("ぷーる", all(3)))).containsExactly(2);
+    assertThat(positions(sut.match("公園", all(3)))).isEmpty();
+  }
+
+  @Test
+  void パーセントとアンダースコアはLIKEと同じくワイルドカードとして扱うこと() {
+    SpotKeywordIndex sut = index(
+        row("みなくちパーク", "滋賀県甲賀市", "甲賀市"),
+        row("果汁100%ジュース工房", "滋賀県大津市", "大津市"),
+        row("1000円パーク", "滋賀県草津市", "草津市")
+    );
+
+    // % は0文字以上、_ は1文字
+    assertThat(positions(sut.match("みなくち%ーク", all(3)))).containsExactly(0);
+    assertThat(positions(sut.match("み_くち", all(3)))).containsExactly(0);
+    assertThat(positions(sut.match("100%", all(3)))).containsExactly(1, 2);
+    // \ の直後の % は文字として扱う
+    assertThat(positions(sut.match("100\\%", all(3)))).containsExactly(1);
+  }
+
+  @Test
+  void すべてのbi_gramを含み確認対象に含まれる位置だけが一致すること() {
+    SpotKeywordIndex sut = index(
+        row("甲賀の森", "滋賀県甲賀市", "甲賀市"),
+        row("賀市公園", "滋賀県大津市", "大津市"),
+        row("水口スポーツの森", "滋賀県甲賀市", "甲賀市"),
+        row("甲賀の里", "三重県伊賀市", "伊賀市")
+    );
+    BitSet scope = all(4);
+    scope.clear(0);
+
+    // 「甲賀」「賀市」の両方を含み、続けて「甲賀市」となる位置だけ（位置0は確認対象外）
+    assertThat(positions(sut.match("甲賀市", scope))).containsExactly(2);
+    // 索引にない bi-gram を含む場合は一致しない
+    assertThat(positions(sut.match("甲賀町", all(4)))).isEmpty();
+  }
+
+  @Test
+  void 関連度はスポット名に一致する位置のほうが高いこと() {
+    SpotKeywordIndex sut = index(
+        row("びわこ公園", "滋賀県野洲市", "守山市"),
+        row("野洲川の河川敷", "滋賀県守山市", "守山市")
+    );
+    SpotKeywordIndex.Query query = SpotKeywordIndex.Query.of("野洲");
+
+    assertThat(sut.score(query, 1)).isGreaterThan(sut.score(query, 0));
+  }
+
+  private static SpotKeywordIndex index(SpotCatalogRow... rows) {
+    return SpotKeywordIndex.build(rows, rows.length, all(rows.length));
+  }
+
+  private static SpotCatalogRow row(String name, String address, String area) {
+    SpotCatalogRow row = new SpotCatalogRow();
+    row.setName(name);
+    row.setAddress(address);
+    row.setArea(area);
+    return row;
+  }
+
+  private static BitSet all(int size) {
+    BitSet bits = new BitSet();
+    bits.set(0, size);
+    return bits;
+  }
+
+  private static int[] positions(BitSet bits) {
+    return bits.stream().toArray();
+  }
+}
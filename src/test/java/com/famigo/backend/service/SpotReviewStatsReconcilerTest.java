@@ -0,0 +1,65 @@
+package com.famigo.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.famigo.backend.mapper.ReviewMapper;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * レビュー集計の突き合わせは「ずれているスポットだけを作り直す」「1件の失敗で止まらない」を押さえる。
+ */
+@ExtendWith(MockitoExtension.class)
+class SpotReviewStatsReconcilerTest {
+
+  @Mock
+  private ReviewMapper reviewMapper;
+
+  private SpotReviewStatsReconciler sut;
+
+  @BeforeEach
+  void before() {
+    sut = new SpotReviewStatsReconciler(reviewMapper);
+  }
+
+  @Test
+  void ずれているスポットだけ集計を作り直してspotsへ反映すること() {
+    when(reviewMapper.selectSpotIdsWithReviewStatsDrift()).thenReturn(List.of(3L, 7L));
+
+    assertEquals(2, sut.reconcile());
+
+    verify(reviewMapper).rebuildSpotReviewStats(3L);
+    verify(reviewMapper).refreshSpotReviewStats(3L);
+    verify(reviewMapper).rebuildSpotReviewStats(7L);
+    verify(reviewMapper).refreshSpotReviewStats(7L);
+  }
+
+  @Test
+  void ずれがなければ何も作り直さないこと() {
+    when(reviewMapper.selectSpotIdsWithReviewStatsDrift()).thenReturn(List.of());
+
+    assertEquals(0, sut.reconcile());
+
+    verify(reviewMapper, never()).rebuildSpotReviewStats(any());
+  }
+
+  @Test
+  void 作り直しに失敗したスポットがあっても残りのスポットは修復すること() {
+    when(reviewMapper.selectSpotIdsWithReviewStatsDrift()).thenReturn(List.of(3L, 7L));
+    doThrow(new RuntimeException("lock wait timeout")).when(reviewMapper).rebuildSpotReviewStats(3L);
+
+    assertEquals(1, sut.reconcile());
+
+    verify(reviewMapper, never()).refreshSpotReviewStats(3L);
+    verify(reviewMapper).refreshSpotReviewStats(7L);
+  }
+}
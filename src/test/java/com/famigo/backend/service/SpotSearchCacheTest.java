@@ -0,0 +1,89 @@
+package com.famigo.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.famigo.backend.dto.SpotListItemDto;
+import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.enums.SpotSortType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 検索結果キャッシュは「同じ意味の条件は同じエントリ」「カタログが変われば別エントリ」が重要。
+ * キーがズレるとヒットしない（またはスポット更新後も古い一覧を返す）ため、ここで押さえる。
+ */
+class SpotSearchCacheTest {
+
+  private SpotSearchCache sut;
+
+  private AtomicInteger loads;
+  private Supplier<List<SpotListItemDto>> loader;
+
+  @BeforeEach
+  void setUp() {
+    sut = new SpotSearchCache(new CacheStatsRegistry(), 100, 60);
+    loads = new AtomicInteger();
+    loader = () -> {
+      loads.incrementAndGet();
+      return new ArrayList<>(List.of(new SpotListItemDto()));
+    };
+  }
+
+  @Test
+  void 並び順や重複だけが違う条件は同じエントリを使うこと() {
+    SpotSearchCondition a = new SpotSearchCondition();
+    a.setCategoryIds(List.of(2L, 1L));
+    a.setFacilities(List.of("water", "diaper"));
+    a.setKeyword(" 公園 ");
+
+    SpotSearchCondition b = new SpotSearchCondition();
+    b.setCategoryIds(List.of(1L, 2L, 2L));
+    b.setFacilities(List.of("diaper", "water", "unknown"));
+    b.setKeyword("公園");
+
+    sut.get(SpotSearchCache.canonicalize(a), 1L, loader);
+    sut.get(SpotSearchCache.canonicalize(b), 1L, loader);
+
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void カタログ版数が変わった場合は再取得すること() {
+    SpotSearchCondition condition = SpotSearchCache.canonicalize(new SpotSearchCondition());
+
+    sut.get(condition, 1L, loader);
+    sut.get(condition, 2L, loader);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void 正規化_空のリストとキーワードはnullにそろえること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setCategoryIds(List.of());
+    condition.setKeyword("  ");
+    condition.setSort(SpotSortType.RELEVANCE);
+
+    SpotSearchCondition canonical = SpotSearchCache.canonicalize(condition);
+
+    assertNull(canonical.getCategoryIds());
+    assertNull(canonical.getKeyword());
+    assertNull(canonical.getSort());
+  }
+
+  @Test
+  void 正規化_評価順などの並び順はキーワードなしでも残しID順はnullにそろえること() {
+    SpotSearchCondition rating = new SpotSearchCondition();
+    rating.setSort(SpotSortType.RATING);
+    SpotSearchCondition id = new SpotSearchCondition();
+    id.setSort(SpotSortType.ID);
+
+    assertEquals(SpotSortType.RATING, SpotSearchCache.canonicalize(rating).getSort());
+    assertNull(SpotSearchCache.canonicalize(id).getSort());
+  }
+}
@@ -1,10 +1,34 @@
 package com.famigo.backend.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.famigo.backend.dto.CursorPage;
+import com.famigo.backend.dto.NearbySpotDto;
+import com.famigo.backend.dto.SpotBatchDto;
+import com.famigo.backend.dto.SpotClusterDto;
+import com.famigo.backend.dto.SpotListItemDto;
+import com.famigo.backend.dto.SpotSearchCondition;
+import com.famigo.backend.dto.SpotDetailDto;
+import com.famigo.backend.enums.SpotSortType;
 import com.famigo.backend.mapper.SpotMapper;
+import com.famigo.backend.service.SpotCatalogIndex.RankedSpot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.apache.ibatis.cursor.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,20 +47,364 @@ class SpotServiceTest {
   @Mock
   private SpotMapper spotMapper;
 
+  @Mock
+  private SpotCatalogIndex spotCatalogIndex;
+
+  @Mock
+  private FavoriteSetCache favoriteSetCache;
+
+  @Mock
+  private CatalogETags catalogETags;
+
+  @Mock
+  private Cursor<SpotListItemDto> cursor;
+
   private SpotService sut;
 
   @BeforeEach
   void before() {
-    sut = new SpotService(spotMapper);
+    sut = new SpotService(spotMapper, spotCatalogIndex, favoriteSetCache,
+        new SpotSearchCache(new CacheStatsRegistry(), 100, 60), catalogETags);
   }
 
   @Test
   void スポット詳細_存在しないIDは404になること() {
-    when(spotMapper.findDetailById(999999L, null)).thenReturn(null);
+    when(spotMapper.findDetailById(999999L)).thenReturn(null);
 
     ResponseStatusException ex = assertThrows(ResponseStatusException.class,
         () -> sut.getSpotDetail(999999L, null));
 
     assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
   }
+
+  @Test
+  void スポット詳細_ログイン時はお気に入り状態を設定すること() {
+    SpotDetailDto dto = new SpotDetailDto();
+    dto.setId(1L);
+    dto.setIsFavorite(false);
+    when(spotMapper.findDetailById(1L)).thenReturn(dto);
+    when(favoriteSetCache.contains(10L, 1L)).thenReturn(true);
+
+    SpotDetailDto result = sut.getSpotDetail(1L, 10L);
+
+    assertTrue(result.getIsFavorite());
+  }
+
+  @Test
+  void スポット詳細まとめて取得_指定順に並べ見つからないIDを返すこと() {
+    SpotDetailDto first = new SpotDetailDto();
+    first.setId(1L);
+    first.setIsFavorite(false);
+    SpotDetailDto third = new SpotDetailDto();
+    third.setId(3L);
+    third.setIsFavorite(false);
+    when(spotMapper.findDetailsByIds(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+    when(favoriteSetCache.get(10L)).thenReturn(FavoriteSetCache.FavoriteSet.of(List.of(1L)));
+
+    SpotBatchDto result = sut.getSpotDetails(List.of(3L, 2L, 1L, 3L), 10L);
+
+    assertEquals(List.of(3L, 1L), result.getSpots().stream().map(SpotDetailDto::getId).toList());
+    assertEquals(List.of(2L), result.getMissingIds());
+    assertFalse(result.getSpots().get(0).getIsFavorite());
+    assertTrue(result.getSpots().get(1).getIsFavorite());
+  }
+
+  @Test
+  void スポット詳細まとめて取得_IDが未指定または上限を超える場合は400になること() {
+    List<Long> tooMany = LongStream.rangeClosed(1, SpotService.DEFAULT_MAX_BATCH_SIZE + 1).boxed().toList();
+
+    ResponseStatusException empty = assertThrows(ResponseStatusException.class,
+        () -> sut.getSpotDetails(List.of(), null));
+    ResponseStatusException over = assertThrows(ResponseStatusException.class,
+        () -> sut.getSpotDetails(tooMany, null));
+
+    assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, over.getStatusCode());
+    verify(spotMapper, never()).findDetailsByIds(any());
+  }
+
+  @Test
+  void スポット一覧_未ログインで索引が使える場合はMapperを呼ばないこと() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    when(spotCatalogIndex.search(any(SpotSearchCondition.class), eq(null), eq(Integer.MAX_VALUE)))
+        .thenReturn(Optional.of(List.of(spot(1L))));
+
+    List<SpotListItemDto> result = sut.getSpotList(condition, null);
+
+    assertEquals(1, result.size());
+    verify(spotMapper, never()).findAllWithCategoryAndFacilities(any());
+    verify(favoriteSetCache, never()).get(any());
+  }
+
+  @Test
+  void スポット一覧_索引が使えない場合はMapperにフォールバックすること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    when(spotCatalogIndex.search(any(SpotSearchCondition.class), eq(null), eq(Integer.MAX_VALUE)))
+        .thenReturn(Optional.empty());
+    when(spotMapper.findAllWithCategoryAndFacilities(any(SpotSearchCondition.class)))
+        .thenReturn(List.of(spot(1L)));
+
+    List<SpotListItemDto> result = sut.getSpotList(condition, null);
+
+    assertEquals(1, result.size());
+  }
+
+  @Test
+  void スポット一覧_ログイン時は共有の検索結果を書き換えずにお気に入り状態を設定すること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    SpotListItemDto shared1 = spot(1L);
+    SpotListItemDto shared2 = spot(2L);
+    when(spotCatalogIndex.search(any(SpotSearchCondition.class), eq(null), eq(Integer.MAX_VALUE)))
+        .thenReturn(Optional.of(List.of(shared1, shared2)));
+    when(favoriteSetCache.get(10L)).thenReturn(FavoriteSetCache.FavoriteSet.of(List.of(2L)));
+
+    List<SpotListItemDto> result = sut.getSpotList(condition, 10L);
+
+    assertFalse(result.get(0).getIsFavorite());
+    assertTrue(result.get(1).getIsFavorite());
+    assertFalse(shared2.getIsFavorite());
+  }
+
+  @Test
+  void スポット一覧_キャッシュ済みの検索結果には索引の現在の集計値を重ねること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    SpotListItemDto cached = spot(1L);
+    cached.setFavoriteCount(3);
+    SpotListItemDto current = spot(1L);
+    current.setFavoriteCount(4);
+    when(spotCatalogIndex.search(any(SpotSearchCondition.class), eq(null), eq(Integer.MAX_VALUE)))
+        .thenReturn(Optional.of(List.of(cached)));
+    when(spotCatalogIndex.withCurrentStats(cached)).thenReturn(Optional.of(current));
+
+    List<SpotListItemDto> result = sut.getSpotList(condition, null);
+
+    assertEquals(4, result.get(0).getFavoriteCount());
+    assertEquals(3, cached.getFavoriteCount());
+  }
+
+  @Test
+  void スポット一覧ページ_続きがある場合は最終要素のIDを次カーソルにすること() {
+    // limit=2 の場合、Mapper には 3 件（limit+1）を要求する
+    when(spotMapper.findPageWithCategoryAndFacilities(any(), eq(null), eq(3)))
+        .thenReturn(List.of(spot(1L), spot(2L), spot(3L)));
+
+    CursorPage<SpotListItemDto> page = sut.getSpotPage(new SpotSearchCondition(), null, null, 2);
+
+    assertEquals(2, page.getItems().size());
+    assertEquals(2L, CursorCodec.decodeLong(page.getNextCursor()));
+  }
+
+  @Test
+  void スポット一覧ページ_カーソルのIDからシークし最終ページでは次カーソルがnullになること() {
+    String after = CursorCodec.encode(2L);
+    when(spotMapper.findPageWithCategoryAndFacilities(any(), eq(2L), eq(3)))
+        .thenReturn(List.of(spot(3L)));
+
+    CursorPage<SpotListItemDto> page = sut.getSpotPage(new SpotSearchCondition(), null, after, 2);
+
+    assertEquals(1, page.getItems().size());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void スポット一覧ページ_不正なカーソルは400になること() {
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.getSpotPage(new SpotSearchCondition(), null, "!!invalid!!", 2));
+
+    assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+  }
+
+  @Test
+  void スポット一覧ページ_関連度順は関連度とIDのカーソルで続きを取得できること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setKeyword("公園");
+    condition.setSort(SpotSortType.RELEVANCE);
+
+    List<RankedSpot> ranked = List.of(
+        new RankedSpot(spot(3L), 2.5),
+        new RankedSpot(spot(1L), 1.0),
+        new RankedSpot(spot(2L), 1.0)
+    );
+    when(spotCatalogIndex.rank(any(SpotSearchCondition.class))).thenReturn(Optional.of(ranked));
+
+    CursorPage<SpotListItemDto> first = sut.getSpotPage(condition, null, null, 2);
+    assertEquals(List.of(3L, 1L), first.getItems().stream().map(SpotListItemDto::getId).toList());
+
+    CursorPage<SpotListItemDto> second = sut.getSpotPage(condition, null, first.getNextCursor(), 2);
+    assertEquals(List.of(2L), second.getItems().stream().map(SpotListItemDto::getId).toList());
+    assertNull(second.getNextCursor());
+    verify(spotMapper, never()).findPageWithCategoryAndFacilities(any(), any(), anyInt());
+  }
+
+  @Test
+  void スポット一覧_評価順は索引の並びで返し索引が未構築ならMapperに並び順を渡すこと() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setSort(SpotSortType.RATING);
+
+    when(spotCatalogIndex.sorted(any(SpotSearchCondition.class))).thenReturn(Optional.of(List.of(
+        new RankedSpot(spot(2L), 450000000001.0),
+        new RankedSpot(spot(1L), 400000000003.0)
+    )));
+    assertEquals(List.of(2L, 1L),
+        sut.getSpotList(condition, null).stream().map(SpotListItemDto::getId).toList());
+    verify(spotMapper, never()).findAllWithCategoryAndFacilities(any());
+
+    // 索引が未構築（カタログ版数が変わらないよう、別の条件で確認する）
+    condition.setCategoryIds(List.of(1L));
+    when(spotCatalogIndex.sorted(any(SpotSearchCondition.class))).thenReturn(Optional.empty());
+    when(spotCatalogIndex.search(any(SpotSearchCondition.class), eq(null), eq(Integer.MAX_VALUE)))
+        .thenReturn(Optional.empty());
+    when(spotMapper.findAllWithCategoryAndFacilities(
+        argThat(c -> c != null && c.getSort() == SpotSortType.RATING)))
+        .thenReturn(List.of(spot(3L)));
+
+    assertEquals(List.of(3L),
+        sut.getSpotList(condition, null).stream().map(SpotListItemDto::getId).toList());
+  }
+
+  @Test
+  void スポット一覧ページ_お気に入り数順は件数とIDのカーソルで続きを取得できること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setSort(SpotSortType.FAVORITES);
+
+    List<RankedSpot> sorted = List.of(
+        new RankedSpot(spot(2L), 5),
+        new RankedSpot(spot(1L), 3),
+        new RankedSpot(spot(3L), 3)
+    );
+    when(spotCatalogIndex.sorted(any(SpotSearchCondition.class))).thenReturn(Optional.of(sorted));
+
+    CursorPage<SpotListItemDto> first = sut.getSpotPage(condition, null, null, 2);
+    assertEquals(List.of(2L, 1L), first.getItems().stream().map(SpotListItemDto::getId).toList());
+
+    CursorPage<SpotListItemDto> second = sut.getSpotPage(condition, null, first.getNextCursor(), 2);
+    assertEquals(List.of(3L), second.getItems().stream().map(SpotListItemDto::getId).toList());
+    assertNull(second.getNextCursor());
+    verify(spotMapper, never()).findPageWithCategoryAndFacilities(any(), any(), anyInt());
+  }
+
+  @Test
+  void スポット一覧ページ_索引が未構築の場合は構築を待って索引で返すこと() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setSort(SpotSortType.FAVORITES);
+
+    // 1回目は未構築、構築後は索引の並び（お気に入り数の降順 → ID 昇順）で返す
+    when(spotCatalogIndex.sorted(any(SpotSearchCondition.class))).thenReturn(
+        Optional.empty(),
+        Optional.of(List.of(
+            new RankedSpot(spot(2L), 5),
+            new RankedSpot(spot(1L), 3),
+            new RankedSpot(spot(3L), 3)
+        )));
+    when(spotCatalogIndex.awaitBuilt()).thenReturn(true);
+
+    CursorPage<SpotListItemDto> first = sut.getSpotPage(condition, null, null, 2);
+
+    assertEquals(List.of(2L, 1L), first.getItems().stream().map(SpotListItemDto::getId).toList());
+    verify(spotCatalogIndex).awaitBuilt();
+    verify(spotMapper, never()).findCatalogRowsUpdatedSince(any());
+    verify(spotMapper, never()).findPageWithCategoryAndFacilities(any(), any(), anyInt());
+  }
+
+  @Test
+  void スポット一覧ページ_評価順などで索引を構築できない場合は503になること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+    condition.setSort(SpotSortType.FAVORITES);
+    when(spotCatalogIndex.sorted(any(SpotSearchCondition.class))).thenReturn(Optional.empty());
+    when(spotCatalogIndex.awaitBuilt()).thenReturn(false);
+
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.getSpotPage(condition, null, null, 2));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+    verify(spotMapper, never()).findCatalogRowsUpdatedSince(any());
+  }
+
+  @Test
+  void 近くのスポット_緯度経度が未指定または範囲外の場合は400になること() {
+    SpotSearchCondition condition = new SpotSearchCondition();
+
+    ResponseStatusException missing = assertThrows(ResponseStatusException.class,
+        () -> sut.getNearbySpots(condition, null, null, 135.5, null, null));
+    ResponseStatusException outOfRange = assertThrows(ResponseStatusException.class,
+        () -> sut.getNearbySpots(condition, null, 91.0, 135.5, null, null));
+    ResponseStatusException notANumber = assertThrows(ResponseStatusException.class,
+        () -> sut.getNearbySpots(condition, null, 34.7, Double.NaN, null, null));
+
+    assertEquals(HttpStatus.BAD_REQUEST, missing.getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, outOfRange.getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, notANumber.getStatusCode());
+    verify(spotMapper, never()).findNearby(any(), anyDouble(), anyDouble(), anyDouble(), anyInt());
+  }
+
+  @Test
+  void 近くのスポット_半径は上限で切り詰めお気に入り状態を設定すること() {
+    NearbySpotDto near = new NearbySpotDto();
+    near.setId(2L);
+    near.setIsFavorite(false);
+    when(spotMapper.findNearby(any(SpotSearchCondition.class), eq(34.7), eq(135.5),
+        eq(SpotService.MAX_RADIUS_KM), eq(SpotService.DEFAULT_PAGE_SIZE))).thenReturn(List.of(near));
+    when(favoriteSetCache.get(10L)).thenReturn(FavoriteSetCache.FavoriteSet.of(List.of(2L)));
+
+    List<NearbySpotDto> result = sut.getNearbySpots(new SpotSearchCondition(), 10L, 34.7, 135.5, 500.0, null);
+
+    assertTrue(result.get(0).getIsFavorite());
+  }
+
+  @Test
+  void ファセット_索引を構築できない場合は全スポットを読み込まず503になること() {
+    when(spotCatalogIndex.facets(any(SpotSearchCondition.class))).thenReturn(Optional.empty());
+    when(spotCatalogIndex.awaitBuilt()).thenReturn(false);
+
+    ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+        () -> sut.getFacets(new SpotSearchCondition()));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+    verify(spotMapper, never()).findCatalogRowsUpdatedSince(any());
+  }
+
+  @Test
+  void クラスタ_bboxを緯度経度に分けて索引に渡すこと() {
+    List<SpotClusterDto> clusters = List.of(new SpotClusterDto(2, 35.0, 136.0, 1L));
+    when(spotCatalogIndex.clusters(34.8, 135.9, 35.1, 136.4, 12)).thenReturn(Optional.of(clusters));
+
+    List<SpotClusterDto> result = sut.getClusters("135.9,34.8,136.4,35.1", 12);
+
+    assertEquals(clusters, result);
+    verify(spotMapper, never()).findCatalogRowsUpdatedSince(any());
+  }
+
+  @Test
+  void クラスタ_bboxやzoomが不正な場合は400になること() {
+    for (String bbox : List.of("135.9,34.8,136.4", "a,b,c,d", "136.4,34.8,135.9,35.1", "135.9,34.8,136.4,95")) {
+      ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> sut.getClusters(bbox, 12));
+      assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+    ResponseStatusException noZoom = assertThrows(ResponseStatusException.class,
+        () -> sut.getClusters("135.9,34.8,136.4,35.1", null));
+
+    assertEquals(HttpStatus.BAD_REQUEST, noZoom.getStatusCode());
+  }
+
+  @Test
+  void スポット一覧ストリーム_お気に入り状態を設定して順に渡しカーソルを閉じること() throws Exception {
+    when(cursor.iterator()).thenReturn(List.of(spot(1L), spot(2L)).iterator());
+    when(spotMapper.streamWithCategoryAndFacilities(any(SpotSearchCondition.class))).thenReturn(cursor);
+    when(favoriteSetCache.get(10L)).thenReturn(FavoriteSetCache.FavoriteSet.of(List.of(2L)));
+
+    List<SpotListItemDto> written = new ArrayList<>();
+    sut.streamSpotList(new SpotSearchCondition(), 10L, written::add);
+
+    assertEquals(2, written.size());
+    assertFalse(written.get(0).getIsFavorite());
+    assertTrue(written.get(1).getIsFavorite());
+    verify(cursor).close();
+  }
+
+  private SpotListItemDto spot(Long id) {
+    SpotListItemDto dto = new SpotListItemDto();
+    dto.setId(id);
+    dto.setIsFavorite(false);
+    return dto;
+  }
 }
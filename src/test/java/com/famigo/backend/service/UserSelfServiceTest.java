@@ -12,6 +12,7 @@ import com.famigo.backend.dto.user.UpdateUserMeRequest;
 import com.famigo.backend.entity.User;
 import com.famigo.backend.mapper.UserMapper;
 import com.famigo.backend.security.DemoAccountGuard;
+import com.famigo.backend.security.UserPrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,11 +38,21 @@ class UserSelfServiceTest {
   @Mock
   private DemoAccountGuard demoAccountGuard;
 
+  @Mock
+  private ReviewListCache reviewListCache;
+
+  @Mock
+  private UserPrincipalCache userPrincipalCache;
+
+  @Mock
+  private RefreshTokenService refreshTokenService;
+
   private UserSelfService sut;
 
   @BeforeEach
   void before() {
-    sut = new UserSelfService(userMapper, passwordEncoder, demoAccountGuard);
+    sut = new UserSelfService(userMapper, passwordEncoder, demoAccountGuard, reviewListCache,
+        userPrincipalCache, refreshTokenService);
   }
 
   @Test
@@ -57,6 +68,13 @@ class UserSelfServiceTest {
 
     // withdraw の内部で「退会ユーザー名」を付与して update する仕様
     verify(userMapper, times(1)).withdraw(eq(1L), anyString());
+
+    // 退会後は未ログイン扱い・レビュー一覧の投稿者名が変わるため、キャッシュも破棄されること
+    verify(userPrincipalCache).evict(1L);
+    verify(reviewListCache).evictReviewsBy(1L);
+
+    // 退会後はアクセストークンを再発行できないこと
+    verify(refreshTokenService).revokeAll(1L);
   }
 
   @Test
@@ -83,4 +101,25 @@ class UserSelfServiceTest {
 
     assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
   }
+
+  @Test
+  void パスワード変更_成功時はログインユーザー情報のキャッシュとリフレッシュトークンを破棄すること() {
+    User user = new User();
+    user.setId(1L);
+    user.setEmail("test1@example.com");
+    user.setPasswordHash("hashed");
+
+    when(userMapper.findActiveById(1L)).thenReturn(user);
+    when(passwordEncoder.matches("currentpw", "hashed")).thenReturn(true);
+    when(passwordEncoder.encode("newpassword")).thenReturn("new-hashed");
+    when(userMapper.updatePasswordHash(1L, "new-hashed")).thenReturn(1);
+
+    UpdateUserMeRequest request = new UpdateUserMeRequest(
+        null, null, "currentpw", "newpassword", "newpassword");
+
+    sut.changePassword(1L, request);
+
+    verify(userPrincipalCache).evict(1L);
+    verify(refreshTokenService).revokeAll(1L);
+  }
 }
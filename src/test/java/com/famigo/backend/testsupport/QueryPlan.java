@@ -0,0 +1,135 @@
+package com.famigo.backend.testsupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Mapper のステートメントを EXPLAIN FORMAT=JSON した結果（実行計画）の要約。
+ * 【方針】
+ * - Mapper が実際に発行する SQL（動的SQL・bind を展開済み）とパラメータで EXPLAIN する
+ * - テーブル（別名）ごとのアクセス方式・使用インデックスと、filesort / 一時テーブルの有無だけを取り出す
+ * - 全件読み：アクセス方式が ALL（テーブル全体）または index（インデックス全体）のテーブル
+ * - INSERT 先のテーブルは読み取りではないため対象外
+ */
+public final class QueryPlan {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private final Map<String, String> accessTypes = new LinkedHashMap<>();   // テーブル別名 → アクセス方式
+  private final Map<String, String> keys = new LinkedHashMap<>();          // テーブル別名 → 使用インデックス
+  private final Set<String> fullScans = new LinkedHashSet<>();
+  private boolean filesort;
+  private boolean temporaryTable;
+  private final String json;
+
+  private QueryPlan(String json) {
+    this.json = json;
+  }
+
+  /**
+   * Mapper のステートメントを EXPLAIN FORMAT=JSON する。
+   *
+   * @param configuration MyBatis の設定（ステートメントの取得に使う）
+   * @param dataSource    EXPLAIN を発行する接続先
+   * @param statementId   ステートメントID（Mapper の完全修飾名 + "." + id）
+   * @param params        ステートメントに渡すパラメータ
+   * @return 実行計画の要約
+   */
+  public static QueryPlan explain(Configuration configuration, DataSource dataSource,
+      String statementId, Object params) throws SQLException {
+
+    MappedStatement ms = configuration.getMappedStatement(statementId);
+    BoundSql boundSql = ms.getBoundSql(params);
+
+    String json;
+    try (Connection con = dataSource.getConnection();
+        PreparedStatement ps = con.prepareStatement("EXPLAIN FORMAT=JSON " + boundSql.getSql())) {
+      ParameterHandler handler = new DefaultParameterHandler(ms, params, boundSql);
+      handler.setParameters(ps);
+
+      try (ResultSet rs = ps.executeQuery()) {
+        rs.next();
+        json = rs.getString(1);
+      }
+    }
+
+    QueryPlan plan = new QueryPlan(json);
+    try {
+      plan.walk(JSON.readTree(json));
+    } catch (Exception e) {
+      throw new IllegalStateException("EXPLAIN の結果を解析できません: " + json, e);
+    }
+    return plan;
+  }
+
+  private void walk(JsonNode node) {
+    if (node.isObject()) {
+      if (node.has("table_name") && node.has("access_type") && !node.path("insert").asBoolean(false)) {
+        String table = node.get("table_name").asText();
+        String accessType = node.get("access_type").asText();
+        accessTypes.put(table, accessType);
+        keys.put(table, node.path("key").asText(null));
+        if ("ALL".equals(accessType) || "index".equals(accessType)) {
+          fullScans.add(table);
+        }
+      }
+      if (node.path("using_filesort").asBoolean(false)) {
+        filesort = true;
+      }
+      if (node.path("using_temporary_table").asBoolean(false)) {
+        temporaryTable = true;
+      }
+    }
+    // オブジェクトの値・配列の要素を順にたどる（サブクエリ・UNION も含めて見る）
+    for (JsonNode child : node) {
+      walk(child);
+    }
+  }
+
+  /** 全件読み（ALL / index）になっているテーブル別名 */
+  public Set<String> fullScans() {
+    return fullScans;
+  }
+
+  /** 指定したテーブル別名の使用インデックス（使っていない・テーブルが無い場合は null） */
+  public String key(String table) {
+    return keys.get(table);
+  }
+
+  public boolean usesFilesort() {
+    return filesort;
+  }
+
+  public boolean usesTemporaryTable() {
+    return temporaryTable;
+  }
+
+  /** 失敗時のメッセージ用（テーブル別名:アクセス方式:インデックス と、EXPLAIN の JSON） */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    accessTypes.forEach((table, accessType) ->
+        sb.append(table).append(':').append(accessType).append(':').append(keys.get(table)).append(' '));
+    if (filesort) {
+      sb.append("[filesort] ");
+    }
+    if (temporaryTable) {
+      sb.append("[temporary] ");
+    }
+    return sb.append('\n').append(json).toString();
+  }
+}
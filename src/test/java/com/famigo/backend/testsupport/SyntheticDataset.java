@@ -0,0 +1,201 @@
+package com.famigo.backend.testsupport;
+
+import com.famigo.backend.security.TokenDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * 実行計画の確認用に、本番相当の件数の合成データを投入・削除するクラス。
+ * seed（十数件）のままでは、オプティマイザがインデックスを使わず全件読みを選ぶため、計画の退行を検知できない。
+ * 【方針】
+ * - 合成データの ID は BASE_ID より大きい値にそろえ、seed と区別して後から削除できるようにする
+ * - 件数は SCALE 倍できる（-Dfamigo.query-plan.scale=10 など）
+ * - 投入後に ANALYZE TABLE で統計情報を更新する（統計が古いと件数に見合った計画にならない）
+ * - 投入はコミットされるため、テストクラスの終了時に必ず clear すること
+ */
+public final class SyntheticDataset {
+
+  // 合成データの ID の開始位置（これより大きい ID が合成データ）
+  public static final long BASE_ID = 100_000;
+
+  // 件数の倍率
+  public static final int SCALE = Integer.getInteger("famigo.query-plan.scale", 1);
+
+  public static final int SPOTS = 2_000 * SCALE;
+  public static final int USERS = 500 * SCALE;
+  public static final int REVIEWS_PER_SPOT = 10;
+  public static final int FAVORITES_PER_USER = 10;
+  public static final int REFRESH_TOKENS_PER_USER = 4;
+
+  private SyntheticDataset() {
+  }
+
+  public static long spotId(int n) {
+    return BASE_ID + n;
+  }
+
+  public static long userId(int n) {
+    return BASE_ID + n;
+  }
+
+  public static String userEmail(int n) {
+    return "plan-user-" + n + "@example.com";
+  }
+
+  /**
+   * n 番目のリフレッシュトークンのハッシュ値（refresh_tokens.token_hash）。
+   */
+  public static String refreshTokenHash(int n) {
+    return TokenDigest.sha256Hex("plan-refresh-" + n);
+  }
+
+  /**
+   * 合成データを投入し、統計情報を更新する。
+   */
+  public static void load(DataSource dataSource) throws SQLException {
+    try (Connection con = dataSource.getConnection()) {
+      con.setAutoCommit(true);
+      clear(con);
+
+      try (Statement st = con.createStatement()) {
+        st.execute("SET SESSION cte_max_recursion_depth = " + (SPOTS * REVIEWS_PER_SPOT + 1));
+      }
+
+      execute(con, """
+          INSERT INTO users (id, name, email, password_hash, role, created_at, updated_at, is_deleted)
+          WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+          SELECT ? + n, CONCAT('検証ユーザー', n), CONCAT('plan-user-', n, '@example.com'), 'x', 'USER',
+                 NOW() - INTERVAL n MINUTE, NOW() - INTERVAL n MINUTE, 0
+          FROM seq
+          """, USERS, BASE_ID);
+
+      // 緯度・経度は 1度四方に 50 × 40 の格子で並べる（近くのスポット検索で SPATIAL INDEX が選ばれる密度）
+      execute(con, """
+          INSERT INTO spots (id, category_id, name, address, area, price_type, target_age,
+                             latitude, longitude, created_at, updated_at, is_deleted)
+          WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+          SELECT ? + n, 1 + MOD(n, 10), CONCAT('検証スポット', n), CONCAT('滋賀県検証市', n),
+                 CONCAT('検証市', MOD(n, 50)),
+                 ELT(1 + MOD(n, 4), '無料', '1000円以内', '2000円以内', '2000円超'),
+                 ELT(1 + MOD(n, 3), '全年齢', '未就学児まで', '小学校低学年まで'),
+                 34 + MOD(n, 50) * 0.02, 135 + MOD(n DIV 50, 40) * 0.025,
+                 NOW() - INTERVAL n MINUTE, NOW() - INTERVAL n MINUTE, IF(MOD(n, 20) = 0, 1, 0)
+          FROM seq
+          """, SPOTS, BASE_ID);
+
+      execute(con, """
+          INSERT INTO spot_facilities (spot_id, diaper_changing, stroller_ok, playground, athletics,
+                                       water_play, indoor, created_at, updated_at, is_deleted)
+          WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+          SELECT ? + n, MOD(n, 2), MOD(n, 3) = 0, MOD(n, 4) = 0, MOD(n, 5) = 0, MOD(n, 6) = 0, MOD(n, 7) = 0,
+                 NOW() - INTERVAL n MINUTE, NOW() - INTERVAL n MINUTE, 0
+          FROM seq
+          """, SPOTS, BASE_ID);
+
+      execute(con, """
+          INSERT INTO reviews (spot_id, user_id, child_age_group, rating, review_text,
+                               created_at, updated_at, is_deleted)
+          WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+          SELECT ? + 1 + MOD(n, ?), ? + 1 + MOD(n, ?), '未就学児', 1 + MOD(n, 5), CONCAT('検証レビュー', n),
+                 NOW() - INTERVAL n MINUTE, NOW() - INTERVAL n MINUTE, 0
+          FROM seq
+          """, SPOTS * REVIEWS_PER_SPOT, BASE_ID, SPOTS, BASE_ID, USERS);
+
+      // レビュー集計は投入したレビューから作る（本番と同じく、レビューのあるスポットにだけ行がある）
+      execute(con, """
+          INSERT INTO spot_review_stats (spot_id, review_count, rating_sum, rating_count,
+                                         rating_1_count, rating_2_count, rating_3_count, rating_4_count,
+                                         rating_5_count, created_at, updated_at)
+          SELECT r.spot_id, COUNT(*), SUM(r.rating), COUNT(r.rating),
+                 SUM(r.rating = 1), SUM(r.rating = 2), SUM(r.rating = 3), SUM(r.rating = 4), SUM(r.rating = 5),
+                 NOW(), NOW()
+          FROM reviews r
+          WHERE r.spot_id > ? AND r.is_deleted = 0
+          GROUP BY r.spot_id
+          """, BASE_ID);
+
+      // 1ユーザーあたり FAVORITES_PER_USER 件（ユーザー内でスポットが重複しないよう 7 おきに選ぶ）
+      execute(con, """
+          INSERT INTO favorites (user_id, spot_id, created_at, updated_at, is_deleted)
+          WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+          SELECT ? + 1 + n DIV ?, ? + 1 + MOD(n * 7, ?),
+                 NOW() - INTERVAL n MINUTE, NOW() - INTERVAL n MINUTE, IF(MOD(n, 9) = 0, 1, 0)
+          FROM seq
+          """, USERS * FAVORITES_PER_USER - 1, BASE_ID, FAVORITES_PER_USER, BASE_ID, SPOTS);
+
+      // 1ユーザーあたり REFRESH_TOKENS_PER_USER 件（30件に1件は期限切れ、7件に1件は失効済み）
+      execute(con, """
+          INSERT INTO refresh_tokens (user_id, token_hash, expires_at, revoked_at, created_at)
+          WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+          SELECT ? + 1 + MOD(n, ?), SHA2(CONCAT('plan-refresh-', n), 256),
+                 NOW() - INTERVAL 1 DAY + INTERVAL MOD(n, 30) DAY,
+                 IF(MOD(n, 7) = 0, NOW(), NULL), NOW() - INTERVAL n MINUTE
+          FROM seq
+          """, USERS * REFRESH_TOKENS_PER_USER, BASE_ID, USERS);
+
+      analyze(con);
+    }
+  }
+
+  /**
+   * 合成データを削除し、統計情報を seed の件数に戻す。
+   */
+  public static void clear(DataSource dataSource) throws SQLException {
+    try (Connection con = dataSource.getConnection()) {
+      con.setAutoCommit(true);
+      clear(con);
+      analyze(con);
+    }
+  }
+
+  /**
+   * 合成データのうち、ID が最小のレビューを返す（主キーで引くステートメントの確認用）。
+   */
+  public static long firstReviewId(DataSource dataSource) throws SQLException {
+    try (Connection con = dataSource.getConnection();
+        PreparedStatement ps = con.prepareStatement("SELECT MIN(id) FROM reviews WHERE spot_id > ?")) {
+      ps.setLong(1, BASE_ID);
+      try (ResultSet rs = ps.executeQuery()) {
+        rs.next();
+        return rs.getLong(1);
+      }
+    }
+  }
+
+  private static void execute(Connection con, String sql, Object... params) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement(sql)) {
+      for (int i = 0; i < params.length; i++) {
+        ps.setObject(i + 1, params[i]);
+      }
+      ps.executeUpdate();
+    }
+  }
+
+  private static void clear(Connection con) throws SQLException {
+    String[] deletes = {
+        "DELETE FROM refresh_tokens WHERE user_id > ?",
+        "DELETE FROM favorites WHERE user_id > ?",
+        "DELETE FROM favorites WHERE spot_id > ?",
+        "DELETE FROM reviews WHERE user_id > ?",
+        "DELETE FROM reviews WHERE spot_id > ?",
+        "DELETE FROM spot_review_stats WHERE spot_id > ?",
+        "DELETE FROM spot_facilities WHERE spot_id > ?",
+        "DELETE FROM spots WHERE id > ?",
+        "DELETE FROM users WHERE id > ?"
+    };
+    for (String sql : deletes) {
+      execute(con, sql, BASE_ID);
+    }
+  }
+
+  private static void analyze(Connection con) throws SQLException {
+    try (Statement st = con.createStatement()) {
+      st.execute("ANALYZE TABLE users, categories, spots, spot_facilities, reviews, spot_review_stats, favorites,"
+          + " refresh_tokens");
+    }
+  }
+}